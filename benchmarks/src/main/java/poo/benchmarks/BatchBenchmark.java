@@ -0,0 +1,98 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.entity.User;
+import poo.system.BatchMode;
+import poo.system.BatchResult;
+import poo.system.Borrow;
+import poo.system.Library;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Empréstimo e devolução de vários itens de uma vez (performBorrows/returnBorrows) comparados com a
+// mesma sequência feita item a item. O resultado é o tempo por lote completo (empréstimo + devolução).
+// Usa professores, que podem ter até 10 empréstimos abertos.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    @State(Scope.Thread)
+    public static class Batch {
+        @Param({"2", "8"})
+        public int batchSize;
+
+        private String[] professorCpfs;
+        private String[] freeItemIds;
+        private int nextUser;
+        private int nextItem;
+
+        String userCpf;
+        List<String> itemIds;
+
+        @Setup(Level.Trial)
+        public void load(LibraryState state) {
+            professorCpfs = state.fixture.userCpfs(User.UserType.PROFESSOR);
+            freeItemIds = state.fixture.freeItemIds();
+        }
+
+        @Setup(Level.Invocation)
+        public void prepare() {
+            userCpf = professorCpfs[nextUser];
+            nextUser = (nextUser + 1) % professorCpfs.length;
+            String[] ids = new String[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                ids[i] = freeItemIds[nextItem];
+                nextItem = (nextItem + 1) % freeItemIds.length;
+            }
+            itemIds = Arrays.asList(ids);
+        }
+    }
+
+    @Benchmark
+    public int singleOperations(LibraryState state, Batch batch) {
+        Library library = state.library;
+        LocalDate today = state.fixture.today();
+        List<String> borrowIds = new ArrayList<>(batch.batchSize);
+        for (String itemId : batch.itemIds) {
+            Borrow borrow = library.performBorrow(batch.userCpf, itemId);
+            if (borrow != null) {
+                borrowIds.add(borrow.getBorrowId());
+            }
+        }
+        int returned = 0;
+        for (String borrowId : borrowIds) {
+            if (library.returnBorrow(borrowId, today)) {
+                returned++;
+            }
+        }
+        return returned;
+    }
+
+    @Benchmark
+    public int batchOperations(LibraryState state, Batch batch) {
+        Library library = state.library;
+        BatchResult borrowed = library.performBorrows(batch.userCpf, batch.itemIds, BatchMode.ALL_OR_NOTHING);
+        List<String> borrowIds = new ArrayList<>(batch.batchSize);
+        for (Borrow borrow : borrowed.getBorrows()) {
+            borrowIds.add(borrow.getBorrowId());
+        }
+        return library.returnBorrows(borrowIds, state.fixture.today(), BatchMode.PER_ITEM).getSuccessCount();
+    }
+}
@@ -0,0 +1,65 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.system.Borrow;
+import poo.system.Library;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Vários balcões atendendo ao mesmo tempo: cada thread empresta e devolve itens da sua própria fatia do
+// acervo, para usuários da sua fatia, então as threads só disputam as estruturas compartilhadas da
+// Library. Para ver o ganho com mais threads, compare execuções com -t 1, -t 2, -t 4...
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentDeskBenchmark {
+
+    @State(Scope.Thread)
+    public static class Desk {
+        private static final AtomicInteger NEXT_DESK = new AtomicInteger();
+        private static final int SLICES = 64; // Suficiente para até 64 threads
+
+        private String[] itemIds;
+        private String[] userCpfs;
+        private long next;
+
+        @Setup(Level.Trial)
+        public void takeSlice(LibraryState state) {
+            int desk = NEXT_DESK.getAndIncrement() % SLICES;
+            itemIds = slice(state.fixture.freeItemIds(), desk);
+            userCpfs = slice(state.fixture.userCpfs(), desk);
+            if (itemIds.length == 0 || userCpfs.length == 0) {
+                throw new IllegalStateException("Biblioteca pequena demais para " + SLICES + " balcões.");
+            }
+        }
+
+        private static String[] slice(String[] all, int desk) {
+            int size = all.length / SLICES;
+            String[] part = new String[size];
+            System.arraycopy(all, desk * size, part, 0, size);
+            return part;
+        }
+    }
+
+    @Benchmark
+    public boolean borrowAndReturn(LibraryState state, Desk desk) {
+        Library library = state.library;
+        long i = desk.next++;
+        Borrow borrow = library.performBorrow(desk.userCpfs[(int) (i % desk.userCpfs.length)], desk.itemIds[(int) (i % desk.itemIds.length)]);
+        return borrow != null && library.returnBorrow(borrow.getBorrowId(), state.fixture.today());
+    }
+}
@@ -0,0 +1,101 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.entity.User;
+import poo.item.Book;
+import poo.item.CopyInventory;
+import poo.log.EventLog;
+import poo.log.LogLevel;
+import poo.system.Borrow;
+import poo.system.Library;
+import poo.system.LibraryFixture;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Um título muito procurado (ex.: livro-texto de uma disciplina) emprestado e devolvido por muitos
+// usuários ao mesmo tempo, pela Library: cada thread atende os seus próprios usuários, e todas disputam
+// o lock do item e os exemplares do título. Com um único exemplar a maioria das tentativas é recusada;
+// com muitos exemplares os empréstimos passam a competir só pelo lock. Compare com -t 1 para ver o custo
+// da disputa.
+//
+// inventoryBorrowAndReturn é a referência: o mesmo ciclo direto no Book, sem a Library nem o lock do
+// item, medindo só o contador de livres e o mapa de exemplares.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CopyInventoryBenchmark {
+
+    private static final String ISBN = LibraryFixture.isbn(1);
+
+    @State(Scope.Benchmark)
+    public static class Title {
+        static final int USERS_PER_THREAD = 8;
+        static final int MAX_THREADS = 64;
+
+        @Param({"1", "64", "1024"})
+        int copies;
+
+        Library library;
+        Book book; // Fora da Library, para o caso de referência
+        LocalDate today;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            EventLog.setLevel(LogLevel.ERROR); // O log de cada empréstimo dominaria a medição
+            library = new Library();
+            library.addItem(new Book("Cálculo Volume 1", "J. Stewart", 2013, ISBN, copies));
+            for (int i = 0; i < USERS_PER_THREAD * MAX_THREADS; i++) {
+                library.registerUser(new User("Leitor " + i, LibraryFixture.cpf(i), "leitor" + i + "@biblioteca.edu.br", User.UserType.STUDENT));
+            }
+            book = new Book("Cálculo Volume 1", "J. Stewart", 2013, ISBN, copies);
+            today = LocalDate.now();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+        private static final AtomicInteger NEXT_READER = new AtomicInteger();
+
+        final User user = new User("Maria Souza", LibraryFixture.cpf(0), "maria.souza@biblioteca.edu.br", User.UserType.STUDENT);
+        String[] userCpfs;
+        long next;
+
+        @Setup(Level.Trial)
+        public void takeUsers() {
+            int reader = NEXT_READER.getAndIncrement() % Title.MAX_THREADS;
+            userCpfs = new String[Title.USERS_PER_THREAD];
+            for (int i = 0; i < userCpfs.length; i++) {
+                userCpfs[i] = LibraryFixture.cpf(reader * Title.USERS_PER_THREAD + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean libraryBorrowAndReturn(Title title, Reader reader) {
+        Library library = title.library;
+        Borrow borrow = library.performBorrow(reader.userCpfs[(int) (reader.next++ % reader.userCpfs.length)], ISBN);
+        return borrow != null && library.returnBorrow(borrow.getBorrowId(), title.today);
+    }
+
+    @Benchmark
+    public boolean inventoryBorrowAndReturn(Title title, Reader reader) {
+        int copy = title.book.borrowItem(reader.user);
+        return copy != CopyInventory.NO_COPY && title.book.returnItem(copy);
+    }
+}
@@ -0,0 +1,102 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.system.Borrow;
+import poo.system.DomainEvent;
+import poo.system.DomainEventPublisher;
+import poo.system.Library;
+import poo.system.OverflowPolicy;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Custo da publicação de eventos no caminho de performBorrow/returnBorrow: empréstimo + devolução sem
+// publisher ("NONE") e com um publisher e dois assinantes que acompanham o ritmo, em cada política.
+// A diferença para NONE é a latência acrescentada às operações. No fim de cada execução são impressos
+// os eventos publicados e os recebidos até ali pelos assinantes (a entrega é assíncrona).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPublisherBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Publishing {
+        @Param({"NONE", "BLOCK", "DROP_OLDEST", "SPILL"})
+        public String policy;
+
+        private DomainEventPublisher publisher;
+        private final AtomicLong received = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void subscribe(LibraryState state) {
+            if (policy.equals("NONE")) {
+                return;
+            }
+            publisher = new DomainEventPublisher();
+            for (int i = 0; i < 2; i++) {
+                publisher.subscribe(new CountingSubscriber(received), OverflowPolicy.valueOf(policy));
+            }
+            state.library.setEventPublisher(publisher);
+        }
+
+        @TearDown(Level.Trial)
+        public void close(LibraryState state) {
+            if (publisher == null) {
+                return;
+            }
+            state.library.setEventPublisher(null);
+            publisher.close();
+            System.out.printf("%nEventos publicados: %d, recebidos pelos assinantes: %d, descartados: %d, transbordados: %d, esperas esgotadas: %d%n",
+                    publisher.getPublishedEvents(), received.get(), publisher.getDroppedEvents(), publisher.getSpilledEvents(),
+                    publisher.getBlockTimeouts());
+        }
+    }
+
+    private static final class CountingSubscriber implements Flow.Subscriber<DomainEvent> {
+        private final AtomicLong received;
+
+        CountingSubscriber(AtomicLong received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DomainEvent event) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            error.printStackTrace();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    @Benchmark
+    public boolean borrowAndReturn(LibraryState state, Publishing publishing) {
+        Library library = state.library;
+        Borrow borrow = library.performBorrow(state.nextUser(), state.nextFreeItem());
+        return borrow != null && library.returnBorrow(borrow.getBorrowId(), state.fixture.today());
+    }
+}
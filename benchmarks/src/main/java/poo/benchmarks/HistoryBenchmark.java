@@ -0,0 +1,84 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.system.Borrow;
+import poo.system.Library;
+import poo.system.LibraryFixture;
+import poo.system.LibraryMetrics;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Histórico de empréstimos encerrados. Na preparação, 'loans' empréstimos são feitos e devolvidos numa
+// biblioteca de 100.000 itens e 10.000 usuários, e é impressa a memória que o histórico ocupa por milhão
+// de empréstimos: a medida pelo heap (diferença do heap usado, depois de GC, antes e depois de encher o
+// histórico) e a estimativa das métricas da biblioteca (ClosedBorrowHistoryBytesPerMillion, também
+// disponível via JMX). Os benchmarks medem a consulta do histórico de um usuário (cerca de
+// loans / 10.000 empréstimos montados a partir das colunas).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HistoryBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final int USERS = 10_000;
+
+    @Param({"1000000"})
+    public int loans;
+
+    private Library library;
+    private String[] userCpfs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillHistory() {
+        LibraryFixture fixture = LibraryFixture.create(ITEMS, USERS, 0);
+        library = fixture.library();
+        userCpfs = fixture.userCpfs();
+
+        long before = usedHeapAfterGc();
+        fixture.addClosedLoans(loans);
+        long after = usedHeapAfterGc();
+
+        LibraryMetrics metrics = library.getMetrics();
+        System.out.printf("%nHistórico: %d empréstimos encerrados%n", metrics.getClosedBorrows());
+        System.out.printf("  medido no heap: %.1f MB por milhão de empréstimos%n", (after - before) * 1_000_000.0 / loans / (1 << 20));
+        System.out.printf("  estimativa das colunas: %.1f MB por milhão de empréstimos%n",
+                metrics.getClosedBorrowHistoryBytesPerMillion() / (1 << 20));
+    }
+
+    @Benchmark
+    public List<Borrow> userBorrowHistory() {
+        String cpf = userCpfs[next++ % userCpfs.length];
+        return library.getUser(cpf).getBorrowHistory();
+    }
+
+    @Benchmark
+    public int userBorrowHistorySize() {
+        String cpf = userCpfs[next++ % userCpfs.length];
+        return library.getUser(cpf).getBorrowHistorySize();
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
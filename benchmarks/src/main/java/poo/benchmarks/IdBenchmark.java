@@ -0,0 +1,91 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import poo.entity.User;
+import poo.item.Book;
+import poo.item.LibraryItem;
+import poo.system.Borrow;
+import poo.system.IdCodec;
+import poo.system.IdGenerator;
+import poo.system.LibraryFixture;
+import poo.system.TimeOrderedIdGenerator;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// IDs de empréstimos e multas: UUID aleatório em texto (como era antes) contra o TimeOrderedIdGenerator.
+//
+// Geração: todas as threads da máquina pedindo IDs ao mesmo gerador (compare com -t 1 para ver o efeito
+// da disputa). O UUID passa pelo SecureRandom compartilhado; o gerador novo faz um compareAndSet.
+//
+// Memória por registro: com o GC profiler (ligado por padrão no BenchmarkRunner), gc.alloc.rate.norm
+// mostra os bytes alocados por empréstimo criado. Com UUID, cada registro guardava também uma String de
+// 36 caracteres (~80 bytes: objeto String + byte[] de 36 posições) e um UUID temporário; com o ID em long
+// são 8 bytes dentro do próprio Borrow/Penalty, e o texto só é criado quando pedido (getBorrowId).
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Generator {
+        final IdGenerator generator = new TimeOrderedIdGenerator();
+    }
+
+    @State(Scope.Thread)
+    public static class Record {
+        final User user = new User("Maria Souza", LibraryFixture.cpf(1), "maria.souza@biblioteca.edu.br", User.UserType.STUDENT);
+        final LibraryItem item = new Book("Estruturas de Dados", "N. Wirth", 1986, LibraryFixture.isbn(1));
+        final LocalDate borrowDate = LocalDate.of(2024, 5, 1);
+        final LocalDate dueDate = borrowDate.plusDays(14);
+        final String borrowId = IdCodec.format(new TimeOrderedIdGenerator().nextId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String uuidText() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long timeOrdered(Generator generator) {
+        return generator.generator.nextId();
+    }
+
+    // Custo do ID em texto na borda da API (ex.: getBorrowId para exibir ou enviar ao cliente)
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String timeOrderedText(Generator generator) {
+        return IdCodec.format(generator.generator.nextId());
+    }
+
+    @Benchmark
+    public long parseText(Record record) {
+        return IdCodec.parse(record.borrowId);
+    }
+
+    // Criação de um empréstimo como antes: o registro mais a String do UUID que ele guardava
+    @Benchmark
+    public Borrow newBorrowWithUuid(Record record, Blackhole blackhole) {
+        blackhole.consume(UUID.randomUUID().toString());
+        return new Borrow(record.user, record.item, record.borrowDate, record.dueDate);
+    }
+
+    @Benchmark
+    public Borrow newBorrow(Record record) {
+        return new Borrow(record.user, record.item, record.borrowDate, record.dueDate);
+    }
+}
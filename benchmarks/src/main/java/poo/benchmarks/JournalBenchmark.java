@@ -0,0 +1,111 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.entity.User;
+import poo.item.LibraryItem;
+import poo.log.EventLog;
+import poo.log.LogLevel;
+import poo.system.Borrow;
+import poo.system.Library;
+import poo.system.LibraryFixture;
+import poo.system.LibraryJournal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Vazão de empréstimos e devoluções com o journal ligado, com e sem fsync a cada commit.
+// Com várias threads (-t 4, -t 8) os commits simultâneos são gravados juntos (group commit), com um
+// único fsync; compare a vazão por thread entre as execuções. Os arquivos ficam num diretório
+// temporário, apagado ao final.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+
+    // Múltiplos de SLICES: o item i de uma thread nunca cai na fatia de outra
+    private static final int SLICES = 64;
+    private static final int ITEMS = 160 * SLICES;
+    private static final int USERS = 16 * SLICES;
+
+    @State(Scope.Benchmark)
+    public static class JournaledLibrary {
+        @Param({"false", "true"})
+        public boolean fsync;
+
+        Path directory;
+        Library library;
+        String[] itemIds;
+        String[] userCpfs;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            EventLog.setLevel(LogLevel.ERROR);
+            directory = Files.createTempDirectory("poo-journal-bench");
+            library = LibraryJournal.openLibrary(directory, fsync, LibraryJournal.DEFAULT_SNAPSHOT_INTERVAL);
+
+            List<LibraryItem> items = LibraryFixture.generateItems(ITEMS, LibraryFixture.SEED);
+            library.addItems(items);
+            itemIds = items.stream().map(item -> LibraryFixture.identifierOf(library, item)).toArray(String[]::new);
+            List<User> users = LibraryFixture.generateUsers(USERS, LibraryFixture.SEED);
+            userCpfs = new String[USERS];
+            for (int i = 0; i < USERS; i++) {
+                library.registerUser(users.get(i));
+                userCpfs[i] = users.get(i).getCPF();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            library.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // Fatia de itens e usuários de cada thread, para que as threads não disputem os mesmos itens
+    @State(Scope.Thread)
+    public static class Desk {
+        private static final AtomicInteger NEXT_DESK = new AtomicInteger();
+
+        int desk;
+        int next;
+
+        @Setup(Level.Trial)
+        public void takeSlice() {
+            desk = NEXT_DESK.getAndIncrement() % SLICES;
+        }
+    }
+
+    @Benchmark
+    public boolean borrowAndReturn(JournaledLibrary state, Desk desk) {
+        int i = desk.desk + SLICES * desk.next;
+        desk.next = (desk.next + 1) % (ITEMS / SLICES);
+        String itemId = state.itemIds[i % state.itemIds.length];
+        String userCpf = state.userCpfs[i % state.userCpfs.length];
+        Borrow borrow = state.library.performBorrow(userCpf, itemId);
+        return borrow != null && state.library.returnBorrow(borrow.getBorrowId(), LocalDate.now());
+    }
+}
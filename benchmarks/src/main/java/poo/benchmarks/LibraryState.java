@@ -0,0 +1,48 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import poo.system.Library;
+import poo.system.LibraryFixture;
+
+// Biblioteca gerada uma vez por execução (trial) e compartilhada pelas threads do benchmark.
+// Outros tamanhos: -p dataset=itens/usuarios/emprestimos (ver LibraryFixture).
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    @Param({"1000/1000/300", "100000/10000/20000", "1000000/100000/200000"})
+    public String dataset;
+
+    public LibraryFixture fixture;
+    public Library library;
+
+    private String[] freeItemIds;
+    private String[] userCpfs;
+    private int nextItem;
+    private int nextUser;
+
+    @Setup(Level.Trial)
+    public void createLibrary() {
+        fixture = LibraryFixture.create(dataset);
+        library = fixture.library();
+        freeItemIds = fixture.freeItemIds();
+        userCpfs = fixture.userCpfs();
+    }
+
+    // Itens e usuários em rodízio para abrir empréstimos novos. Cada medição devolve os empréstimos que
+    // abriu, então os itens da fila voltam a ficar disponíveis.
+    public String nextFreeItem() {
+        String itemId = freeItemIds[nextItem];
+        nextItem = (nextItem + 1) % freeItemIds.length;
+        return itemId;
+    }
+
+    public String nextUser() {
+        String cpf = userCpfs[nextUser];
+        nextUser = (nextUser + 1) % userCpfs.length;
+        return cpf;
+    }
+}
@@ -0,0 +1,75 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.metrics.LatencyHistogram;
+import poo.system.Borrow;
+import poo.system.Library;
+import java.util.concurrent.TimeUnit;
+
+// Custo das métricas no caminho das operações: empréstimo + devolução com a medição de tempo ligada e
+// desligada (os contadores ficam sempre ligados), e o custo de uma gravação no histograma de latência
+// com uma e com quatro threads gravando no mesmo histograma.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Timing {
+        @Param({"true", "false"})
+        public boolean timingEnabled;
+
+        @Setup(Level.Trial)
+        public void configure(LibraryState state) {
+            state.library.getMetrics().setTimingEnabled(timingEnabled);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Histogram {
+        final LatencyHistogram histogram = new LatencyHistogram();
+    }
+
+    @State(Scope.Thread)
+    public static class Latencies {
+        long next = 1;
+
+        // Valores variados (até ~1 ms) para não gravar sempre na mesma faixa
+        long nextLatency() {
+            next = (next * 6_364_136_223_846_793_005L + 1_442_695_040_888_963_407L);
+            return (next >>> 44);
+        }
+    }
+
+    @Benchmark
+    public boolean borrowAndReturn(LibraryState state, Timing timing) {
+        Library library = state.library;
+        Borrow borrow = library.performBorrow(state.nextUser(), state.nextFreeItem());
+        return borrow != null && library.returnBorrow(borrow.getBorrowId(), state.fixture.today());
+    }
+
+    @Benchmark
+    public void histogramRecord(Histogram histogram, Latencies latencies) {
+        histogram.histogram.record(latencies.nextLatency());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramRecordContended(Histogram histogram, Latencies latencies) {
+        histogram.histogram.record(latencies.nextLatency());
+    }
+}
@@ -0,0 +1,170 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import poo.system.Borrow;
+import poo.system.Library;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Custo de cada operação de balcão: empréstimo, devolução (no prazo e com multa), renovação e pagamento.
+//
+// Cada chamada do benchmark executa OPS operações sobre empréstimos preparados antes da chamada (fora da
+// medição); o resultado já vem dividido por OPS. Depois da chamada os empréstimos abertos são devolvidos
+// e as multas quitadas, para que a biblioteca continue com o tamanho gerado. O histórico de empréstimos
+// encerrados cresce a cada chamada, como numa biblioteca em uso.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationBenchmark {
+
+    static final int OPS = 256;
+
+    // Pares usuário/item livres para novos empréstimos
+    @State(Scope.Thread)
+    public static class FreeSlots {
+        final String[] userCpfs = new String[OPS];
+        final String[] itemIds = new String[OPS];
+        final Borrow[] borrows = new Borrow[OPS];
+
+        @Setup(Level.Invocation)
+        public void prepare(LibraryState state) {
+            for (int i = 0; i < OPS; i++) {
+                userCpfs[i] = state.nextUser();
+                itemIds[i] = state.nextFreeItem();
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void returnBorrows(LibraryState state) {
+            returnOpen(state, borrows);
+        }
+    }
+
+    // Empréstimos abertos hoje, para devolução no prazo e renovação
+    @State(Scope.Thread)
+    public static class CurrentBorrows {
+        final Borrow[] borrows = new Borrow[OPS];
+
+        @Setup(Level.Invocation)
+        public void prepare(LibraryState state) {
+            openBorrows(state, borrows, 0);
+        }
+
+        // Só sobram abertos os empréstimos renovados
+        @TearDown(Level.Invocation)
+        public void returnBorrows(LibraryState state) {
+            returnOpen(state, borrows);
+        }
+    }
+
+    // Empréstimos vencidos há 10 dias: a devolução gera multa e bloqueia o usuário
+    @State(Scope.Thread)
+    public static class OverdueBorrows {
+        final Borrow[] borrows = new Borrow[OPS];
+
+        @Setup(Level.Invocation)
+        public void prepare(LibraryState state) {
+            openBorrows(state, borrows, 10);
+        }
+
+        @TearDown(Level.Invocation)
+        public void payPenalties(LibraryState state) {
+            for (Borrow borrow : borrows) {
+                state.library.payAllPenalties(borrow.getUser().getCPF());
+            }
+        }
+    }
+
+    // Multas pendentes (de empréstimos já devolvidos com atraso)
+    @State(Scope.Thread)
+    public static class PendingPenalties {
+        final String[] penaltyIds = new String[OPS];
+
+        @Setup(Level.Invocation)
+        public void prepare(LibraryState state) {
+            for (int i = 0; i < OPS; i++) {
+                penaltyIds[i] = state.fixture.createPendingPenalty(state.nextUser(), state.nextFreeItem());
+            }
+        }
+    }
+
+    private static void openBorrows(LibraryState state, Borrow[] borrows, int daysOverdue) {
+        for (int i = 0; i < OPS; i++) {
+            String cpf = state.nextUser();
+            int period = state.library.getUser(cpf).getUserType().getDefaultBorrowPeriodDays();
+            LocalDate borrowDate = state.fixture.today().minusDays(daysOverdue > 0 ? period + daysOverdue : 0);
+            borrows[i] = state.fixture.borrow(cpf, state.nextFreeItem(), borrowDate);
+        }
+    }
+
+    private static void returnOpen(LibraryState state, Borrow[] borrows) {
+        for (int i = 0; i < OPS; i++) {
+            if (borrows[i] != null && borrows[i].getReturnDate() == null) {
+                state.fixture.returnBorrow(borrows[i].getBorrowId(), state.fixture.today());
+            }
+            borrows[i] = null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void performBorrow(LibraryState state, FreeSlots slots) {
+        Library library = state.library;
+        for (int i = 0; i < OPS; i++) {
+            slots.borrows[i] = library.performBorrow(slots.userCpfs[i], slots.itemIds[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void returnBorrow(LibraryState state, CurrentBorrows current, Blackhole blackhole) {
+        Library library = state.library;
+        LocalDate today = state.fixture.today();
+        for (Borrow borrow : current.borrows) {
+            blackhole.consume(library.returnBorrow(borrow.getBorrowId(), today));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void returnOverdueBorrow(LibraryState state, OverdueBorrows overdue, Blackhole blackhole) {
+        Library library = state.library;
+        LocalDate today = state.fixture.today();
+        for (Borrow borrow : overdue.borrows) {
+            blackhole.consume(library.returnBorrow(borrow.getBorrowId(), today));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void renewBorrow(LibraryState state, CurrentBorrows current, Blackhole blackhole) {
+        Library library = state.library;
+        for (Borrow borrow : current.borrows) {
+            blackhole.consume(library.renewBorrow(borrow.getBorrowId()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void payPenalty(LibraryState state, PendingPenalties pending, Blackhole blackhole) {
+        Library library = state.library;
+        for (String penaltyId : pending.penaltyIds) {
+            blackhole.consume(library.payPenalty(penaltyId));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.item.Book;
+import poo.item.LibraryItem;
+import poo.system.Borrow;
+import poo.entity.User;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Consultas e relatórios sobre a biblioteca gerada. Os métodos "...Scan" repetem a implementação antiga
+// (ordenar ou percorrer o acervo inteiro a cada chamada), como referência para os índices atuais.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int TOP = 10;
+
+    @Benchmark
+    public List<Borrow> getOverdueItems(LibraryState state) {
+        return state.library.getOverdueItems();
+    }
+
+    @Benchmark
+    public List<LibraryItem> getMostBorrowedItems(LibraryState state) {
+        return state.library.getMostBorrowedItems(TOP);
+    }
+
+    @Benchmark
+    public List<LibraryItem> getMostBorrowedItemsScan(LibraryState state) {
+        return state.library.listAllItems().stream()
+                .sorted(Comparator.comparingInt(LibraryItem::getBorrowCount).reversed())
+                .limit(TOP)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<User> getUsersWithMostBorrows(LibraryState state) {
+        return state.library.getUsersWithMostBorrows(TOP);
+    }
+
+    @Benchmark
+    public List<LibraryItem> listItemsByCategory(LibraryState state) {
+        return state.library.listItemsByCategory("Livro");
+    }
+
+    @Benchmark
+    public List<LibraryItem> listItemsByCategoryScan(LibraryState state) {
+        return state.library.listAllItems().stream()
+                .filter(item -> item instanceof Book)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public double getTotalPenaltyRevenue(LibraryState state) {
+        return state.library.getTotalPenaltyRevenue();
+    }
+
+    @Benchmark
+    public List<LibraryItem> searchItems(LibraryState state) {
+        return state.library.searchItems("fundamentos jav*");
+    }
+
+    @Benchmark
+    public List<LibraryItem> findAvailableBooksByYear(LibraryState state) {
+        return state.library.findItems(Book.class, 1990, 2000, true);
+    }
+}
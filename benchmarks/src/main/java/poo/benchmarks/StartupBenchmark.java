@@ -0,0 +1,112 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.entity.User;
+import poo.item.LibraryItem;
+import poo.log.EventLog;
+import poo.log.LogLevel;
+import poo.system.CatalogImporter;
+import poo.system.CatalogSnapshot;
+import poo.system.ImportReport;
+import poo.system.Library;
+import poo.system.LibraryFixture;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tempo para ter a biblioteca carregada na inicialização: a partir do snapshot binário, da importação do
+// catálogo em texto ou adicionando item a item. Cada medição parte de uma Library vazia (tempo de uma
+// única execução, sem aquecimento dentro da medição). O snapshot e as versões com addItem também
+// registram os usuários; o arquivo de catálogo só tem itens.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int items;
+
+    private static final int USERS_PER_ITEM_RATIO = 10; // Um usuário a cada 10 itens
+
+    private Path directory;
+    private Path snapshot;
+    private Path catalog;
+    private List<LibraryItem> catalogItems;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        EventLog.setLevel(LogLevel.ERROR);
+        directory = Files.createTempDirectory("poo-startup-bench");
+        snapshot = directory.resolve("catalogo.bin");
+        catalog = directory.resolve("catalogo.csv");
+
+        catalogItems = LibraryFixture.generateItems(items, LibraryFixture.SEED);
+        users = LibraryFixture.generateUsers(items / USERS_PER_ITEM_RATIO, LibraryFixture.SEED);
+        Library library = new Library();
+        library.addItems(catalogItems);
+        for (User user : users) {
+            library.registerUser(user);
+        }
+        CatalogSnapshot.write(library, snapshot);
+        Files.write(catalog, LibraryFixture.catalogLines(items, LibraryFixture.SEED), StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(catalog);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Library loadSnapshot() throws IOException {
+        return CatalogSnapshot.load(snapshot);
+    }
+
+    @Benchmark
+    public ImportReport importCatalog() throws IOException {
+        return new CatalogImporter(new Library()).importFile(catalog);
+    }
+
+    // Os mesmos objetos são adicionados a cada medição; só o custo da Library entra no tempo
+    @Benchmark
+    public Library addItemByItem() {
+        Library library = new Library();
+        for (LibraryItem item : catalogItems) {
+            library.addItem(item);
+        }
+        for (User user : users) {
+            library.registerUser(user);
+        }
+        return library;
+    }
+
+    @Benchmark
+    public Library addItemsInBulk() {
+        Library library = new Library();
+        library.addItems(catalogItems);
+        for (User user : users) {
+            library.registerUser(user);
+        }
+        return library;
+    }
+}
@@ -0,0 +1,73 @@
+package poo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import poo.validation.IdentifierValidator;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Validação de identificadores com o IdentifierValidator, comparada com as expressões regulares usadas
+// antes nas classes Person, Book e Magazine (que só conferiam o formato, sem os dígitos verificadores).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    private static final Pattern ISBN_PATTERN = Pattern.compile("^(?:978|979)(?:-?\\d){9}(\\d|X)$");
+    private static final Pattern ISSN_PATTERN = Pattern.compile("^\\d{4}-\\d{3}[\\dX]$");
+
+    public String cpf = "52998224725";
+    public String email = "maria.souza@biblioteca.edu.br";
+    public String isbn = "9780306406157"; // Sem hífens: a expressão antiga não aceitava hífen antes do verificador
+    public String issn = "0317-8471";
+
+    @Benchmark
+    public boolean cpfRegex() {
+        return cpf.matches("^\\d{11}$");
+    }
+
+    @Benchmark
+    public boolean cpfValidator() {
+        return IdentifierValidator.isValidCpf(cpf);
+    }
+
+    @Benchmark
+    public boolean emailRegex() {
+        return email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}$");
+    }
+
+    @Benchmark
+    public boolean emailValidator() {
+        return IdentifierValidator.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean isbnRegex() {
+        return ISBN_PATTERN.matcher(isbn).matches();
+    }
+
+    @Benchmark
+    public boolean isbnValidator() {
+        return IdentifierValidator.isValidIsbn(isbn);
+    }
+
+    @Benchmark
+    public boolean issnRegex() {
+        return ISSN_PATTERN.matcher(issn).matches();
+    }
+
+    @Benchmark
+    public boolean issnValidator() {
+        return IdentifierValidator.isValidIssn(issn);
+    }
+}
@@ -0,0 +1,361 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.Book;
+import poo.item.Dvd;
+import poo.item.LibraryItem;
+import poo.item.Magazine;
+import poo.log.EventLog;
+import poo.log.LogLevel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Biblioteca de tamanho fixo para os benchmarks, gerada sempre da mesma forma a partir de uma semente.
+//
+// Tamanho no formato "itens/usuarios/emprestimos", por exemplo "100000/10000/20000":
+//   - itens: metade livros, um quarto revistas e um quarto DVDs, com ISBN/ISSN válidos e número de
+//     empréstimos anteriores concentrado em poucos itens (como num acervo real);
+//   - usuários: alunos, professores e funcionários em rodízio, com CPFs válidos;
+//   - empréstimos abertos: distribuídos entre os usuários (no máximo 2 por usuário), 20% deles atrasados.
+// Além disso, outros tantos empréstimos já encerrados formam o histórico; 10% foram devolvidos com
+// atraso e tiveram a multa paga.
+//
+// Fica no pacote poo.system para usar as versões com data dos métodos da Library (as mesmas usadas na
+// recuperação do journal), que permitem criar empréstimos no passado.
+public final class LibraryFixture {
+
+    public static final long SEED = 20_240_501L;
+
+    // Margem de itens livres e de vagas por usuário para os benchmarks que abrem empréstimos novos
+    public static final int MIN_FREE_ITEMS = 500;
+    private static final int MAX_OPEN_BORROWS_PER_USER = 2;
+
+    private static final double OVERDUE_FRACTION = 0.2;
+    private static final double LATE_RETURN_FRACTION = 0.1;
+
+    private static final String[] TITLE_WORDS = {
+            "Introdução", "Programação", "Java", "Sistemas", "Dados", "Estruturas", "Algoritmos", "História",
+            "Brasil", "Memórias", "Cálculo", "Física", "Química", "Redes", "Computadores", "Engenharia",
+            "Software", "Arquitetura", "Design", "Banco", "Teoria", "Prática", "Guia", "Básico", "Avançado",
+            "Manual", "Fundamentos", "Ciência", "Economia", "Direito", "Literatura", "Poesia", "Romance",
+            "Viagem", "Cozinha", "Música", "Cinema", "Arte", "Filosofia", "Política"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela", "João",
+            "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Tiago", "Vitória", "William"
+    };
+    private static final String[] LAST_NAMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa"
+    };
+
+    private final Library library;
+    private final LocalDate today;
+    private final String[] itemIds;
+    private final String[] userCpfs;
+    private final String[] freeItemIds;     // Itens disponíveis ao fim da geração
+    private final List<String> openBorrowIds;
+
+    private LibraryFixture(Library library, LocalDate today, String[] itemIds, String[] userCpfs,
+                           String[] freeItemIds, List<String> openBorrowIds) {
+        this.library = library;
+        this.today = today;
+        this.itemIds = itemIds;
+        this.userCpfs = userCpfs;
+        this.freeItemIds = freeItemIds;
+        this.openBorrowIds = openBorrowIds;
+    }
+
+    // 'dataset' no formato "itens/usuarios/emprestimos"
+    public static LibraryFixture create(String dataset) {
+        String[] sizes = dataset == null ? new String[0] : dataset.split("/");
+        if (sizes.length != 3) {
+            throw new IllegalArgumentException("Tamanho inválido: '" + dataset + "'. Use itens/usuarios/emprestimos.");
+        }
+        try {
+            return create(Integer.parseInt(sizes[0].trim()), Integer.parseInt(sizes[1].trim()), Integer.parseInt(sizes[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Tamanho inválido: '" + dataset + "'. Use itens/usuarios/emprestimos.");
+        }
+    }
+
+    public static LibraryFixture create(int itemCount, int userCount, int openBorrowCount) {
+        if (itemCount <= 0 || userCount <= 0 || openBorrowCount < 0) {
+            throw new IllegalArgumentException("Quantidades devem ser positivas.");
+        }
+        if (openBorrowCount > itemCount - MIN_FREE_ITEMS) {
+            throw new IllegalArgumentException("Deve sobrar ao menos " + MIN_FREE_ITEMS + " itens sem empréstimo.");
+        }
+        if (openBorrowCount > (long) userCount * MAX_OPEN_BORROWS_PER_USER) {
+            throw new IllegalArgumentException("No máximo " + MAX_OPEN_BORROWS_PER_USER + " empréstimos abertos por usuário.");
+        }
+        // Os eventos de cada operação não fazem parte do que é medido
+        EventLog.setLevel(LogLevel.ERROR);
+
+        Random random = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        Library library = new Library();
+
+        List<LibraryItem> items = generateItems(itemCount, random);
+        library.addItems(items);
+        String[] itemIds = new String[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemIds[i] = library.getItemIdentifier(items.get(i));
+        }
+
+        List<User> users = generateUsers(userCount, random);
+        String[] userCpfs = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            library.registerUser(users.get(i));
+            userCpfs[i] = users.get(i).getCPF();
+        }
+
+        // Ordem aleatória (mas fixa) dos itens: os primeiros recebem os empréstimos abertos
+        int[] order = permutation(itemCount, random);
+
+        // Histórico: empréstimos encerrados no último ano, nos itens que ficarão livres
+        for (int i = 0; i < openBorrowCount; i++) {
+            User user = users.get(random.nextInt(userCount));
+            String itemId = itemIds[order[openBorrowCount + random.nextInt(itemCount - openBorrowCount)]];
+            int period = user.getUserType().getDefaultBorrowPeriodDays();
+            LocalDate borrowDate = today.minusDays(60 + random.nextInt(300));
+            Borrow borrow = library.performBorrow(user.getCPF(), itemId, borrowDate, 0);
+            if (random.nextDouble() < LATE_RETURN_FRACTION) {
+                LocalDate returnDate = borrowDate.plusDays(period + 1 + random.nextInt(20));
+                library.returnBorrow(borrow.getId(), returnDate, 0);
+                library.payAllPenalties(user.getCPF(), returnDate); // A multa que acabou de ser gerada
+            } else {
+                library.returnBorrow(borrow.getId(), borrowDate.plusDays(random.nextInt(period + 1)), 0);
+            }
+        }
+
+        // Empréstimos abertos: até 2 por usuário, parte deles já vencida
+        List<String> openBorrowIds = new ArrayList<>(openBorrowCount);
+        for (int i = 0; i < openBorrowCount; i++) {
+            User user = users.get(i % userCount);
+            int period = user.getUserType().getDefaultBorrowPeriodDays();
+            LocalDate borrowDate = random.nextDouble() < OVERDUE_FRACTION
+                    ? today.minusDays(period + 1 + random.nextInt(30))
+                    : today.minusDays(random.nextInt(period));
+            openBorrowIds.add(library.performBorrow(user.getCPF(), itemIds[order[i]], borrowDate, 0).getBorrowId());
+        }
+
+        String[] freeItemIds = new String[itemCount - openBorrowCount];
+        for (int i = openBorrowCount; i < itemCount; i++) {
+            freeItemIds[i - openBorrowCount] = itemIds[order[i]];
+        }
+        return new LibraryFixture(library, today, itemIds, userCpfs, freeItemIds, openBorrowIds);
+    }
+
+    public Library library() {
+        return library;
+    }
+
+    // Data de referência da geração (LocalDate.now() no momento da criação)
+    public LocalDate today() {
+        return today;
+    }
+
+    public String[] itemIds() {
+        return itemIds.clone();
+    }
+
+    public String[] userCpfs() {
+        return userCpfs.clone();
+    }
+
+    public String[] freeItemIds() {
+        return freeItemIds.clone();
+    }
+
+    public List<String> openBorrowIds() {
+        return new ArrayList<>(openBorrowIds);
+    }
+
+    // CPFs dos usuários de um tipo (por exemplo, professores para empréstimos em lote maiores)
+    public String[] userCpfs(User.UserType userType) {
+        List<String> cpfs = new ArrayList<>();
+        for (String cpf : userCpfs) {
+            if (library.getUser(cpf).getUserType() == userType) {
+                cpfs.add(cpf);
+            }
+        }
+        return cpfs.toArray(new String[0]);
+    }
+
+    // ID do item na biblioteca (ISBN, ISSN ou título-diretor-ano)
+    public static String identifierOf(Library library, LibraryItem item) {
+        return library.getItemIdentifier(item);
+    }
+
+    // --- Operações com data, para preparar o estado de cada medição ---
+
+    public Borrow borrow(String userCpf, String itemId, LocalDate borrowDate) {
+        return library.performBorrow(userCpf, itemId, borrowDate, 0);
+    }
+
+    public boolean returnBorrow(String borrowId, LocalDate returnDate) {
+        return library.returnBorrow(IdCodec.parse(borrowId), returnDate, 0);
+    }
+
+    // Acrescenta 'count' empréstimos já encerrados (no prazo, no último ano) nos itens livres, passando
+    // pelos usuários em sequência; servem para encher o histórico sem deixar multas nem itens emprestados
+    public void addClosedLoans(int count) {
+        Random random = new Random(SEED + count);
+        for (int i = 0; i < count; i++) {
+            String cpf = userCpfs[i % userCpfs.length];
+            int period = library.getUser(cpf).getUserType().getDefaultBorrowPeriodDays();
+            LocalDate borrowDate = today.minusDays(period + 1 + random.nextInt(365));
+            Borrow borrow = library.performBorrow(cpf, freeItemIds[i % freeItemIds.length], borrowDate, 0);
+            library.returnBorrow(borrow.getId(), borrowDate.plusDays(random.nextInt(period + 1)), 0);
+        }
+    }
+
+    // Empréstimo vencido há 10 dias e devolvido hoje: deixa uma multa pendente (e o usuário bloqueado).
+    // Devolve o ID da multa, ou null se o empréstimo não pôde ser feito.
+    public String createPendingPenalty(String userCpf, String itemId) {
+        User user = library.getUser(userCpf);
+        LocalDate borrowDate = today.minusDays(user.getUserType().getDefaultBorrowPeriodDays() + 10);
+        Borrow borrow = library.performBorrow(userCpf, itemId, borrowDate, 0);
+        if (borrow == null) {
+            return null;
+        }
+        library.returnBorrow(borrow.getId(), today, 0);
+        List<Penalty> pending = library.getPendingPenalties(userCpf); // A multa nova é a última do usuário
+        return pending.get(pending.size() - 1).getPenaltyId();
+    }
+
+    // --- Geradores ---
+
+    public static List<LibraryItem> generateItems(int count, long seed) {
+        return generateItems(count, new Random(seed));
+    }
+
+    private static List<LibraryItem> generateItems(int count, Random random) {
+        List<LibraryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = title(random) + " " + (i + 1);
+            String author = personName(random);
+            int year = 1950 + random.nextInt(75);
+            // Poucos itens concentram a maior parte dos empréstimos anteriores
+            int borrowCount = (int) (Math.pow(random.nextDouble(), 6) * 1_000);
+            switch (i % 4) {
+                case 0, 1 -> items.add(Book.restore(title, author, year, isbn(i), true, borrowCount));
+                case 2 -> items.add(Magazine.restore(title, author, year, issn(i), 1 + random.nextInt(300), true, borrowCount));
+                default -> items.add(Dvd.restore(title, author, year, true, borrowCount));
+            }
+        }
+        return items;
+    }
+
+    public static List<User> generateUsers(int count, long seed) {
+        return generateUsers(count, new Random(seed));
+    }
+
+    private static List<User> generateUsers(int count, Random random) {
+        User.UserType[] types = User.UserType.values();
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = personName(random);
+            users.add(new User(name, cpf(i), "usuario" + i + "@biblioteca.edu.br", types[i % types.length]));
+        }
+        return users;
+    }
+
+    // Linhas no formato do CatalogImporter (tipo;titulo;autor;ano;identificador;edicao)
+    public static List<String> catalogLines(int count, long seed) {
+        List<String> lines = new ArrayList<>(count + 1);
+        lines.add("tipo;titulo;autor;ano;identificador;edicao");
+        for (LibraryItem item : generateItems(count, seed)) {
+            String prefix = item.getTitle() + ";" + item.getAuthor() + ";" + item.getPublicationYear() + ";";
+            if (item instanceof Book book) {
+                lines.add("LIVRO;" + prefix + book.getISBN() + ";");
+            } else if (item instanceof Magazine magazine) {
+                lines.add("REVISTA;" + prefix + magazine.getISSN() + ";" + magazine.getEditionNumber());
+            } else {
+                lines.add("DVD;" + prefix + ";");
+            }
+        }
+        return lines;
+    }
+
+    // CPF válido e único para cada n (até 899.999.999)
+    public static String cpf(int n) {
+        int[] digits = new int[11];
+        long base = 100_000_000L + n;
+        for (int i = 8; i >= 0; i--) {
+            digits[i] = (int) (base % 10);
+            base /= 10;
+        }
+        digits[9] = cpfCheckDigit(digits, 9);
+        digits[10] = cpfCheckDigit(digits, 10);
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+
+    private static int cpfCheckDigit(int[] digits, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (length + 1 - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    // ISBN-13 válido e único para cada n (até 999.999.999), no formato 978-XXXXXXXXX-D
+    public static String isbn(int n) {
+        String body = "978" + String.format("%09d", n);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = body.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return "978-" + body.substring(3) + "-" + (10 - sum % 10) % 10;
+    }
+
+    // ISSN válido e único para cada n (até 9.999.999), no formato XXXX-XXXX
+    public static String issn(int n) {
+        String body = String.format("%07d", n);
+        int sum = 0;
+        for (int i = 0; i < 7; i++) {
+            sum += (body.charAt(i) - '0') * (8 - i);
+        }
+        int check = (11 - sum % 11) % 11;
+        return body.substring(0, 4) + "-" + body.substring(4) + (check == 10 ? "X" : String.valueOf(check));
+    }
+
+    private static String title(Random random) {
+        int words = 2 + random.nextInt(3);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    private static String personName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static int[] permutation(int size, Random random) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
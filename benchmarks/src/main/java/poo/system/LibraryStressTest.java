@@ -0,0 +1,255 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.Book;
+import poo.item.CopyInventory;
+import poo.item.Dvd;
+import poo.item.LibraryItem;
+import poo.log.EventLog;
+import poo.log.LogLevel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Teste de estresse da Library compartilhada: várias threads emprestam (um a um e em lote), devolvem,
+// renovam e reservam sempre o mesmo punhado de itens e usuários, para que disputem os mesmos locks e os
+// mesmos exemplares. Ao contrário do ConcurrentDeskBenchmark, que mede vazão com fatias separadas, aqui
+// o que importa é o estado no fim:
+//   - nenhum exemplar com dois empréstimos abertos (conferido também durante a execução);
+//   - contagem de empréstimos abertos por usuário e índice de vencimentos iguais aos empréstimos abertos;
+//   - nenhum usuário acima de getMaxBorrows;
+//   - exemplares livres e mapa de exemplares de cada item iguais aos empréstimos abertos dele;
+//   - contagens de empréstimos de itens e usuários iguais aos empréstimos feitos;
+//   - nenhum item com mais reservas separadas do que exemplares livres.
+//
+//     java -cp target/benchmarks.jar poo.system.LibraryStressTest [threads] [segundos]
+//
+// Termina com código 1 se alguma verificação falhar.
+public final class LibraryStressTest {
+
+    private static final int RECENT_BORROWS = 64; // Empréstimos que qualquer thread pode tentar renovar
+
+    private final Library library;
+    private final String[] itemIds;
+    private final String[] userCpfs;
+    private final ConcurrentLinkedQueue<Borrow> openBorrows; // Abertos por este teste; quem os retira devolve
+    private final AtomicReferenceArray<String> recentBorrowIds; // Podem já ter sido devolvidos
+    private final Map<String, String> loanedCopies; // "item#exemplar" -> ID do empréstimo aberto
+    private final Map<String, LongAdder> borrowsByItem;
+    private final Map<String, LongAdder> borrowsByUser;
+    private final ConcurrentLinkedQueue<String> violations;
+    private final LongAdder borrows;
+    private final LongAdder returns;
+    private final LongAdder renewals;
+    private final LongAdder holdsPlaced;
+
+    private LibraryStressTest() {
+        this.library = new Library();
+        List<LibraryItem> items = List.of(
+                new Book("Dom Casmurro", "Machado de Assis", 1899, LibraryFixture.isbn(1)),
+                new Book("Vidas Secas", "Graciliano Ramos", 1938, LibraryFixture.isbn(2)),
+                new Book("Grande Sertão: Veredas", "Guimarães Rosa", 1956, LibraryFixture.isbn(3)),
+                new Book("Cálculo Volume 1", "J. Stewart", 2013, LibraryFixture.isbn(4), 3),
+                new Dvd("Central do Brasil", "Walter Salles", 1998),
+                new Dvd("Cidade de Deus", "Fernando Meirelles", 2002, 2));
+        library.addItems(items);
+        this.itemIds = new String[items.size()];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = library.getItemIdentifier(items.get(i));
+        }
+        User.UserType[] types = {User.UserType.STUDENT, User.UserType.STUDENT, User.UserType.STUDENT, User.UserType.PROFESSOR};
+        this.userCpfs = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            User user = new User("Leitor " + i, LibraryFixture.cpf(i + 1), "leitor" + i + "@biblioteca.edu.br", types[i]);
+            library.registerUser(user);
+            userCpfs[i] = user.getCPF();
+        }
+        this.openBorrows = new ConcurrentLinkedQueue<>();
+        this.recentBorrowIds = new AtomicReferenceArray<>(RECENT_BORROWS);
+        this.loanedCopies = new ConcurrentHashMap<>();
+        this.borrowsByItem = new ConcurrentHashMap<>();
+        this.borrowsByUser = new ConcurrentHashMap<>();
+        this.violations = new ConcurrentLinkedQueue<>();
+        this.borrows = new LongAdder();
+        this.returns = new LongAdder();
+        this.renewals = new LongAdder();
+        this.holdsPlaced = new LongAdder();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        EventLog.setLevel(LogLevel.ERROR); // Recusas são esperadas aos milhares
+
+        LibraryStressTest test = new LibraryStressTest();
+        test.run(threads, seconds * 1000L);
+        List<String> failures = test.verify();
+        System.out.printf("%d threads, %d s: %d empréstimos, %d devoluções, %d renovações, %d reservas%n",
+                threads, seconds, test.borrows.sum(), test.returns.sum(), test.renewals.sum(), test.holdsPlaced.sum());
+        if (!failures.isEmpty()) {
+            failures.forEach(failure -> System.out.println("FALHOU: " + failure));
+            System.exit(1);
+        }
+        System.out.println("OK: estado consistente.");
+    }
+
+    private void run(int threads, long millis) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + millis;
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    while (System.currentTimeMillis() < deadline && violations.isEmpty()) {
+                        step(ThreadLocalRandom.current());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    violations.add("exceção em " + Thread.currentThread().getName() + ": " + e);
+                }
+            }, "stress-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void step(ThreadLocalRandom random) {
+        String userCpf = userCpfs[random.nextInt(userCpfs.length)];
+        String itemId = itemIds[random.nextInt(itemIds.length)];
+        int operation = random.nextInt(10);
+        if (operation < 4) {
+            Borrow borrow = library.performBorrow(userCpf, itemId);
+            if (borrow != null) {
+                opened(borrow, random);
+            }
+        } else if (operation == 4) {
+            List<String> batch = List.of(itemId, itemIds[random.nextInt(itemIds.length)], itemIds[random.nextInt(itemIds.length)]);
+            BatchMode mode = random.nextBoolean() ? BatchMode.ALL_OR_NOTHING : BatchMode.PER_ITEM;
+            for (BatchResult.Entry entry : library.performBorrows(userCpf, batch, mode).getEntries()) {
+                if (entry.isSuccess()) {
+                    opened(entry.getBorrow(), random);
+                }
+            }
+        } else if (operation < 8) {
+            Borrow borrow = openBorrows.poll();
+            if (borrow != null) {
+                // Sai do mapa antes de o exemplar ser liberado, senão outra thread poderia pegá-lo antes
+                loanedCopies.remove(copyKey(borrow), borrow.getBorrowId());
+                if (!library.returnBorrow(borrow.getBorrowId(), LocalDate.now())) {
+                    violations.add("devolução recusada do empréstimo aberto " + borrow.getBorrowId());
+                }
+                returns.increment();
+            }
+        } else if (operation == 8) {
+            String borrowId = recentBorrowIds.get(random.nextInt(RECENT_BORROWS));
+            if (borrowId != null && library.renewBorrow(borrowId)) {
+                renewals.increment();
+            }
+        } else if (random.nextBoolean()) {
+            if (library.placeHold(userCpf, itemId) != null) {
+                holdsPlaced.increment();
+            }
+        } else {
+            List<Hold> userHolds = library.getHoldsOf(userCpf);
+            if (!userHolds.isEmpty()) {
+                library.cancelHold(userHolds.get(random.nextInt(userHolds.size())).getHoldId());
+            }
+        }
+    }
+
+    private void opened(Borrow borrow, ThreadLocalRandom random) {
+        String previous = loanedCopies.putIfAbsent(copyKey(borrow), borrow.getBorrowId());
+        if (previous != null) {
+            violations.add("exemplar " + copyKey(borrow) + " emprestado duas vezes: " + previous + " e " + borrow.getBorrowId());
+        }
+        borrowsByItem.computeIfAbsent(library.getItemIdentifier(borrow.getItem()), k -> new LongAdder()).increment();
+        borrowsByUser.computeIfAbsent(borrow.getUser().getCPF(), k -> new LongAdder()).increment();
+        borrows.increment();
+        openBorrows.add(borrow);
+        recentBorrowIds.set(random.nextInt(RECENT_BORROWS), borrow.getBorrowId());
+    }
+
+    private String copyKey(Borrow borrow) {
+        return library.getItemIdentifier(borrow.getItem()) + "#" + borrow.getCopy();
+    }
+
+    // Chamado com as threads paradas
+    private List<String> verify() {
+        List<String> failures = new ArrayList<>(violations);
+        List<Borrow> open = library.openBorrows();
+        if (open.size() != openBorrows.size()) {
+            failures.add("a Library tem " + open.size() + " empréstimos abertos; o teste abriu e não devolveu " + openBorrows.size());
+        }
+        if (library.dueDateCount() != open.size()) {
+            failures.add("índice de vencimentos com " + library.dueDateCount() + " empréstimos; abertos: " + open.size());
+        }
+
+        Map<String, BitSet> loanedByItem = new HashMap<>();
+        Map<String, Integer> openByUser = new HashMap<>();
+        for (Borrow borrow : open) {
+            BitSet copies = loanedByItem.computeIfAbsent(library.getItemIdentifier(borrow.getItem()), k -> new BitSet());
+            if (copies.get(borrow.getCopy())) {
+                failures.add("exemplar " + copyKey(borrow) + " com dois empréstimos abertos");
+            }
+            copies.set(borrow.getCopy());
+            openByUser.merge(borrow.getUser().getCPF(), 1, Integer::sum);
+        }
+
+        for (String userCpf : userCpfs) {
+            User user = library.getUser(userCpf);
+            int openCount = openByUser.getOrDefault(userCpf, 0);
+            if (library.getActiveBorrowCount(userCpf) != openCount) {
+                failures.add("usuário " + userCpf + ": contagem de abertos " + library.getActiveBorrowCount(userCpf) + ", abertos " + openCount);
+            }
+            if (openCount > user.getUserType().getMaxBorrows()) {
+                failures.add("usuário " + userCpf + " com " + openCount + " empréstimos; limite " + user.getUserType().getMaxBorrows());
+            }
+            long made = count(borrowsByUser, userCpf);
+            if (library.getTotalBorrowCount(userCpf) != made) {
+                failures.add("usuário " + userCpf + ": total de empréstimos " + library.getTotalBorrowCount(userCpf) + ", feitos " + made);
+            }
+        }
+
+        for (String itemId : itemIds) {
+            LibraryItem item = library.getItem(itemId);
+            CopyInventory copies = item.getCopies();
+            BitSet loaned = loanedByItem.getOrDefault(itemId, new BitSet());
+            if (!copies.onLoanCopies().equals(loaned)) {
+                failures.add("item " + itemId + ": exemplares marcados " + copies.onLoanCopies() + ", emprestados " + loaned);
+            }
+            if (copies.getAvailableCopies() != copies.getTotalCopies() - loaned.cardinality()) {
+                failures.add("item " + itemId + ": " + copies.getAvailableCopies() + " exemplares livres, "
+                        + loaned.cardinality() + " de " + copies.getTotalCopies() + " emprestados");
+            }
+            long made = count(borrowsByItem, itemId);
+            if (item.getBorrowCount() != made) {
+                failures.add("item " + itemId + ": contagem de empréstimos " + item.getBorrowCount() + ", feitos " + made);
+            }
+            long ready = library.getHolds(itemId).stream().filter(hold -> hold.getStatus() == Hold.Status.READY).count();
+            if (ready > copies.getAvailableCopies()) {
+                failures.add("item " + itemId + ": " + ready + " reservas separadas, " + copies.getAvailableCopies() + " exemplares livres");
+            }
+        }
+        return failures;
+    }
+
+    private static long count(Map<String, LongAdder> counts, String key) {
+        LongAdder adder = counts.get(key);
+        return adder == null ? 0 : adder.sum();
+    }
+}
@@ -1,6 +1,9 @@
 package poo.entity;
 
 import poo.system.Borrow;
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
+import poo.validation.IdentifierValidator;
 
 public abstract class Person {
 
@@ -10,6 +13,17 @@ public abstract class Person {
 
     // Construtor
     public Person(String name, String cpf, String email) {
+        this(name, cpf, email, true);
+    }
+
+    // Com validate = false os dados são aceitos como estão (usado ao restaurar dados já validados)
+    Person(String name, String cpf, String email, boolean validate) {
+        if (!validate) {
+            this.name = name;
+            this.cpf = cpf;
+            this.email = email;
+            return;
+        }
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Nome não pode ser nulo ou vazio");
         }
@@ -18,18 +32,19 @@ public abstract class Person {
         if (cpf == null || cpf.trim().isEmpty()) {
             throw new IllegalArgumentException("CPF não pode ser nulo ou vazio");
         }
-        // Validação CPF
-        if (!cpf.matches("^\\d{11}$")) {
-            System.err.println("AVISO: O formato do CPF '" + cpf + "' parece ser inválido. Por favor use 11 digitos");
+        // Validação CPF (dígitos verificadores); um CPF válido é guardado só com os dígitos
+        String normalizedCpf = IdentifierValidator.normalizeCpf(cpf);
+        if (normalizedCpf == null) {
+            EventLog.log(LibraryEvent.INVALID_CPF, cpf);
         }
-        this.cpf = cpf;
+        this.cpf = normalizedCpf != null ? normalizedCpf : cpf;
 
         if (email == null || email.trim().isEmpty()) {
             throw new IllegalArgumentException("Email não pode ser nulo ou vazio");
         }
         // Validação email
-        if (!email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}$")) {
-            System.err.println("AVISO: O formato do email '" + email + "' parece ser inválido.");
+        if (!IdentifierValidator.isValidEmail(email)) {
+            EventLog.log(LibraryEvent.INVALID_EMAIL, email);
         }
         this.email = email;
     }
@@ -1,11 +1,15 @@
 package poo.entity;
 
 import poo.system.Borrow;
+import poo.system.BorrowArchive;
 // import poo.system.Penalty; // This import is not directly used in User class, remove it.
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class User extends Person {
 
@@ -36,20 +40,38 @@ public class User extends Person {
         public double getDailyPenaltyRate() {
             return dailyPenaltyRate;
         }
+
+        // Taxa diária em centavos, para cálculos monetários exatos
+        public long getDailyPenaltyCents() {
+            return Math.round(dailyPenaltyRate * 100);
+        }
     }
 
     private UserType userType;
-    private final List<Borrow> borrowHistory;
-    private boolean isBlocked; // Verdadeiro se o usuário tem multas a pagar
+    private final List<Borrow> openBorrows; // Empréstimos em aberto; os encerrados ficam no BorrowArchive da biblioteca
+    private volatile BorrowArchive borrowArchive;
+    private volatile boolean isBlocked; // Verdadeiro se o usuário tem multas a pagar
 
     // Construtor
     public User(String name, String cpf, String email, UserType userType) {
         super(name, cpf, email);
         setUserType(userType);
-        this.borrowHistory = new ArrayList<>();
+        this.openBorrows = Collections.synchronizedList(new ArrayList<>());
         this.isBlocked = false; // Não bloqueado por padrão
     }
 
+    private User(String name, String cpf, String email, UserType userType, boolean blocked) {
+        super(name, cpf, email, false);
+        this.userType = userType;
+        this.openBorrows = Collections.synchronizedList(new ArrayList<>());
+        this.isBlocked = blocked;
+    }
+
+    // Recria um usuário salvo em snapshot/journal, sem repetir validações nem avisos
+    public static User restore(String name, String cpf, String email, UserType userType, boolean blocked) {
+        return new User(name, cpf, email, userType, blocked);
+    }
+
     public UserType getUserType() {
         return userType;
     }
@@ -62,9 +84,15 @@ public class User extends Person {
         this.userType = userType;
     }
 
-    // Getter para histórico
+    // Histórico completo (em aberto e encerrados), em ordem de ID; os encerrados são cópias montadas agora
     public List<Borrow> getBorrowHistory() {
-        return borrowHistory;
+        BorrowArchive archive = borrowArchive;
+        List<Borrow> history = archive == null ? new ArrayList<>() : archive.closedBorrowsOf(this);
+        synchronized (openBorrows) {
+            history.addAll(openBorrows);
+        }
+        history.sort(Comparator.comparingLong(Borrow::getId));
+        return history;
     }
 
     // Método para adicionar um empréstimo ao histórico
@@ -72,7 +100,30 @@ public class User extends Person {
         if (borrow == null) {
             throw new IllegalArgumentException("Objeto alugado não pode ser nulo.");
         }
-        this.borrowHistory.add(borrow);
+        this.openBorrows.add(borrow);
+    }
+
+    // Chamado pela biblioteca quando o empréstimo é encerrado e passa a ser guardado em 'archive'
+    public void moveBorrowToArchive(Borrow borrow, BorrowArchive archive) {
+        this.borrowArchive = archive;
+        this.openBorrows.remove(borrow);
+    }
+
+    // Se algum empréstimo em aberto do usuário atende 'matcher'
+    public boolean hasOpenBorrow(Predicate<Borrow> matcher) {
+        synchronized (openBorrows) {
+            for (Borrow borrow : openBorrows) {
+                if (matcher.test(borrow)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int getBorrowHistorySize() {
+        BorrowArchive archive = borrowArchive;
+        return openBorrows.size() + (archive == null ? 0 : archive.closedCountOf(this));
     }
 
     // Getter pra isBlocked
@@ -99,19 +150,27 @@ public class User extends Person {
 
     @Override
     public double calculatePenalty(Borrow borrow) {
+        // Multa calculada baseada no DailyPenaltyRate
+        return overdueDays(borrow) * userType.getDailyPenaltyRate();
+    }
+
+    // Mesma multa de calculatePenalty, em centavos (sem erro de arredondamento de double)
+    public long calculatePenaltyCents(Borrow borrow) {
+        return overdueDays(borrow) * userType.getDailyPenaltyCents();
+    }
+
+    private long overdueDays(Borrow borrow) {
         // Mesma lógica de cálculo de multa
         if (borrow == null || borrow.getReturnDate() == null || borrow.getReturnDate().isBefore(borrow.getDueDate())) {
-            return 0.0; // Sem pena se não alugou, ainda não devolveu ou devolveu no tempo correto.
+            return 0; // Sem pena se não alugou, ainda não devolveu ou devolveu no tempo correto.
         }
 
         long overdueDays = Period.between(borrow.getDueDate(), borrow.getReturnDate()).getDays();
 
         if (overdueDays <= 0) {
-            return 0.0; // Sem pena se retornou no dia de vencimento ou antes
+            return 0; // Sem pena se retornou no dia de vencimento ou antes
         }
-
-        // Multa calculada baseada no DailyPenaltyRate
-        return overdueDays * userType.getDailyPenaltyRate();
+        return overdueDays;
     }
 
     @Override
@@ -122,7 +181,7 @@ public class User extends Person {
                 ", email='" + getEmail() + '\'' +
                 ", userType=" + userType +
                 ", isBlocked=" + isBlocked +
-                ", borrowHistorySize=" + borrowHistory.size() +
+                ", borrowHistorySize=" + getBorrowHistorySize() +
                 '}';
     }
 }
\ No newline at end of file
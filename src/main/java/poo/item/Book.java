@@ -3,14 +3,23 @@ package poo.item;
 import poo.entity.User;
 import poo.item.Borrowable;
 import poo.item.LibraryItem;
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
 import java.time.LocalDate;
+import poo.validation.IdentifierValidator;
 
 public class Book extends LibraryItem implements Borrowable {
+
     private String isbn;
 
     // Construtor
     public Book(String title, String author, int publicationYear, String isbn) {
-        super(title, author, publicationYear);
+        this(title, author, publicationYear, isbn, 1);
+    }
+
+    // Livro com 'totalCopies' exemplares do mesmo ISBN
+    public Book(String title, String author, int publicationYear, String isbn, int totalCopies) {
+        super(title, author, publicationYear, totalCopies);
         setISBN(isbn);
     }
 
@@ -18,6 +27,21 @@ public class Book extends LibraryItem implements Borrowable {
         this(title, author, LocalDate.now().getYear(), isbn); // Ano default para atual
     }
 
+    private Book(String title, String author, int publicationYear, String isbn, CopyInventory copies) {
+        super(title, author, publicationYear, copies);
+        this.isbn = isbn;
+    }
+
+    // Recria um livro salvo em snapshot/journal, sem repetir validações nem avisos
+    public static Book restore(String title, String author, int publicationYear, String isbn, CopyInventory copies) {
+        return new Book(title, author, publicationYear, isbn, copies);
+    }
+
+    // Livro de um único exemplar
+    public static Book restore(String title, String author, int publicationYear, String isbn, boolean available, int borrowCount) {
+        return restore(title, author, publicationYear, isbn, CopyInventory.single(available, borrowCount));
+    }
+
     public String getISBN() {
         return isbn;
     }
@@ -26,34 +50,36 @@ public class Book extends LibraryItem implements Borrowable {
         if (isbn == null || isbn.trim().isEmpty()) {
             throw new IllegalArgumentException("ISBN não pode ser nulo ou vazio");
         }
-        if (!isbn.matches("^(?:978|979)(?:-?\\d){9}(\\d|X)$")) {
-            System.err.println("AVISO: o formato ISBN '" + isbn + "' parece ser inválido. É esperado 13 digitos. Ex: 978-85-7836-070-8");
+        if (!isValidISBN(isbn)) {
+            EventLog.log(LibraryEvent.INVALID_ISBN, isbn);
         }
         this.isbn = isbn;
     }
 
+    // Verifica o ISBN-13 (com ou sem hífens), incluindo o dígito verificador
+    public static boolean isValidISBN(String isbn) {
+        return IdentifierValidator.isValidIsbn(isbn);
+    }
+
     // Borrowable métodos de interface
     @Override
-    public boolean borrowItem(User user) {
-        if (isAvailable()) {
-            setAvailable(false);
-            incrementBorrowCount();
-            System.out.println("Livro '" + getTitle() + "' foi alugado com sucesso pelo " + user.getName() + ".");
-            return true;
+    public int borrowItem(User user) {
+        int copy = acquireCopy();
+        if (copy != CopyInventory.NO_COPY) {
+            EventLog.log(LibraryEvent.BOOK_BORROWED, getTitle(), user.getName());
         } else {
-            System.out.println("Livro '" + getTitle() + "' não está disponível para empréstimo.");
-            return false;
+            EventLog.log(LibraryEvent.BOOK_UNAVAILABLE, getTitle());
         }
+        return copy;
     }
 
     @Override
-    public boolean returnItem() {
-        if (!isAvailable()) {
-            setAvailable(true);
-            System.out.println("Livro '" + getTitle() + "' devolvido com sucesso.");
+    public boolean returnItem(int copy) {
+        if (releaseCopy(copy)) {
+            EventLog.log(LibraryEvent.BOOK_RETURNED, getTitle());
             return true;
         } else {
-            System.out.println("Livro '" + getTitle() + "' já está disponível (não foi alugado).");
+            EventLog.log(LibraryEvent.BOOK_NOT_BORROWED, getTitle());
             return false;
         }
     }
@@ -4,9 +4,12 @@ import poo.entity.User;
 
 public interface Borrowable {
 
-    boolean borrowItem(User user);
+    // Empresta um exemplar livre. Retorna o número dele (0 a getTotalCopies() - 1), ou
+    // CopyInventory.NO_COPY se todos estão emprestados.
+    int borrowItem(User user);
 
-    boolean returnItem();
+    // Devolve o exemplar; false se ele não estava emprestado
+    boolean returnItem(int copy);
 
     int getBorrowPeriodDays();
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package poo.item;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Exemplares de um título do acervo (ver LibraryItem.getCopies): um bit por exemplar indica se ele está
+// emprestado, um contador guarda quantos estão livres e cada exemplar tem a sua contagem de empréstimos.
+//
+// Tudo sem locks. Para emprestar, primeiro um exemplar é reservado no contador de livres (se ele está em
+// zero, não há o que emprestar) e depois o primeiro bit livre do mapa é marcado; na devolução o bit é
+// liberado antes de o contador voltar a subir. Assim o contador nunca passa do número de bits livres, e
+// quem conseguiu reservar sempre encontra um exemplar. A busca começa sempre do exemplar 0: sem disputa,
+// o exemplar escolhido depende só do estado, e o journal refaz os empréstimos com os mesmos exemplares.
+public final class CopyInventory {
+
+    public static final int MAX_COPIES = 1 << 16;
+    public static final int NO_COPY = -1; // Retorno de acquire quando todos os exemplares estão emprestados
+
+    private final int totalCopies;
+    private final AtomicInteger availableCopies;
+    private final AtomicLongArray onLoan; // Bits além de totalCopies na última palavra ficam sempre em 1
+    private final AtomicIntegerArray borrowCounts;
+    private final AtomicInteger totalBorrowCount; // Soma de borrowCounts, para não percorrer os exemplares
+
+    public CopyInventory(int totalCopies) {
+        if (totalCopies < 1 || totalCopies > MAX_COPIES) {
+            throw new IllegalArgumentException("Quantidade de exemplares deve estar entre 1 e " + MAX_COPIES + ".");
+        }
+        this.totalCopies = totalCopies;
+        this.availableCopies = new AtomicInteger(totalCopies);
+        this.onLoan = new AtomicLongArray((totalCopies + 63) >>> 6);
+        this.borrowCounts = new AtomicIntegerArray(totalCopies);
+        this.totalBorrowCount = new AtomicInteger();
+        onLoan.set(onLoan.length() - 1, paddingBits());
+    }
+
+    // Recria o estado salvo em snapshot: 'copyBorrowCounts' tem uma posição por exemplar
+    public static CopyInventory restore(BitSet onLoanCopies, int[] copyBorrowCounts) {
+        CopyInventory inventory = new CopyInventory(copyBorrowCounts.length);
+        for (int copy = 0; copy < copyBorrowCounts.length; copy++) {
+            inventory.borrowCounts.set(copy, copyBorrowCounts[copy]);
+            inventory.totalBorrowCount.addAndGet(copyBorrowCounts[copy]);
+            if (onLoanCopies.get(copy)) {
+                inventory.onLoan.set(copy >>> 6, inventory.onLoan.get(copy >>> 6) | (1L << copy));
+                inventory.availableCopies.decrementAndGet();
+            }
+        }
+        return inventory;
+    }
+
+    // Título de um único exemplar, como os itens salvos antes do controle por exemplar
+    public static CopyInventory single(boolean available, int borrowCount) {
+        BitSet onLoanCopies = new BitSet(1);
+        onLoanCopies.set(0, !available);
+        return restore(onLoanCopies, new int[]{borrowCount});
+    }
+
+    public int getTotalCopies() {
+        return totalCopies;
+    }
+
+    public int getAvailableCopies() {
+        return availableCopies.get();
+    }
+
+    public boolean isOnLoan(int copy) {
+        checkCopy(copy);
+        return (onLoan.get(copy >>> 6) & (1L << copy)) != 0;
+    }
+
+    public int getBorrowCount(int copy) {
+        checkCopy(copy);
+        return borrowCounts.get(copy);
+    }
+
+    // Soma das contagens de todos os exemplares (chamado a cada empréstimo, para o ranking)
+    public int getBorrowCount() {
+        return totalBorrowCount.get();
+    }
+
+    // Exemplares emprestados (snapshot)
+    public BitSet onLoanCopies() {
+        long[] words = new long[onLoan.length()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = onLoan.get(i);
+        }
+        words[words.length - 1] &= ~paddingBits();
+        return BitSet.valueOf(words);
+    }
+
+    // Marca um exemplar livre como emprestado e conta o empréstimo. Retorna o número do exemplar, ou NO_COPY.
+    int acquire() {
+        int available;
+        do {
+            available = availableCopies.get();
+            if (available == 0) {
+                return NO_COPY;
+            }
+        } while (!availableCopies.compareAndSet(available, available - 1));
+
+        // Há um bit livre reservado para esta chamada; outra devolução/empréstimo pode mudá-lo de palavra
+        // durante a busca, então ela recomeça até encontrá-lo
+        while (true) {
+            for (int index = 0; index < onLoan.length(); index++) {
+                long word = onLoan.get(index);
+                while (word != -1L) {
+                    int bit = Long.numberOfTrailingZeros(~word);
+                    if (onLoan.compareAndSet(index, word, word | (1L << bit))) {
+                        int copy = (index << 6) + bit;
+                        borrowCounts.incrementAndGet(copy);
+                        totalBorrowCount.incrementAndGet();
+                        return copy;
+                    }
+                    word = onLoan.get(index);
+                }
+            }
+        }
+    }
+
+    // Libera o exemplar. Retorna false se ele não estava emprestado.
+    boolean release(int copy) {
+        if (copy < 0 || copy >= totalCopies) {
+            return false;
+        }
+        int index = copy >>> 6;
+        long mask = 1L << copy;
+        while (true) {
+            long word = onLoan.get(index);
+            if ((word & mask) == 0) {
+                return false;
+            }
+            if (onLoan.compareAndSet(index, word, word & ~mask)) {
+                availableCopies.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Marca todos os exemplares como livres ou como emprestados (ver LibraryItem.setAvailable).
+    // Não é atômico em relação a empréstimos e devoluções feitos ao mesmo tempo.
+    void setAll(boolean loaned) {
+        for (int index = 0; index < onLoan.length(); index++) {
+            onLoan.set(index, loaned ? -1L : 0L);
+        }
+        onLoan.set(onLoan.length() - 1, onLoan.get(onLoan.length() - 1) | paddingBits());
+        availableCopies.set(loaned ? 0 : totalCopies);
+    }
+
+    // Bits da última palavra que não correspondem a nenhum exemplar
+    private long paddingBits() {
+        int used = totalCopies & 63;
+        return used == 0 ? 0L : -1L << used;
+    }
+
+    private void checkCopy(int copy) {
+        if (copy < 0 || copy >= totalCopies) {
+            throw new IllegalArgumentException("Exemplar inexistente: " + copy);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package poo.item;
 
 import poo.entity.User;
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
 
 import java.time.LocalDate;
 
@@ -8,7 +10,12 @@ public class Dvd extends LibraryItem implements Borrowable {
     private String director;
 
     public Dvd(String title, String director, int publicationYear) {
-        super(title, director, publicationYear); // Usando campo do Autor para Diretor
+        this(title, director, publicationYear, 1);
+    }
+
+    // DVD com 'totalCopies' exemplares
+    public Dvd(String title, String director, int publicationYear, int totalCopies) {
+        super(title, director, publicationYear, totalCopies); // Usando campo do Autor para Diretor
         setDirector(director);
     }
 
@@ -16,6 +23,21 @@ public class Dvd extends LibraryItem implements Borrowable {
         this(title, director, LocalDate.now().getYear()); // Ano atual como padrão
     }
 
+    private Dvd(String title, String director, int publicationYear, CopyInventory copies) {
+        super(title, director, publicationYear, copies);
+        this.director = director;
+    }
+
+    // Recria um DVD salvo em snapshot/journal, sem repetir validações
+    public static Dvd restore(String title, String director, int publicationYear, CopyInventory copies) {
+        return new Dvd(title, director, publicationYear, copies);
+    }
+
+    // DVD de um único exemplar
+    public static Dvd restore(String title, String director, int publicationYear, boolean available, int borrowCount) {
+        return restore(title, director, publicationYear, CopyInventory.single(available, borrowCount));
+    }
+
     public String getDirector() {
         return director;
     }
@@ -28,26 +50,23 @@ public class Dvd extends LibraryItem implements Borrowable {
     }
 
     @Override
-    public boolean borrowItem(User user) {
-        if (isAvailable()) {
-            setAvailable(false);
-            incrementBorrowCount();
-            System.out.println("DVD '" + getTitle() + "'foi alugado com sucesso por " + user.getName() + ".");
-            return true;
+    public int borrowItem(User user) {
+        int copy = acquireCopy();
+        if (copy != CopyInventory.NO_COPY) {
+            EventLog.log(LibraryEvent.DVD_BORROWED, getTitle(), user.getName());
         } else {
-            System.out.println("DVD '" + getTitle() + "' não está disponível para empréstimo.");
-            return false;
+            EventLog.log(LibraryEvent.DVD_UNAVAILABLE, getTitle());
         }
+        return copy;
     }
 
     @Override
-    public boolean returnItem() {
-        if (!isAvailable()) {
-            setAvailable(true);
-            System.out.println("DVD '" + getTitle() + "' devolvido com sucesso.");
+    public boolean returnItem(int copy) {
+        if (releaseCopy(copy)) {
+            EventLog.log(LibraryEvent.DVD_RETURNED, getTitle());
             return true;
         } else {
-            System.out.println("DVD '" + getTitle() + "' já está disponível (não foi alugado).");
+            EventLog.log(LibraryEvent.DVD_NOT_BORROWED, getTitle());
             return false;
         }
     }
@@ -9,11 +9,16 @@ public abstract class LibraryItem {
     private final String author;
     private final int publicationYear;
 
-    // Campos mutáveis, pois seus valores mudam ao longo do tempo
-    private boolean available;
-    private int borrowCount;
+    // Exemplares do título, com disponibilidade e contagem de empréstimos de cada um.
+    // Sem locks, para que vários atendentes possam emprestar o mesmo título sem empréstimo duplo.
+    private final CopyInventory copies;
 
     public LibraryItem(String title, String author, int publicationYear) {
+        this(title, author, publicationYear, 1);
+    }
+
+    // Título com 'totalCopies' exemplares, todos disponíveis
+    public LibraryItem(String title, String author, int publicationYear, int totalCopies) {
         if (title == null || title.trim().isEmpty()) {
             throw new IllegalArgumentException("Título não pode ser vazio ou nulo.");
         }
@@ -31,8 +36,15 @@ public abstract class LibraryItem {
         }
         this.publicationYear = publicationYear;
 
-        this.available = true; // Novos itens estão disponíveis por padrão
-        this.borrowCount = 0;  // Contagem de empréstimos inicia em zero
+        this.copies = new CopyInventory(totalCopies); // Novos exemplares estão disponíveis e sem empréstimos
+    }
+
+    // Restaura um item salvo (snapshot/journal): os dados já foram validados quando o item foi criado
+    LibraryItem(String title, String author, int publicationYear, CopyInventory copies) {
+        this.title = title;
+        this.author = author;
+        this.publicationYear = publicationYear;
+        this.copies = copies;
     }
 
     // Getters para todos os campos
@@ -48,22 +60,43 @@ public abstract class LibraryItem {
         return publicationYear;
     }
 
+    // Disponível se ao menos um exemplar está livre
     public boolean isAvailable() {
-        return available;
+        return copies.getAvailableCopies() > 0;
     }
 
+    // Empréstimos de todos os exemplares
     public int getBorrowCount() {
-        return borrowCount;
+        return copies.getBorrowCount();
     }
 
-    // Setter apenas para 'available', pois é um campo final
+    public int getTotalCopies() {
+        return copies.getTotalCopies();
+    }
+
+    public int getAvailableCopies() {
+        return copies.getAvailableCopies();
+    }
+
+    // Situação de cada exemplar (consulta; empréstimos e devoluções passam por Borrowable)
+    public CopyInventory getCopies() {
+        return copies;
+    }
+
+    // Marca todos os exemplares como livres (true) ou emprestados (false)
     public void setAvailable(boolean available) {
-        this.available = available;
+        copies.setAll(!available);
+    }
+
+    // Marca um exemplar livre como emprestado e conta o empréstimo (verificação e troca atômicas).
+    // Retorna o número do exemplar, ou CopyInventory.NO_COPY se todos estão emprestados.
+    protected int acquireCopy() {
+        return copies.acquire();
     }
 
-    // Método para incrementar a contagem de empréstimos
-    protected void incrementBorrowCount() {
-        this.borrowCount++;
+    // Libera o exemplar; false se ele não estava emprestado
+    protected boolean releaseCopy(int copy) {
+        return copies.release(copy);
     }
 
     @Override
@@ -72,8 +105,8 @@ public abstract class LibraryItem {
                 "title='" + title + '\'' +
                 ", author='" + author + '\'' +
                 ", publicationYear=" + publicationYear +
-                ", available=" + available +
-                ", borrowCount=" + borrowCount +
+                ", available=" + isAvailable() +
+                ", borrowCount=" + getBorrowCount() +
                 '}';
     }
 }
\ No newline at end of file
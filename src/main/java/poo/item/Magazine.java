@@ -1,8 +1,11 @@
 package poo.item;
 
 import poo.entity.User;
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
 
 import java.time.LocalDate;
+import poo.validation.IdentifierValidator;
 
 public class Magazine extends  LibraryItem implements Borrowable {
     private String issn;
@@ -10,7 +13,12 @@ public class Magazine extends  LibraryItem implements Borrowable {
 
     // Constructors
     public Magazine(String title, String editor, int publicationYear, String issn, int editionNumber) {
-        super(title, editor, publicationYear); // Usando campo do Autor para Editor
+        this(title, editor, publicationYear, issn, editionNumber, 1);
+    }
+
+    // Revista com 'totalCopies' exemplares da mesma edição
+    public Magazine(String title, String editor, int publicationYear, String issn, int editionNumber, int totalCopies) {
+        super(title, editor, publicationYear, totalCopies); // Usando campo do Autor para Editor
         setISSN(issn);
         setEditionNumber(editionNumber);
     }
@@ -19,6 +27,22 @@ public class Magazine extends  LibraryItem implements Borrowable {
         this(title, editor, LocalDate.now().getYear(), issn, editionNumber); // Ano atual por padrão
     }
 
+    private Magazine(String title, String editor, int publicationYear, String issn, int editionNumber, CopyInventory copies) {
+        super(title, editor, publicationYear, copies);
+        this.issn = issn;
+        this.editionNumber = editionNumber;
+    }
+
+    // Recria uma revista salva em snapshot/journal, sem repetir validações nem avisos
+    public static Magazine restore(String title, String editor, int publicationYear, String issn, int editionNumber, CopyInventory copies) {
+        return new Magazine(title, editor, publicationYear, issn, editionNumber, copies);
+    }
+
+    // Revista de um único exemplar
+    public static Magazine restore(String title, String editor, int publicationYear, String issn, int editionNumber, boolean available, int borrowCount) {
+        return restore(title, editor, publicationYear, issn, editionNumber, CopyInventory.single(available, borrowCount));
+    }
+
     public String getISSN() {
         return issn;
     }
@@ -28,12 +52,17 @@ public class Magazine extends  LibraryItem implements Borrowable {
             throw new IllegalArgumentException("ISSN não pode ser nulo ou vazio");
         }
         // formato basico ISSN
-        if (!issn.matches("^\\d{4}-\\d{3}[\\dX]$")) { // Exemplo: XXXX-XXXX ou XXXX-XXXD, onde D é um digito
-            System.err.println("AVISO: o ISSN formato '" + issn + "' parece ser inválido. Exemplo: 1234-5678");
+        if (!isValidISSN(issn)) {
+            EventLog.log(LibraryEvent.INVALID_ISSN, issn);
         }
         this.issn = issn;
     }
 
+    // Verifica o ISSN (XXXX-XXXX ou XXXXXXXX), incluindo o dígito verificador
+    public static boolean isValidISSN(String issn) {
+        return IdentifierValidator.isValidIssn(issn);
+    }
+
     public int getEditionNumber() {
         return editionNumber;
     }
@@ -46,26 +75,23 @@ public class Magazine extends  LibraryItem implements Borrowable {
     }
 
     @Override
-    public boolean borrowItem(User user) {
-        if (isAvailable()) {
-            setAvailable(false);
-            incrementBorrowCount();
-            System.out.println("Revista '" + getTitle() + "' alugada com sucesso por " + user.getName() + ".");
-            return true;
+    public int borrowItem(User user) {
+        int copy = acquireCopy();
+        if (copy != CopyInventory.NO_COPY) {
+            EventLog.log(LibraryEvent.MAGAZINE_BORROWED, getTitle(), user.getName());
         } else {
-            System.out.println("Revista '" + getTitle() + "' não está válida para empréstimo.");
-            return false;
+            EventLog.log(LibraryEvent.MAGAZINE_UNAVAILABLE, getTitle());
         }
+        return copy;
     }
 
     @Override
-    public boolean returnItem() {
-        if (!isAvailable()) {
-            setAvailable(true);
-            System.out.println("Revista '" + getTitle() + "' devolvida com sucesso.");
+    public boolean returnItem(int copy) {
+        if (releaseCopy(copy)) {
+            EventLog.log(LibraryEvent.MAGAZINE_RETURNED, getTitle());
             return true;
         } else {
-            System.out.println("Revista '" + getTitle() + "' já está disponível (foi devolvida). ");
+            EventLog.log(LibraryEvent.MAGAZINE_NOT_BORROWED, getTitle());
             return false;
         }
     }
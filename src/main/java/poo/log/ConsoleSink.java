@@ -0,0 +1,22 @@
+package poo.log;
+
+import java.io.PrintStream;
+
+// Destino padrão: avisos e erros vão para System.err, o restante para System.out.
+public class ConsoleSink implements EventSink {
+
+    @Override
+    public void write(LibraryEvent event, long timestampMillis, String message) {
+        streamFor(event.getLevel()).println(message);
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+        System.err.flush();
+    }
+
+    private static PrintStream streamFor(LogLevel level) {
+        return level.compareTo(LogLevel.WARN) >= 0 ? System.err : System.out;
+    }
+}
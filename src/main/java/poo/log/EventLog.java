@@ -0,0 +1,153 @@
+package poo.log;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Registro de eventos da biblioteca, fora do caminho das operações.
+//
+// As classes do sistema registram eventos tipados (LibraryEvent) com seus argumentos; a mensagem só é
+// montada depois, pela thread de escrita, e apenas se o nível do evento estiver habilitado. Assim as
+// operações não pagam a formatação nem a escrita no console, nem disputam o lock do PrintStream.
+//
+// Configuração pelas propriedades de sistema:
+//     poo.log.level   nível mínimo (DEBUG, INFO, WARN, ERROR); padrão INFO
+//     poo.log.async   false escreve na thread que registrou o evento; padrão true
+//     poo.log.buffer  capacidade do buffer, potência de 2; padrão 8192
+public final class EventLog {
+
+    private static final long MAX_IDLE_NANOS = 1_000_000; // Espera curta máxima da thread de escrita sem eventos
+    private static final long SLEEP_NANOS = 1_000_000_000L; // Depois dela, dorme até um produtor acordá-la
+
+    private static final EventRing RING = new EventRing(Integer.getInteger("poo.log.buffer", 8192));
+
+    private static volatile LogLevel level = LogLevel.valueOf(System.getProperty("poo.log.level", "INFO").toUpperCase());
+    private static volatile boolean synchronous = !Boolean.parseBoolean(System.getProperty("poo.log.async", "true"));
+    private static volatile EventSink sink = new ConsoleSink();
+    private static volatile Thread writer;
+    private static volatile boolean writerSleeping;
+
+    private EventLog() {
+    }
+
+    public static boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel.compareTo(level) >= 0;
+    }
+
+    public static void log(LibraryEvent event) {
+        log(event, null, null, null, null);
+    }
+
+    public static void log(LibraryEvent event, Object arg0) {
+        log(event, arg0, null, null, null);
+    }
+
+    public static void log(LibraryEvent event, Object arg0, Object arg1) {
+        log(event, arg0, arg1, null, null);
+    }
+
+    public static void log(LibraryEvent event, Object arg0, Object arg1, Object arg2) {
+        log(event, arg0, arg1, arg2, null);
+    }
+
+    // Os argumentos devem ser imutáveis (textos, números, datas): são lidos depois, na thread de escrita
+    public static void log(LibraryEvent event, Object arg0, Object arg1, Object arg2, Object arg3) {
+        if (!isEnabled(event.getLevel())) {
+            return;
+        }
+        if (synchronous) {
+            synchronized (EventLog.class) {
+                sink.write(event, System.currentTimeMillis(), event.format(arg0, arg1, arg2, arg3));
+            }
+            return;
+        }
+        if (writer == null) {
+            startWriter();
+        }
+        RING.publish(event, arg0, arg1, arg2, arg3);
+        if (writerSleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        if (newLevel == null) {
+            throw new IllegalArgumentException("Nível não pode ser nulo.");
+        }
+        level = newLevel;
+    }
+
+    // No modo síncrono cada evento é escrito na thread que o registrou, na ordem das demais saídas do
+    // programa (útil em demonstrações de console). Os eventos pendentes são escritos antes da troca.
+    public static void setSynchronous(boolean enabled) {
+        flush();
+        synchronous = enabled;
+    }
+
+    public static void setSink(EventSink newSink) {
+        if (newSink == null) {
+            throw new IllegalArgumentException("Destino dos eventos não pode ser nulo.");
+        }
+        flush();
+        sink = newSink;
+    }
+
+    // Aguarda a escrita de todos os eventos registrados até aqui
+    public static void flush() {
+        long target = RING.claimedSequence();
+        Thread current = writer;
+        while (current != null && current.isAlive() && RING.consumedSequence() < target) {
+            LockSupport.unpark(current);
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        Thread thread = new Thread(EventLog::writeLoop, "library-event-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "library-event-flush"));
+        writer = thread;
+    }
+
+    // Sem eventos, a espera dobra a cada volta até MAX_IDLE_NANOS; depois a thread dorme e só um produtor
+    // (ou SLEEP_NANOS) a acorda. Enquanto há eventos chegando os produtores não fazem chamada nenhuma
+    // à thread. O destino é descarregado (flush) uma vez ao ficar sem eventos, não a cada volta.
+    private static void writeLoop() {
+        long idleNanos = 1_000;
+        boolean unflushed = false;
+        while (true) {
+            EventSink current = sink;
+            int written;
+            try {
+                written = RING.drain(current);
+                if (written == 0 && unflushed) {
+                    unflushed = false;
+                    current.flush();
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Falha ao escrever evento: " + e);
+                written = 1;
+            }
+            if (written > 0) {
+                unflushed = true;
+                idleNanos = 1_000;
+            } else if (idleNanos < MAX_IDLE_NANOS) {
+                LockSupport.parkNanos(idleNanos);
+                idleNanos *= 2;
+            } else {
+                // Marca antes de conferir o buffer: um evento publicado depois disso vê a marca e acorda a thread
+                writerSleeping = true;
+                if (!RING.hasPending()) {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+                writerSleeping = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package poo.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Buffer circular sem locks: várias threads registram eventos, uma única thread os consome.
+// Os slots são pré-alocados e reutilizados: o buffer não aloca nada por evento. Os argumentos chegam
+// como Object, então números (long, int) passados a EventLog.log são convertidos em objetos na chamada.
+//
+// Cada produtor reserva uma sequência (CAS em 'claimed'), preenche o slot e publica a sequência
+// no campo volátil do slot. O consumidor só lê um slot depois de ver a sequência esperada publicada.
+// Com o buffer cheio o produtor espera o consumidor liberar espaço (nenhum evento é descartado).
+final class EventRing {
+
+    private static final class Slot {
+        private volatile long sequence = -1; // Sequência publicada neste slot
+        private LibraryEvent event;
+        private long timestampMillis;
+        private Object arg0, arg1, arg2, arg3;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(); // Próxima sequência a reservar
+    private volatile long consumed; // Próxima sequência a consumir
+
+    EventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacidade do buffer deve ser uma potência de 2.");
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+    }
+
+    void publish(LibraryEvent event, Object arg0, Object arg1, Object arg2, Object arg3) {
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                Thread.onSpinWait(); // Buffer cheio: aguarda a thread de escrita
+                Thread.yield();
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.event = event;
+        slot.timestampMillis = System.currentTimeMillis();
+        slot.arg0 = arg0;
+        slot.arg1 = arg1;
+        slot.arg2 = arg2;
+        slot.arg3 = arg3;
+        slot.sequence = sequence; // Publica: escrita volátil depois dos demais campos
+    }
+
+    // Consome os eventos publicados em ordem, até o primeiro ainda não publicado. Só a thread de escrita chama.
+    int drain(EventSink sink) {
+        long cursor = consumed;
+        int count = 0;
+        while (true) {
+            Slot slot = slots[(int) cursor & mask];
+            if (slot.sequence != cursor) {
+                return count;
+            }
+            LibraryEvent event = slot.event;
+            String message;
+            try {
+                message = event.format(slot.arg0, slot.arg1, slot.arg2, slot.arg3);
+            } catch (RuntimeException e) {
+                // Um argumento com toString defeituoso não pode travar o slot (e com ele os produtores)
+                message = "[falha ao formatar " + event + ": " + e + "]";
+            }
+            long timestampMillis = slot.timestampMillis;
+            slot.event = null;
+            slot.arg0 = slot.arg1 = slot.arg2 = slot.arg3 = null;
+            consumed = ++cursor; // Libera o slot para os produtores
+            sink.write(event, timestampMillis, message);
+            count++;
+        }
+    }
+
+    // Sequência do próximo evento a ser registrado; os anteriores já foram reservados
+    long claimedSequence() {
+        return claimed.get();
+    }
+
+    long consumedSequence() {
+        return consumed;
+    }
+
+    // Há eventos reservados ainda não consumidos
+    boolean hasPending() {
+        return claimed.get() != consumed;
+    }
+}
@@ -0,0 +1,12 @@
+package poo.log;
+
+// Destino dos eventos já formatados. É chamado sempre pela mesma thread (a de escrita do EventLog,
+// ou a que registrou o evento no modo síncrono), então não precisa ser thread-safe.
+public interface EventSink {
+
+    void write(LibraryEvent event, long timestampMillis, String message);
+
+    // Chamado quando não há mais eventos pendentes, para descarregar buffers
+    default void flush() {
+    }
+}
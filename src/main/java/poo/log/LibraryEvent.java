@@ -0,0 +1,152 @@
+package poo.log;
+
+// Eventos registrados pelas classes do sistema, cada um com seu nível e o modelo da mensagem.
+// No modelo, "{}" é trocado pelo próximo argumento e "{cents}" por um valor em centavos (long) no formato 0.00.
+public enum LibraryEvent {
+
+    // Acervo
+    ITEM_NULL(LogLevel.WARN, "Não pode adicionar um item nulo."),
+    ITEM_DUPLICATE(LogLevel.WARN, "Item com ID {} já existente."),
+    ITEM_ADDED(LogLevel.INFO, "Item '{}' adicionado com sucesso."),
+    ITEM_REJECTED(LogLevel.WARN, "{}"),
+    ITEMS_ADDED(LogLevel.INFO, "{} de {} itens adicionados com sucesso."),
+    UPDATE_INVALID_ID(LogLevel.WARN, "Antigo ID do item não pode ser nulo ou vazio para atualização"),
+    UPDATE_NULL_ITEM(LogLevel.WARN, "Item atualizado não pode ser nulo."),
+    UPDATE_NOT_FOUND(LogLevel.WARN, "Item com ID {} não encontrado para atualização."),
+    UPDATE_ID_MISMATCH(LogLevel.WARN, "Atualização falhou: novo ID ({}) não bate com o ID anterior ({})."),
+    ITEM_UPDATED(LogLevel.INFO, "Item com ID {} atualizado com sucesso para '{}'."),
+    UNKNOWN_CATEGORY(LogLevel.WARN, "Categoria desconhecida: '{}'. Use Livro, Revista ou DVD."),
+    CATALOG_IMPORTED(LogLevel.INFO, "Importação de '{}' concluída: {} itens importados, {} recusados ({} registros/s)."),
+    CHANGE_LISTENER_FAILED(LogLevel.ERROR, "Falha ao notificar a alteração {}: {}"),
+
+    // Usuários
+    USER_NULL(LogLevel.WARN, "Não pode registrar um Usuário nulo."),
+    USER_DUPLICATE(LogLevel.WARN, "Usuário com CPF {} já existente."),
+    USER_REGISTERED(LogLevel.INFO, "Usuário '{}' registrado com sucesso."),
+    INVALID_CPF(LogLevel.WARN, "AVISO: O CPF '{}' parece ser inválido (11 dígitos, com os verificadores corretos)."),
+    INVALID_EMAIL(LogLevel.WARN, "AVISO: O formato do email '{}' parece ser inválido."),
+
+    // Empréstimos
+    BORROW_USER_NOT_FOUND(LogLevel.WARN, "Empréstimo falhou: usuário com CPF {} não encontrado."),
+    BORROW_ITEM_NOT_FOUND(LogLevel.WARN, "Empréstimo falhou: item com ID {} não encontrado."),
+    BORROW_ITEM_UNAVAILABLE(LogLevel.WARN, "Empréstimo falhou: item '{}' não disponível."),
+    BORROW_ITEM_RESERVED(LogLevel.WARN, "Empréstimo falhou: item '{}' está separado para outro usuário."),
+    BORROW_USER_BLOCKED(LogLevel.WARN, "Empréstimo falhou: usuário '{}' está bloqueado devido multas."),
+    BORROW_QUOTA_EXCEEDED(LogLevel.WARN, "Empréstimo falhou: usuário '{}' já chegou no máximo de empréstimos ({})."),
+    BORROW_NOT_BORROWABLE(LogLevel.WARN, "Empréstimo falhou: Item '{}' não é alugável."),
+    BORROW_FAILED(LogLevel.WARN, "Empréstimo falhou: {}."),
+    BORROW_CREATED(LogLevel.INFO, "Empréstimo realizado: '{}' para '{}'. Vencimento: {}"),
+    BATCH_USER_NOT_FOUND(LogLevel.WARN, "Empréstimos falharam: usuário com CPF {} não encontrado."),
+    BATCH_BORROWED(LogLevel.INFO, "Empréstimos para '{}': {} de {} realizados."),
+
+    // Devoluções e renovações
+    RETURN_NOT_FOUND(LogLevel.WARN, "Devolução falhou: empréstimo ativo com ID {} não encontrado."),
+    RETURN_ALREADY_RETURNED(LogLevel.WARN, "Devolução falhou: empréstimo ID {} já foi devolvido."),
+    RETURN_NOT_BORROWABLE(LogLevel.ERROR, "Erro interno: item alugável não é alugável (verificar)."),
+    BORROW_RETURNED(LogLevel.INFO, "Empréstimo ID {} retornado e processado com sucesso."),
+    BATCH_RETURNED(LogLevel.INFO, "Devoluções: {} de {} processadas."),
+    BATCH_RETURNED_WITH_PENALTIES(LogLevel.INFO, "Devoluções: {} de {} processadas, multas de ${cents}."),
+    RENEW_NOT_FOUND(LogLevel.WARN, "Renovação falhou: Empréstimo ativo com ID {} não encontrado."),
+    RENEW_ALREADY_RETURNED(LogLevel.WARN, "Renovação falhou: Empréstimo com ID {} já foi retornado."),
+    RENEW_ALREADY_RENEWED(LogLevel.WARN, "Renovação falhou: Empréstimo com ID {} já foi renovado."),
+    RENEW_OVERDUE(LogLevel.WARN, "Renovação falhou: Empréstimo com ID {} já está atrasado."),
+    RENEW_NOT_BORROWABLE(LogLevel.ERROR, "Erro interno: Item em empréstimo não é alugável."),
+    BORROW_RENEWED(LogLevel.INFO, "Empréstimo ID {} renovado com sucesso. Nova data de vencimento: {}"),
+    BATCH_RENEWED(LogLevel.INFO, "Renovações: {} de {} processadas."),
+    RENEW_RESERVED(LogLevel.WARN, "Renovação falhou: há reservas esperando pelo item do empréstimo ID {}."),
+
+    // Reservas
+    HOLD_FAILED(LogLevel.WARN, "Reserva falhou: {}."),
+    HOLD_PLACED(LogLevel.INFO, "Reserva de '{}' para '{}' registrada. Posição na fila: {}"),
+    HOLD_READY(LogLevel.INFO, "Item '{}' separado para '{}'. Retirar até {}"),
+    HOLD_CANCELLED(LogLevel.INFO, "Reserva ID {} cancelada."),
+    HOLD_EXPIRED(LogLevel.INFO, "Reserva ID {} expirou sem retirada do item '{}'."),
+    HOLD_EXPIRY_FAILED(LogLevel.ERROR, "Falha ao expirar reservas: {}"),
+
+    // Multas
+    PENALTY_INCURRED(LogLevel.INFO, "Multa incorrida por '{}': ${cents}. Usuário {} foi bloqueado."),
+    PENALTY_NOT_FOUND(LogLevel.WARN, "Multa com ID {} não identificada em multas pendentes."),
+    PENALTY_PAID(LogLevel.INFO, "Multa ID {} paga com sucesso. Valor: R${cents}"),
+    USER_UNBLOCKED(LogLevel.INFO, "Usuário {} desbloqueado."),
+    PAYMENT_USER_NOT_FOUND(LogLevel.WARN, "Pagamento falhou: usuário com CPF {} não encontrado."),
+    NO_PENDING_PENALTIES(LogLevel.WARN, "Usuário '{}' não possui multas pendentes."),
+    PENALTIES_PAID(LogLevel.INFO, "{} multa(s) do usuário {} paga(s) com sucesso. Total: R${cents}. Usuário desbloqueado."),
+
+    // Itens (Book, Magazine, Dvd)
+    INVALID_ISBN(LogLevel.WARN, "AVISO: o ISBN '{}' parece ser inválido. É esperado um ISBN-13 com dígito verificador correto. Ex: 978-0-306-40615-7"),
+    INVALID_ISSN(LogLevel.WARN, "AVISO: o ISSN '{}' parece ser inválido (formato ou dígito verificador). Exemplo: 0317-8471"),
+    BOOK_BORROWED(LogLevel.INFO, "Livro '{}' foi alugado com sucesso pelo {}."),
+    BOOK_UNAVAILABLE(LogLevel.WARN, "Livro '{}' não está disponível para empréstimo."),
+    BOOK_RETURNED(LogLevel.INFO, "Livro '{}' devolvido com sucesso."),
+    BOOK_NOT_BORROWED(LogLevel.WARN, "Livro '{}' já está disponível (não foi alugado)."),
+    MAGAZINE_BORROWED(LogLevel.INFO, "Revista '{}' alugada com sucesso por {}."),
+    MAGAZINE_UNAVAILABLE(LogLevel.WARN, "Revista '{}' não está disponível para empréstimo."),
+    MAGAZINE_RETURNED(LogLevel.INFO, "Revista '{}' devolvida com sucesso."),
+    MAGAZINE_NOT_BORROWED(LogLevel.WARN, "Revista '{}' já está disponível (não foi alugada)."),
+    DVD_BORROWED(LogLevel.INFO, "DVD '{}' foi alugado com sucesso por {}."),
+    DVD_UNAVAILABLE(LogLevel.WARN, "DVD '{}' não está disponível para empréstimo."),
+    DVD_RETURNED(LogLevel.INFO, "DVD '{}' devolvido com sucesso."),
+    DVD_NOT_BORROWED(LogLevel.WARN, "DVD '{}' já está disponível (não foi alugado).");
+
+    private static final String ARGUMENT = "{}";
+    private static final String CENTS_ARGUMENT = "{cents}";
+
+    private final LogLevel level;
+    private final String template;
+
+    LibraryEvent(LogLevel level, String template) {
+        this.level = level;
+        this.template = template;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    // Monta a mensagem; argumentos a mais são ignorados e os que faltam aparecem como "null"
+    public String format(Object arg0, Object arg1, Object arg2, Object arg3) {
+        StringBuilder message = new StringBuilder(template.length() + 32);
+        int argument = 0;
+        int start = 0;
+        while (true) {
+            int open = template.indexOf('{', start);
+            if (open < 0) {
+                break;
+            }
+            boolean plain = template.startsWith(ARGUMENT, open);
+            boolean cents = !plain && template.startsWith(CENTS_ARGUMENT, open);
+            if (!plain && !cents) {
+                message.append(template, start, open + 1);
+                start = open + 1;
+                continue;
+            }
+            message.append(template, start, open);
+            Object value = switch (argument++) {
+                case 0 -> arg0;
+                case 1 -> arg1;
+                case 2 -> arg2;
+                default -> arg3;
+            };
+            if (cents && value instanceof Number number) {
+                appendCents(message, number.longValue());
+            } else {
+                message.append(value);
+            }
+            start = open + (plain ? ARGUMENT.length() : CENTS_ARGUMENT.length());
+        }
+        return message.append(template, start, template.length()).toString();
+    }
+
+    private static void appendCents(StringBuilder message, long cents) {
+        if (cents < 0) {
+            message.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        message.append(cents / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+    }
+}
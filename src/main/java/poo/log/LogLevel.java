@@ -0,0 +1,9 @@
+package poo.log;
+
+// Níveis dos eventos, do mais detalhado ao mais grave.
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
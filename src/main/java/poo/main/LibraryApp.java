@@ -2,6 +2,7 @@ package poo.main;
 
 import poo.entity.*;
 import poo.item.*;
+import poo.log.EventLog;
 import poo.system.*;
 
 import java.time.LocalDate;
@@ -10,6 +11,8 @@ import java.util.List;
 public class LibraryApp {
 
     public static void main(String[] args) {
+        // As mensagens da biblioteca aparecem intercaladas com as da demonstração, na ordem das chamadas
+        EventLog.setSynchronous(true);
         System.out.println("--- Iniciando Sistema ---");
 
         Library library = new Library();
@@ -108,6 +111,12 @@ public class LibraryApp {
         System.out.println("\n--- Itens por categoria (Livros) ---");
         library.listItemsByCategory("Book").forEach(System.out::println);
 
+        System.out.println("\n--- Livros disponíveis de 1990 a 2000 ---");
+        library.findItems(Book.class, 1990, 2000, true).forEach(System.out::println);
+
+        System.out.println("\n--- Busca por \"basico jav*\" ---");
+        library.searchItems("basico jav*").forEach(System.out::println);
+
         System.out.println("\n--- Itens mais alugados (Top 2) ---");
         library.getMostBorrowedItems(2).forEach(System.out::println);
 
@@ -128,6 +137,18 @@ public class LibraryApp {
         System.out.println("\n--- Receita Total de Penalidades ---");
         System.out.println("Penalidade Total: R$" + String.format("%.2f", library.getTotalPenaltyRevenue()));
 
+        System.out.println("\n--- Métricas ---");
+        LibraryMetrics metrics = library.getMetrics();
+        System.out.println("Empréstimos: " + metrics.getBorrows() + ", devoluções: " + metrics.getReturns()
+                + ", renovações: " + metrics.getRenewals() + ", multas: " + metrics.getPenaltiesIssued());
+        System.out.println("Recusas: " + metrics.getTotalRejections());
+        metrics.getRejections().forEach((reason, count) -> {
+            if (count > 0) {
+                System.out.println("  " + reason + ": " + count);
+            }
+        });
+        System.out.println("Empréstimos abertos: " + metrics.getOpenBorrows() + " (vencidos: " + metrics.getOverdueBorrows() + ")");
+
         System.out.println("\n--- Fim do Teste ---");
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package poo.system;
+
+// Semântica das operações em lote da Library.
+public enum BatchMode {
+    ALL_OR_NOTHING, // Se algum item falhar, nenhum é processado
+    PER_ITEM        // Cada item é processado independentemente
+}
@@ -0,0 +1,95 @@
+package poo.system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Resultado de uma operação em lote (empréstimos, devoluções ou renovações), na ordem do pedido.
+public final class BatchResult {
+
+    // Resultado de um item do lote: o ID pedido (item ou empréstimo), o empréstimo e o motivo da falha
+    public static final class Entry {
+        private final String requestedId;
+        private final Borrow borrow;
+        private final FailureReason failure;
+
+        Entry(String requestedId, Borrow borrow, FailureReason failure) {
+            this.requestedId = requestedId;
+            this.borrow = borrow;
+            this.failure = failure;
+        }
+
+        public String getRequestedId() {
+            return requestedId;
+        }
+
+        public Borrow getBorrow() {
+            return borrow;
+        }
+
+        public FailureReason getFailure() {
+            return failure;
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            return requestedId + ": " + (failure == null ? "OK" : failure.getDescription());
+        }
+    }
+
+    private final List<Entry> entries;
+
+    BatchResult(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    // Todas as entradas com a mesma falha (ex.: usuário não encontrado)
+    static BatchResult failAll(List<String> requestedIds, FailureReason failure) {
+        List<Entry> entries = new ArrayList<>(requestedIds.size());
+        for (String requestedId : requestedIds) {
+            entries.add(new Entry(requestedId, null, failure));
+        }
+        return new BatchResult(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int getSuccessCount() {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.isSuccess()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isAllSucceeded() {
+        return getSuccessCount() == entries.size();
+    }
+
+    public List<Borrow> getBorrows() {
+        List<Borrow> borrows = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.isSuccess()) {
+                borrows.add(entry.getBorrow());
+            }
+        }
+        return borrows;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "success=" + getSuccessCount() +
+                ", total=" + entries.size() +
+                ", entries=" + entries +
+                '}';
+    }
+}
@@ -5,18 +5,23 @@ import poo.item.Magazine; // Correct import
 import poo.entity.User;
 import poo.item.LibraryItem;
 import java.time.LocalDate;
-import java.util.UUID; // For generating unique IDs
 
 public class Borrow {
-    private final String borrowId;
+    private final long borrowId; // Ver IdGenerator; em texto apenas em getBorrowId()
     private final User user;
     private final LibraryItem item;
+    private final int copy; // Exemplar emprestado (ver LibraryItem.getCopies)
     private final LocalDate borrowDate;
-    private LocalDate dueDate;
-    private LocalDate returnDate; // Nulo se não devolvido
-    private boolean isRenewed; // Restrear se o empréstimo foi renovado
+    private volatile LocalDate dueDate;
+    private volatile LocalDate returnDate; // Nulo se não devolvido
+    private volatile boolean isRenewed; // Restrear se o empréstimo foi renovado
 
     public Borrow(User user, LibraryItem item, LocalDate borrowDate, LocalDate dueDate) {
+        this(IdGenerator.defaultGenerator().nextId(), user, item, 0, borrowDate, dueDate); // Gera ID único para cada empréstimo.
+    }
+
+    // Usado pela Library (ID do seu gerador) e na recuperação do journal/snapshot (ID original)
+    Borrow(long borrowId, User user, LibraryItem item, int copy, LocalDate borrowDate, LocalDate dueDate) {
         if (user == null || item == null || borrowDate == null || dueDate == null) {
             throw new IllegalArgumentException("Parâmetros do empréstimo não podem ser nulos.");
         }
@@ -24,9 +29,10 @@ public class Borrow {
             throw new IllegalArgumentException("A data do empréstimo não pode ser posterior a data de vencimento.");
         }
 
-        this.borrowId = UUID.randomUUID().toString(); // Gera ID único para cada empréstimo.
+        this.borrowId = borrowId;
         this.user = user;
         this.item = item;
+        this.copy = copy;
         this.borrowDate = borrowDate;
         this.dueDate = dueDate;
         this.returnDate = null; // Não retornado
@@ -34,6 +40,10 @@ public class Borrow {
     }
 
     public String getBorrowId() {
+        return IdCodec.format(borrowId);
+    }
+
+    public long getId() {
         return borrowId;
     }
 
@@ -45,6 +55,10 @@ public class Borrow {
         return item;
     }
 
+    public int getCopy() {
+        return copy;
+    }
+
     public LocalDate getBorrowDate() { // This getter is fine, even if not used internally
         return borrowDate;
     }
@@ -92,9 +106,10 @@ public class Borrow {
         }
 
         return "Borrow{" +
-                "borrowId='" + borrowId + '\'' +
+                "borrowId='" + getBorrowId() + '\'' +
                 ", user=" + user.getName() + " (CPF: " + user.getCPF() + ')' +
                 ", item=" + item.getTitle() + " (" + itemIdDisplay + ')' + // Atualiza ID do item
+                (item.getTotalCopies() > 1 ? ", copy=" + copy : "") +
                 ", borrowDate=" + borrowDate +
                 ", dueDate=" + dueDate +
                 ", returnDate=" + (returnDate != null ? returnDate : "N/A") +
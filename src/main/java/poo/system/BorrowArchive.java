@@ -0,0 +1,13 @@
+package poo.system;
+
+import poo.entity.User;
+import java.util.List;
+
+// Empréstimos já encerrados de cada usuário, guardados pela Library fora dos objetos User
+// (ver User.getBorrowHistory). Os Borrow devolvidos são cópias montadas na consulta.
+public interface BorrowArchive {
+
+    List<Borrow> closedBorrowsOf(User user);
+
+    int closedCountOf(User user);
+}
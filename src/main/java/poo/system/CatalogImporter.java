@@ -0,0 +1,232 @@
+package poo.system;
+
+import poo.item.Book;
+import poo.item.Dvd;
+import poo.item.LibraryItem;
+import poo.item.Magazine;
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Importação de catálogo a partir de um arquivo texto (UTF-8), um item por linha, campos separados por ';':
+//
+//     tipo;titulo;autor;ano;identificador;edicao;exemplares
+//
+// 'tipo' é LIVRO, REVISTA ou DVD; 'identificador' é o ISBN (livro) ou o ISSN (revista) e fica vazio para DVD;
+// 'edicao' só é usada por revistas; 'exemplares' é opcional (vazio ou ausente: 1).
+// Campos que contêm ';' podem vir entre aspas ("Título; subtítulo").
+// Linhas vazias, comentários (#) e o cabeçalho "tipo;..." são ignorados.
+//
+// O arquivo é lido em sequência e dividido em lotes. Os lotes são interpretados e validados em paralelo e
+// adicionados à biblioteca na ordem do arquivo, por Library.addItems. Como no máximo 2 * parallelism lotes
+// ficam em memória, arquivos maiores que o heap podem ser importados.
+public final class CatalogImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 5_000;
+
+    private final Library library;
+    private final int batchSize;
+    private final int parallelism;
+
+    public CatalogImporter(Library library) {
+        this(library, DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CatalogImporter(Library library, int batchSize, int parallelism) {
+        if (library == null) {
+            throw new IllegalArgumentException("Biblioteca não pode ser nula.");
+        }
+        if (batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote e paralelismo devem ser positivos.");
+        }
+        this.library = library;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    public ImportReport importFile(Path file) throws IOException {
+        ImportReport report = new ImportReport();
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        Deque<Future<ParsedBatch>> inFlight = new ArrayDeque<>();
+        int maxInFlight = parallelism * 2;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(batchSize);
+            long firstLineNumber = 1;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    List<String> batch = lines;
+                    long batchStart = firstLineNumber;
+                    inFlight.addLast(workers.submit(() -> parseBatch(batch, batchStart)));
+                    lines = new ArrayList<>(batchSize);
+                    firstLineNumber = lineNumber + 1;
+                    if (inFlight.size() >= maxInFlight) {
+                        commit(await(inFlight.removeFirst()), report);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                List<String> batch = lines;
+                long batchStart = firstLineNumber;
+                inFlight.addLast(workers.submit(() -> parseBatch(batch, batchStart)));
+            }
+            while (!inFlight.isEmpty()) {
+                commit(await(inFlight.removeFirst()), report);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        report.setElapsedNanos(System.nanoTime() - start);
+        EventLog.log(LibraryEvent.CATALOG_IMPORTED, file.getFileName(), report.getImported(), report.getRejected(),
+                Math.round(report.getRecordsPerSecond()));
+        return report;
+    }
+
+    // --- Lotes ---
+
+    private static final class ParsedBatch {
+        private final List<LibraryItem> items = new ArrayList<>();
+        private final List<Long> itemLines = new ArrayList<>();
+        private final List<ImportReport.Rejection> rejections = new ArrayList<>();
+        private long records;
+    }
+
+    private static ParsedBatch parseBatch(List<String> lines, long firstLineNumber) {
+        ParsedBatch batch = new ParsedBatch();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#") || line.regionMatches(true, 0, "tipo;", 0, 5)) {
+                continue;
+            }
+            long lineNumber = firstLineNumber + i;
+            batch.records++;
+            try {
+                batch.items.add(parseItem(line));
+                batch.itemLines.add(lineNumber);
+            } catch (IllegalArgumentException e) {
+                batch.rejections.add(new ImportReport.Rejection(lineNumber, e.getMessage()));
+            }
+        }
+        return batch;
+    }
+
+    private void commit(ParsedBatch batch, ImportReport report) {
+        report.recordRead(batch.records);
+        for (ImportReport.Rejection rejection : batch.rejections) {
+            report.recordRejected(rejection.getLineNumber(), rejection.getReason());
+        }
+        Map<LibraryItem, Long> lineOfItem = new IdentityHashMap<>(batch.items.size() * 2);
+        for (int i = 0; i < batch.items.size(); i++) {
+            lineOfItem.put(batch.items.get(i), batch.itemLines.get(i));
+        }
+        int added = library.addItems(batch.items, (item, reason) -> report.recordRejected(lineOfItem.get(item), reason));
+        report.recordImported(added);
+    }
+
+    private static ParsedBatch await(Future<ParsedBatch> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importação interrompida.");
+        } catch (ExecutionException e) {
+            throw new IOException("Falha ao interpretar lote da importação.", e.getCause());
+        }
+    }
+
+    // --- Interpretação de uma linha ---
+
+    // Lança IllegalArgumentException com o motivo quando a linha é inválida
+    static LibraryItem parseItem(String line) {
+        List<String> fields = splitFields(line);
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("Esperados ao menos 4 campos (tipo;titulo;autor;ano), encontrados " + fields.size() + ".");
+        }
+        String type = fields.get(0).toUpperCase();
+        String title = fields.get(1);
+        String author = fields.get(2);
+        int publicationYear = parseNumber(fields.get(3), "Ano de publicação");
+        String specificId = fields.size() > 4 ? fields.get(4) : "";
+        int copies = fields.size() > 6 && !fields.get(6).isEmpty() ? parseNumber(fields.get(6), "Quantidade de exemplares") : 1;
+
+        switch (type) {
+            case "LIVRO", "BOOK" -> {
+                if (!Book.isValidISBN(specificId)) {
+                    throw new IllegalArgumentException("ISBN inválido: '" + specificId + "'.");
+                }
+                return new Book(title, author, publicationYear, specificId, copies);
+            }
+            case "REVISTA", "MAGAZINE" -> {
+                if (!Magazine.isValidISSN(specificId)) {
+                    throw new IllegalArgumentException("ISSN inválido: '" + specificId + "'.");
+                }
+                if (fields.size() < 6) {
+                    throw new IllegalArgumentException("Revista sem número de edição.");
+                }
+                return new Magazine(title, author, publicationYear, specificId, parseNumber(fields.get(5), "Número de edição"), copies);
+            }
+            case "DVD" -> {
+                return new Dvd(title, author, publicationYear, copies);
+            }
+            default -> throw new IllegalArgumentException("Tipo de item desconhecido: '" + fields.get(0) + "'.");
+        }
+    }
+
+    private static int parseNumber(String value, String fieldName) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(fieldName + " inválido: '" + value + "'.");
+        }
+    }
+
+    // Divide a linha por ';', respeitando campos entre aspas ("" dentro das aspas representa uma aspa)
+    private static List<String> splitFields(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ';') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+}
@@ -0,0 +1,142 @@
+package poo.system;
+
+import poo.item.LibraryItem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índices secundários do acervo: por tipo de item, por ano de publicação e itens disponíveis agora.
+// Consultas combinadas partem do índice mais seletivo e conferem os demais filtros item a item.
+//
+// A disponibilidade é atualizada pela Library a cada empréstimo e devolução (updateAvailability);
+// os resultados ainda conferem isAvailable(), pois setAvailable pode ser chamado fora da Library.
+class CatalogIndex {
+
+    private final Map<Class<? extends LibraryItem>, Set<LibraryItem>> itemsByType;
+    private final NavigableMap<Integer, Set<LibraryItem>> itemsByYear;
+    private final Set<LibraryItem> availableItems;
+    private final ReadWriteLock lock;
+
+    CatalogIndex() {
+        this.itemsByType = new HashMap<>();
+        this.itemsByYear = new TreeMap<>();
+        this.availableItems = new HashSet<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    void add(LibraryItem item) {
+        lock.writeLock().lock();
+        try {
+            itemsByType.computeIfAbsent(item.getClass(), t -> new HashSet<>()).add(item);
+            itemsByYear.computeIfAbsent(item.getPublicationYear(), y -> new HashSet<>()).add(item);
+            if (item.isAvailable()) {
+                availableItems.add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(LibraryItem item) {
+        lock.writeLock().lock();
+        try {
+            removeFrom(itemsByType, item.getClass(), item);
+            removeFrom(itemsByYear, item.getPublicationYear(), item);
+            availableItems.remove(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<LibraryItem>> index, K key, LibraryItem item) {
+        Set<LibraryItem> items = index.get(key);
+        if (items != null && items.remove(item) && items.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // Deve ser chamado depois que a disponibilidade do item mudou (empréstimo ou devolução)
+    void updateAvailability(LibraryItem item) {
+        lock.writeLock().lock();
+        try {
+            if (item.isAvailable()) {
+                availableItems.add(item);
+            } else {
+                availableItems.remove(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 'type' nulo aceita qualquer tipo; 'fromYear'/'toYear' nulos deixam o intervalo aberto
+    List<LibraryItem> find(Class<? extends LibraryItem> type, Integer fromYear, Integer toYear, boolean onlyAvailable) {
+        int minYear = fromYear == null ? Integer.MIN_VALUE : fromYear;
+        int maxYear = toYear == null ? Integer.MAX_VALUE : toYear;
+        if (minYear > maxYear) {
+            return new ArrayList<>();
+        }
+        boolean byYear = fromYear != null || toYear != null;
+        if (type == LibraryItem.class) {
+            type = null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<LibraryItem> typeItems = type == null ? null : itemsByType.getOrDefault(type, Set.of());
+            Collection<Set<LibraryItem>> yearItems = byYear ? itemsByYear.subMap(minYear, true, maxYear, true).values() : null;
+
+            // Percorre o menor dos índices envolvidos (o de anos pode ter vários conjuntos)
+            Collection<Set<LibraryItem>> driver = null;
+            long driverSize = Long.MAX_VALUE;
+            if (typeItems != null) {
+                driver = List.of(typeItems);
+                driverSize = typeItems.size();
+            }
+            if (onlyAvailable && availableItems.size() < driverSize) {
+                driver = List.of(availableItems);
+                driverSize = availableItems.size();
+            }
+            if (yearItems != null && sizeUpTo(yearItems, driverSize) < driverSize) {
+                driver = yearItems;
+            }
+            if (driver == null) {
+                driver = itemsByType.values();
+            }
+
+            List<LibraryItem> result = new ArrayList<>();
+            for (Set<LibraryItem> items : driver) {
+                for (LibraryItem item : items) {
+                    if ((typeItems == null || typeItems.contains(item))
+                            && (!onlyAvailable || (availableItems.contains(item) && item.isAvailable()))
+                            && item.getPublicationYear() >= minYear && item.getPublicationYear() <= maxYear) {
+                        result.add(item);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Soma dos tamanhos, interrompida ao chegar em 'limit'
+    private static long sizeUpTo(Collection<Set<LibraryItem>> sets, long limit) {
+        long size = 0;
+        for (Set<LibraryItem> items : sets) {
+            size += items.size();
+            if (size >= limit) {
+                break;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,67 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.LibraryItem;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+// Snapshot binário do cadastro (itens e usuários) para carregar catálogos grandes rapidamente.
+// A leitura usa o arquivo mapeado em memória e recria os objetos em lote, sem as validações
+// por objeto dos construtores e sem as mensagens de addItem/registerUser.
+// Empréstimos e multas não fazem parte do catálogo (ver LibraryJournal para o estado completo).
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x504C4354; // "PLCT"
+    private static final int VERSION = 1;
+
+    private CatalogSnapshot() {
+    }
+
+    public static void write(Library library, Path file) throws IOException {
+        List<LibraryItem> items = library.listAllItems();
+        List<User> users = library.registeredUsers();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(items.size());
+            out.writeInt(users.size());
+            for (LibraryItem item : items) {
+                StateCodec.writeItem(out, item);
+            }
+            for (User user : users) {
+                StateCodec.writeUser(out, user);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Cria uma nova biblioteca (em memória, sem journal) com o catálogo salvo no arquivo
+    public static Library load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(MappedFileInput.open(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Arquivo não é um snapshot de catálogo válido: " + file);
+            }
+            int itemCount = in.readInt();
+            int userCount = in.readInt();
+
+            Library library = new Library();
+            for (int i = 0; i < itemCount; i++) {
+                library.restoreItem(StateCodec.readItem(in));
+            }
+            for (int i = 0; i < userCount; i++) {
+                library.restoreUser(StateCodec.readUser(in));
+            }
+            return library;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package poo.system;
+
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Distribui as alterações da Library aos listeners. Sem listeners (o caso comum fora da interface
+// gráfica), publish não cria nenhum objeto. Um listener que lança exceção é registrado no log e não
+// interrompe a operação nem os demais listeners.
+final class ChangeFeed {
+
+    private final CopyOnWriteArrayList<LibraryChangeListener> listeners;
+
+    ChangeFeed() {
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    void addListener(LibraryChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener não pode ser nulo.");
+        }
+        listeners.add(listener);
+    }
+
+    void removeListener(LibraryChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    void publish(LibraryChange.Type type, String itemId, String userCpf, long id) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        LibraryChange change = new LibraryChange(type, itemId, userCpf, id);
+        for (LibraryChangeListener listener : listeners) {
+            try {
+                listener.onChange(change);
+            } catch (RuntimeException e) {
+                EventLog.log(LibraryEvent.CHANGE_LISTENER_FAILED, change, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.LibraryItem;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Histórico de empréstimos encerrados, em colunas de tipos primitivos: cada empréstimo devolvido vira
+// uma linha com o ID (long), as datas em dias desde 1970 (int), o usuário e o item como números de
+// ordem (int), o exemplar (int) e um byte de flags, cerca de 37 bytes por empréstimo em vez de um Borrow
+// com três LocalDate. As colunas são divididas em páginas de tamanho fixo, então crescer não copia o que
+// já existe.
+//
+// Os empréstimos de cada usuário formam uma lista encadeada pela coluna 'nextOfUser'. Objetos Borrow
+// só são criados nas consultas (cópias; alterá-las não muda o histórico). Métodos sincronizados.
+final class ClosedBorrowStore implements BorrowArchive {
+
+    private static final int PAGE_BITS = 14;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS; // 16.384 linhas por página
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int NO_ROW = -1;
+    private static final int BYTES_PER_ROW = Long.BYTES + 7 * Integer.BYTES + 1;
+
+    private static final byte RENEWED = 1;
+
+    private long[][] ids;
+    private int[][] borrowDays;
+    private int[][] dueDays;
+    private int[][] returnDays;
+    private int[][] userOrdinals;
+    private int[][] itemOrdinals;
+    private int[][] copies;
+    private int[][] nextOfUser;
+    private byte[][] flags;
+    private int size;
+
+    // Números de ordem: o usuário e o item são gravados uma vez aqui e referenciados pelas linhas
+    private final Map<String, Integer> userOrdinalByCpf;
+    private User[] users;
+    private int[] firstRowOfUser;
+    private int[] lastRowOfUser;
+    private int[] rowCountOfUser;
+    private final Map<String, Integer> itemOrdinalById;
+    private LibraryItem[] items;
+
+    ClosedBorrowStore() {
+        this.ids = new long[1][];
+        this.borrowDays = new int[1][];
+        this.dueDays = new int[1][];
+        this.returnDays = new int[1][];
+        this.userOrdinals = new int[1][];
+        this.itemOrdinals = new int[1][];
+        this.copies = new int[1][];
+        this.nextOfUser = new int[1][];
+        this.flags = new byte[1][];
+        this.userOrdinalByCpf = new HashMap<>();
+        this.users = new User[16];
+        this.firstRowOfUser = new int[16];
+        this.lastRowOfUser = new int[16];
+        this.rowCountOfUser = new int[16];
+        this.itemOrdinalById = new HashMap<>();
+        this.items = new LibraryItem[16];
+    }
+
+    // Acrescenta um empréstimo já devolvido. 'itemId' é o ID do item na biblioteca.
+    synchronized void add(Borrow borrow, String itemId) {
+        if (borrow.getReturnDate() == null) {
+            throw new IllegalArgumentException("Apenas empréstimos devolvidos vão para o histórico.");
+        }
+        int row = size;
+        int page = row >>> PAGE_BITS;
+        if ((row & PAGE_MASK) == 0) {
+            addPage(page);
+        }
+        int offset = row & PAGE_MASK;
+        int user = userOrdinal(borrow.getUser());
+        ids[page][offset] = borrow.getId();
+        borrowDays[page][offset] = (int) borrow.getBorrowDate().toEpochDay();
+        dueDays[page][offset] = (int) borrow.getDueDate().toEpochDay();
+        returnDays[page][offset] = (int) borrow.getReturnDate().toEpochDay();
+        userOrdinals[page][offset] = user;
+        itemOrdinals[page][offset] = itemOrdinal(itemId, borrow.getItem());
+        copies[page][offset] = borrow.getCopy();
+        nextOfUser[page][offset] = NO_ROW;
+        flags[page][offset] = borrow.isRenewed() ? RENEWED : 0;
+
+        int last = lastRowOfUser[user];
+        if (last == NO_ROW) {
+            firstRowOfUser[user] = row;
+        } else {
+            nextOfUser[last >>> PAGE_BITS][last & PAGE_MASK] = row;
+        }
+        lastRowOfUser[user] = row;
+        rowCountOfUser[user]++;
+        size++;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // Monta o Borrow de cada linha, na ordem em que os empréstimos foram encerrados
+    synchronized void forEach(Consumer<Borrow> action) {
+        for (int row = 0; row < size; row++) {
+            action.accept(materialize(row));
+        }
+    }
+
+    @Override
+    public synchronized List<Borrow> closedBorrowsOf(User user) {
+        Integer ordinal = userOrdinalByCpf.get(user.getCPF());
+        if (ordinal == null) {
+            return new ArrayList<>();
+        }
+        List<Borrow> result = new ArrayList<>(rowCountOfUser[ordinal]);
+        for (int row = firstRowOfUser[ordinal]; row != NO_ROW; row = nextOfUser[row >>> PAGE_BITS][row & PAGE_MASK]) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized int closedCountOf(User user) {
+        Integer ordinal = userOrdinalByCpf.get(user.getCPF());
+        return ordinal == null ? 0 : rowCountOfUser[ordinal];
+    }
+
+    // Memória ocupada pelas colunas e pelas tabelas de números de ordem (sem os próprios usuários e itens)
+    synchronized long heapBytes() {
+        int pages = size == 0 ? 0 : ((size - 1) >>> PAGE_BITS) + 1;
+        long columns = (long) pages * PAGE_SIZE * BYTES_PER_ROW;
+        long ordinalTables = (long) users.length * (4 + 3 * Integer.BYTES) + (long) items.length * 4;
+        // Entradas dos mapas de CPF/ID para número de ordem (nó + Integer; as Strings são as do usuário/item)
+        long ordinalMaps = (userOrdinalByCpf.size() + itemOrdinalById.size()) * 48L;
+        return columns + ordinalTables + ordinalMaps;
+    }
+
+    private Borrow materialize(int row) {
+        int page = row >>> PAGE_BITS;
+        int offset = row & PAGE_MASK;
+        Borrow borrow = new Borrow(ids[page][offset], users[userOrdinals[page][offset]], items[itemOrdinals[page][offset]],
+                copies[page][offset], LocalDate.ofEpochDay(borrowDays[page][offset]), LocalDate.ofEpochDay(dueDays[page][offset]));
+        borrow.setReturnDate(LocalDate.ofEpochDay(returnDays[page][offset]));
+        borrow.setRenewed((flags[page][offset] & RENEWED) != 0);
+        return borrow;
+    }
+
+    private void addPage(int page) {
+        if (page == ids.length) {
+            int capacity = page * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            borrowDays = Arrays.copyOf(borrowDays, capacity);
+            dueDays = Arrays.copyOf(dueDays, capacity);
+            returnDays = Arrays.copyOf(returnDays, capacity);
+            userOrdinals = Arrays.copyOf(userOrdinals, capacity);
+            itemOrdinals = Arrays.copyOf(itemOrdinals, capacity);
+            copies = Arrays.copyOf(copies, capacity);
+            nextOfUser = Arrays.copyOf(nextOfUser, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        ids[page] = new long[PAGE_SIZE];
+        borrowDays[page] = new int[PAGE_SIZE];
+        dueDays[page] = new int[PAGE_SIZE];
+        returnDays[page] = new int[PAGE_SIZE];
+        userOrdinals[page] = new int[PAGE_SIZE];
+        itemOrdinals[page] = new int[PAGE_SIZE];
+        copies[page] = new int[PAGE_SIZE];
+        nextOfUser[page] = new int[PAGE_SIZE];
+        flags[page] = new byte[PAGE_SIZE];
+    }
+
+    // Guarda o objeto mais recente do usuário (ex.: recriado pelo snapshot) para montar as consultas
+    private int userOrdinal(User user) {
+        Integer ordinal = userOrdinalByCpf.get(user.getCPF());
+        if (ordinal == null) {
+            ordinal = userOrdinalByCpf.size();
+            userOrdinalByCpf.put(user.getCPF(), ordinal);
+            if (ordinal == users.length) {
+                int capacity = ordinal * 2;
+                users = Arrays.copyOf(users, capacity);
+                firstRowOfUser = Arrays.copyOf(firstRowOfUser, capacity);
+                lastRowOfUser = Arrays.copyOf(lastRowOfUser, capacity);
+                rowCountOfUser = Arrays.copyOf(rowCountOfUser, capacity);
+            }
+            firstRowOfUser[ordinal] = NO_ROW;
+            lastRowOfUser[ordinal] = NO_ROW;
+        }
+        users[ordinal] = user;
+        return ordinal;
+    }
+
+    private int itemOrdinal(String itemId, LibraryItem item) {
+        Integer ordinal = itemOrdinalById.get(itemId);
+        if (ordinal == null) {
+            ordinal = itemOrdinalById.size();
+            itemOrdinalById.put(itemId, ordinal);
+            if (ordinal == items.length) {
+                items = Arrays.copyOf(items, ordinal * 2);
+            }
+        }
+        items[ordinal] = item;
+        return ordinal;
+    }
+}
@@ -0,0 +1,70 @@
+package poo.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// LongHashMap dividido em segmentos, cada um com o seu próprio lock: threads que usam IDs de
+// segmentos diferentes não se bloqueiam. As operações sobre uma chave são atômicas; size() e values()
+// percorrem os segmentos um a um e podem não refletir alterações feitas ao mesmo tempo.
+class ConcurrentLongMap<V> {
+
+    private final LongHashMap<V>[] segments;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    ConcurrentLongMap(int concurrency) {
+        int count = Integer.highestOneBit(Math.max(1, concurrency) * 2 - 1);
+        this.segments = (LongHashMap<V>[]) new LongHashMap<?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new LongHashMap<>();
+        }
+        this.mask = count - 1;
+    }
+
+    V get(long key) {
+        LongHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    V put(long key, V value) {
+        LongHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    V remove(long key) {
+        LongHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (LongHashMap<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    // Valores em ordem arbitrária
+    List<V> values() {
+        List<V> result = new ArrayList<>();
+        for (LongHashMap<V> segment : segments) {
+            synchronized (segment) {
+                segment.addValuesTo(result);
+            }
+        }
+        return result;
+    }
+
+    // Usa os bits baixos do hash; dentro do segmento a posição vem dos bits altos
+    private LongHashMap<V> segmentFor(long key) {
+        return segments[(int) LongHashMap.mix(key) & mask];
+    }
+}
@@ -0,0 +1,77 @@
+package poo.system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Ranking por contagem mantido de forma incremental.
+// Os elementos ficam em "baldes" por contagem, do maior para o menor, de modo que
+// ler os K primeiros percorre apenas K elementos, sem reordenar a coleção inteira.
+// Os métodos são sincronizados, pois o ranking é atualizado por vários atendentes ao mesmo tempo.
+class CountRanking<T> {
+
+    private final Map<T, Long> counts;
+    private final NavigableMap<Long, Set<T>> buckets;
+
+    CountRanking() {
+        this.counts = new HashMap<>();
+        this.buckets = new TreeMap<>(Collections.reverseOrder());
+    }
+
+    // Registra o elemento (ou atualiza sua contagem, se já existir).
+    synchronized void update(T element, long count) {
+        Long previous = counts.put(element, count);
+        if (previous != null) {
+            if (previous == count) {
+                return;
+            }
+            removeFromBucket(element, previous);
+        }
+        buckets.computeIfAbsent(count, c -> new LinkedHashSet<>()).add(element);
+    }
+
+    synchronized void increment(T element) {
+        update(element, countOf(element) + 1);
+    }
+
+    synchronized void remove(T element) {
+        Long previous = counts.remove(element);
+        if (previous != null) {
+            removeFromBucket(element, previous);
+        }
+    }
+
+    synchronized long countOf(T element) {
+        return counts.getOrDefault(element, 0L);
+    }
+
+    synchronized List<T> top(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limite não pode ser negativo.");
+        }
+        List<T> result = new ArrayList<>(Math.min(limit, counts.size()));
+        for (Set<T> bucket : buckets.values()) {
+            for (T element : bucket) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private void removeFromBucket(T element, long count) {
+        Set<T> bucket = buckets.get(count);
+        bucket.remove(element);
+        if (bucket.isEmpty()) {
+            buckets.remove(count);
+        }
+    }
+}
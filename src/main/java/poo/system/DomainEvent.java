@@ -0,0 +1,132 @@
+package poo.system;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+// Fato do domínio entregue pelo DomainEventPublisher aos sistemas externos (notificações, data warehouse,
+// auditoria). Imutável e completo: quem recebe não precisa consultar a Library.
+//
+// A sequência é única e crescente por publisher; um salto entre dois eventos recebidos indica eventos
+// descartados (OverflowPolicy.DROP_OLDEST, ou BLOCK/SPILL depois do limite de espera). Campos que não
+// se aplicam ao tipo ficam nulos ou 0.
+public final class DomainEvent {
+
+    public enum Type {
+        BORROWED,       // date = empréstimo, dueDate = vencimento
+        RETURNED,       // date = devolução
+        RENEWED,        // date = renovação, dueDate = novo vencimento
+        PENALTY_ISSUED, // penaltyId e amountCents; date = devolução que gerou a multa
+        PENALTY_PAID,   // penaltyId e amountCents; date = pagamento
+        HOLD_PLACED,    // holdId; date = reserva
+        HOLD_READY,     // holdId; date = separação do item, dueDate = prazo de retirada
+        HOLD_EXPIRED,   // holdId; date = expiração
+        HOLD_CANCELLED  // holdId; date = cancelamento
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final long sequence;
+    private final Type type;
+    private final long timestampMillis;
+    private final long borrowId;
+    private final String userCpf;
+    private final String itemId;
+    private final LocalDate date;
+    private final LocalDate dueDate;
+    private final long penaltyId;
+    private final long amountCents;
+    private final long holdId;
+
+    DomainEvent(long sequence, Type type, long timestampMillis, long borrowId, String userCpf, String itemId,
+                LocalDate date, LocalDate dueDate, long penaltyId, long amountCents, long holdId) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+        this.borrowId = borrowId;
+        this.userCpf = userCpf;
+        this.itemId = itemId;
+        this.date = date;
+        this.dueDate = dueDate;
+        this.penaltyId = penaltyId;
+        this.amountCents = amountCents;
+        this.holdId = holdId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    // ID do empréstimo (0 nos eventos de reserva); em texto com IdCodec.format (mesmo formato de Borrow.getBorrowId)
+    public long getBorrowId() {
+        return borrowId;
+    }
+
+    public String getUserCpf() {
+        return userCpf;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public long getPenaltyId() {
+        return penaltyId;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    // ID da reserva (HOLD_*), no mesmo formato de Hold.getHoldId
+    public long getHoldId() {
+        return holdId;
+    }
+
+    // Formato usado pelo arquivo de transbordo (OverflowPolicy.SPILL)
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(sequence);
+        out.writeByte(type.ordinal());
+        out.writeLong(timestampMillis);
+        out.writeLong(borrowId);
+        out.writeUTF(userCpf);
+        out.writeUTF(itemId);
+        StateCodec.writeDate(out, date);
+        StateCodec.writeDate(out, dueDate);
+        out.writeLong(penaltyId);
+        out.writeLong(amountCents);
+        out.writeLong(holdId);
+    }
+
+    static DomainEvent readFrom(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        Type type = TYPES[in.readByte()];
+        return new DomainEvent(sequence, type, in.readLong(), in.readLong(), in.readUTF(), in.readUTF(),
+                StateCodec.readDate(in), StateCodec.readDate(in), in.readLong(), in.readLong(), in.readLong());
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + (borrowId != 0 ? " empréstimo=" + IdCodec.format(borrowId) : "")
+                + (holdId != 0 ? " reserva=" + IdCodec.format(holdId) : "") + " cpf=" + userCpf + " item=" + itemId
+                + " data=" + date + (dueDate != null ? " vencimento=" + dueDate : "")
+                + (penaltyId != 0 ? " multa=" + IdCodec.format(penaltyId) + " centavos=" + amountCents : "");
+    }
+}
@@ -0,0 +1,309 @@
+package poo.system;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Publica os empréstimos, devoluções, renovações, multas e reservas da biblioteca como um Flow.Publisher de
+// DomainEvent (ver Library.setEventPublisher). Só eventos publicados depois da assinatura são entregues.
+//
+// Os eventos vão para um único buffer circular sem locks, compartilhado por todos os assinantes: cada
+// operação reserva uma sequência (getAndIncrement), grava o evento no slot e avisa os assinantes que
+// estão esperando. Cada assinante tem sua própria posição de leitura e sua própria demanda (request), e
+// recebe os eventos numa tarefa do Executor, então um assinante lento não atrasa os demais. Quando um
+// assinante fica 'capacity' eventos para trás vale a sua OverflowPolicy:
+//     BLOCK        a operação da biblioteca espera o assinante, por até MAX_BLOCK_NANOS; depois disso o
+//                  assinante passa a perder os eventos mais antigos, como em DROP_OLDEST, até alcançar
+//                  o buffer de novo (ver getBlockTimeouts e getDroppedEvents)
+//     DROP_OLDEST  o slot é sobrescrito; o assinante pula para o evento mais antigo ainda no buffer
+//     SPILL        a partir de meio buffer de atraso, uma tarefa do Executor move os eventos atrasados
+//                  para um arquivo temporário, e o assinante os recebe de lá antes dos que estão no buffer
+//                  (se o arquivo não acompanhar, vale o mesmo limite de espera de BLOCK)
+//
+// A Library registra os eventos com os locks do usuário e do item obtidos, mas ali só é reservada a
+// sequência (mantendo a ordem das operações em cada item); a gravação no buffer, e qualquer espera por
+// assinantes, acontece em publishPending, depois de os locks serem liberados (junto com o commit do
+// journal). Sem assinantes registrar não faz nada.
+public final class DomainEventPublisher implements Flow.Publisher<DomainEvent>, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final long MAX_BLOCK_NANOS = 10_000_000; // Espera máxima de uma operação por assinantes BLOCK/SPILL
+
+    // Eventos com sequência reservada por esta thread e ainda não gravados no buffer
+    private static final ThreadLocal<ArrayList<PendingEvent>> PENDING = ThreadLocal.withInitial(ArrayList::new);
+
+    private static final class PendingEvent {
+        private final DomainEventPublisher publisher;
+        private final DomainEvent event;
+
+        private PendingEvent(DomainEventPublisher publisher, DomainEvent event) {
+            this.publisher = publisher;
+            this.event = event;
+        }
+    }
+
+    private final AtomicReferenceArray<DomainEvent> slots;
+    private final int mask;
+    private final AtomicLong claimed; // Próxima sequência a reservar
+    private final CopyOnWriteArrayList<EventSubscription> subscriptions;
+    private final OverflowPolicy defaultPolicy;
+    private final Executor executor;
+    private final Path spillDirectory;
+    private final LongAdder droppedEvents;
+    private final LongAdder spilledEvents;
+    private final LongAdder blockTimeouts;
+    private volatile boolean closed;
+
+    // Buffer de DEFAULT_CAPACITY eventos, DROP_OLDEST (as operações nunca esperam assinantes), tarefas no
+    // ForkJoinPool comum e transbordo no diretório temporário
+    public DomainEventPublisher() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST, ForkJoinPool.commonPool(), Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public DomainEventPublisher(int capacity, OverflowPolicy defaultPolicy, Executor executor, Path spillDirectory) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacidade do buffer deve ser uma potência de 2.");
+        }
+        if (defaultPolicy == null || executor == null || spillDirectory == null) {
+            throw new IllegalArgumentException("Política, executor e diretório de transbordo não podem ser nulos.");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.claimed = new AtomicLong();
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.defaultPolicy = defaultPolicy;
+        this.executor = executor;
+        this.spillDirectory = spillDirectory;
+        this.droppedEvents = new LongAdder();
+        this.spilledEvents = new LongAdder();
+        this.blockTimeouts = new LongAdder();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DomainEvent> subscriber) {
+        subscribe(subscriber, defaultPolicy);
+    }
+
+    public void subscribe(Flow.Subscriber<? super DomainEvent> subscriber, OverflowPolicy policy) {
+        if (subscriber == null) {
+            throw new NullPointerException("Assinante não pode ser nulo."); // Exigido pela especificação de Flow
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Política não pode ser nula.");
+        }
+        EventSubscription subscription;
+        try {
+            subscription = new EventSubscription(this, subscriber, policy);
+        } catch (IOException e) {
+            subscriber.onSubscribe(EventSubscription.NONE);
+            subscriber.onError(new IllegalStateException("Não foi possível criar o arquivo de transbordo: " + e.getMessage(), e));
+            return;
+        }
+        subscriber.onSubscribe(subscription);
+        subscription.start(claimed.get());
+        subscriptions.add(subscription);
+        subscription.signal();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getPublishedEvents() {
+        return claimed.get();
+    }
+
+    // Eventos que algum assinante DROP_OLDEST deixou de receber (somados entre os assinantes)
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    public long getSpilledEvents() {
+        return spilledEvents.sum();
+    }
+
+    // Vezes em que um assinante BLOCK/SPILL atrasou uma operação por MAX_BLOCK_NANOS e passou a perder eventos
+    public long getBlockTimeouts() {
+        return blockTimeouts.sum();
+    }
+
+    // Para de publicar; cada assinante recebe os eventos pendentes e depois onComplete
+    @Override
+    public void close() {
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    void recordBorrow(Borrow borrow, String itemId) {
+        publish(DomainEvent.Type.BORROWED, borrow.getId(), borrow.getUser().getCPF(), itemId,
+                borrow.getBorrowDate(), borrow.getDueDate(), 0, 0, 0);
+    }
+
+    void recordReturn(Borrow borrow, String itemId, Penalty penalty) {
+        String userCpf = borrow.getUser().getCPF();
+        publish(DomainEvent.Type.RETURNED, borrow.getId(), userCpf, itemId, borrow.getReturnDate(), null, 0, 0, 0);
+        if (penalty != null) {
+            publish(DomainEvent.Type.PENALTY_ISSUED, borrow.getId(), userCpf, itemId, borrow.getReturnDate(), null,
+                    penalty.getId(), penalty.getAmountCents(), 0);
+        }
+    }
+
+    void recordRenew(Borrow borrow, String itemId, LocalDate renewalDate) {
+        publish(DomainEvent.Type.RENEWED, borrow.getId(), borrow.getUser().getCPF(), itemId, renewalDate, borrow.getDueDate(), 0, 0, 0);
+    }
+
+    void recordPayPenalty(Penalty penalty, String itemId) {
+        Borrow borrow = penalty.getBorrow();
+        publish(DomainEvent.Type.PENALTY_PAID, borrow.getId(), borrow.getUser().getCPF(), itemId, penalty.getPaidDate(), null,
+                penalty.getId(), penalty.getAmountCents(), 0);
+    }
+
+    // 'type' é um dos HOLD_*; em HOLD_READY o vencimento é o prazo de retirada
+    void recordHold(DomainEvent.Type type, Hold hold, LocalDate date) {
+        publish(type, 0, hold.getUser().getCPF(), hold.getItemId(), date,
+                type == DomainEvent.Type.HOLD_READY ? hold.getPickupDeadline() : null, 0, 0, hold.getId());
+    }
+
+    // Reserva a sequência (chamado sob os locks da operação); o evento vai para o buffer em publishPending
+    private void publish(DomainEvent.Type type, long borrowId, String userCpf, String itemId, LocalDate date, LocalDate dueDate,
+                         long penaltyId, long amountCents, long holdId) {
+        if (closed || subscriptions.isEmpty()) {
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        PENDING.get().add(new PendingEvent(this, new DomainEvent(sequence, type, System.currentTimeMillis(), borrowId, userCpf,
+                itemId, date, dueDate, penaltyId, amountCents, holdId)));
+    }
+
+    // Grava no buffer os eventos registrados pela thread atual, em qualquer publisher. A Library chama depois
+    // de liberar os locks da operação. Toda sequência reservada precisa ser gravada: os assinantes esperam
+    // por ela para seguir adiante.
+    static void publishPending() {
+        ArrayList<PendingEvent> pending = PENDING.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            for (PendingEvent entry : pending) {
+                entry.publisher.write(entry.event);
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private void write(DomainEvent event) {
+        long sequence = event.getSequence();
+        awaitCapacity(sequence);
+        int index = (int) sequence & mask;
+        awaitPreviousLap(index, sequence);
+        slots.set(index, event);
+        for (EventSubscription subscription : subscriptions) {
+            subscription.onPublished(sequence);
+        }
+    }
+
+    // BLOCK e SPILL: espera o assinante mais atrasado liberar o slot desta sequência, por até MAX_BLOCK_NANOS.
+    // Depois disso os assinantes que ainda seguram o slot deixam de segurar o buffer até alcançá-lo.
+    private void awaitCapacity(long sequence) {
+        long start = 0;
+        for (int attempt = 0; sequence - slowestGatingCursor() >= slots.length(); attempt++) {
+            if (attempt == 0) {
+                start = System.nanoTime();
+            } else if (System.nanoTime() - start >= MAX_BLOCK_NANOS) {
+                for (EventSubscription subscription : subscriptions) {
+                    if (subscription.gatesPublisher() && sequence - subscription.cursor() >= slots.length()) {
+                        subscription.stopGating();
+                        blockTimeouts.increment();
+                    }
+                }
+                return;
+            }
+            backOff(attempt);
+        }
+    }
+
+    // Com assinantes DROP_OLDEST duas voltas do buffer podem disputar o mesmo slot: a mais nova só
+    // grava depois da anterior, para o slot nunca voltar a um evento mais antigo
+    private void awaitPreviousLap(int index, long sequence) {
+        if (sequence < slots.length()) {
+            return;
+        }
+        for (int attempt = 0; ; attempt++) {
+            DomainEvent previous = slots.get(index);
+            if (previous != null && previous.getSequence() >= sequence - slots.length()) {
+                return;
+            }
+            backOff(attempt);
+        }
+    }
+
+    private long slowestGatingCursor() {
+        long slowest = Long.MAX_VALUE;
+        for (EventSubscription subscription : subscriptions) {
+            if (subscription.gatesPublisher()) {
+                slowest = Math.min(slowest, subscription.cursor());
+            }
+        }
+        return slowest;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < 100) {
+            Thread.onSpinWait();
+        } else if (attempt < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(10_000);
+        }
+    }
+
+    // Evento gravado no slot da sequência (pode ser de outra volta do buffer, ou nulo)
+    DomainEvent eventAt(long sequence) {
+        return slots.get((int) sequence & mask);
+    }
+
+    long claimedSequence() {
+        return claimed.get();
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    Path spillDirectory() {
+        return spillDirectory;
+    }
+
+    void recordDropped(long count) {
+        droppedEvents.add(count);
+    }
+
+    void recordSpilled(long count) {
+        spilledEvents.add(count);
+    }
+
+    void remove(EventSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+}
@@ -0,0 +1,81 @@
+package poo.system;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Empréstimos em aberto agrupados por data de vencimento, em ordem crescente.
+// Consultas de atraso percorrem apenas os dias já vencidos.
+// Os métodos são sincronizados: o índice é compartilhado por todos os atendentes.
+// Cada dia guarda os próprios objetos Borrow (hash por identidade), sem chave de ID.
+class DueDateIndex {
+
+    private final NavigableMap<LocalDate, Set<Borrow>> borrowsByDueDate;
+
+    DueDateIndex() {
+        this.borrowsByDueDate = new TreeMap<>();
+    }
+
+    synchronized void add(Borrow borrow) {
+        borrowsByDueDate.computeIfAbsent(borrow.getDueDate(), d -> new LinkedHashSet<>()).add(borrow);
+    }
+
+    synchronized void remove(Borrow borrow) {
+        remove(borrow, borrow.getDueDate());
+    }
+
+    // Deve ser chamado depois de alterar a data de vencimento do empréstimo.
+    synchronized void reschedule(Borrow borrow, LocalDate previousDueDate) {
+        remove(borrow, previousDueDate);
+        add(borrow);
+    }
+
+    // Empréstimos vencidos antes de 'today', do mais antigo para o mais recente.
+    synchronized List<Borrow> overdue(LocalDate today) {
+        return flatten(borrowsByDueDate.headMap(today, false));
+    }
+
+    synchronized int size() {
+        int count = 0;
+        for (Set<Borrow> bucket : borrowsByDueDate.values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    // Quantidade de empréstimos vencidos antes de 'today', sem montar a lista
+    synchronized int countOverdue(LocalDate today) {
+        int count = 0;
+        for (Set<Borrow> bucket : borrowsByDueDate.headMap(today, false).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    // Empréstimos que vencem entre 'today' e 'today + days', inclusive.
+    synchronized List<Borrow> dueWithin(LocalDate today, int days) {
+        return flatten(borrowsByDueDate.subMap(today, true, today.plusDays(days), true));
+    }
+
+    private void remove(Borrow borrow, LocalDate dueDate) {
+        Set<Borrow> bucket = borrowsByDueDate.get(dueDate);
+        if (bucket != null) {
+            bucket.remove(borrow);
+            if (bucket.isEmpty()) {
+                borrowsByDueDate.remove(dueDate);
+            }
+        }
+    }
+
+    private static List<Borrow> flatten(NavigableMap<LocalDate, Set<Borrow>> range) {
+        List<Borrow> result = new ArrayList<>();
+        for (Set<Borrow> bucket : range.values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+}
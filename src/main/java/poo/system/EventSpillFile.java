@@ -0,0 +1,79 @@
+package poo.system;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Fila em disco de um assinante com OverflowPolicy.SPILL: eventos são acrescentados no fim e lidos do
+// início, na mesma ordem. Quando tudo o que foi escrito já foi lido, o arquivo volta a ficar vazio.
+// Não é thread-safe: usada sob o lock da assinatura.
+final class EventSpillFile implements Closeable {
+
+    private final Path path;
+    private DataOutputStream out; // Nulo com a fila vazia
+    private DataInputStream in; // Aberto na primeira leitura depois de esvaziar
+    private long written;
+    private long read;
+
+    EventSpillFile(Path directory) throws IOException {
+        this.path = Files.createTempFile(directory, "eventos-", ".spill");
+        path.toFile().deleteOnExit();
+    }
+
+    boolean isEmpty() {
+        return read == written;
+    }
+
+    long size() {
+        return written - read;
+    }
+
+    void append(DomainEvent event) throws IOException {
+        if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile()), 64 * 1024));
+        }
+        event.writeTo(out);
+        written++;
+    }
+
+    // Próximo evento da fila; a fila não pode estar vazia
+    DomainEvent next() throws IOException {
+        if (in == null) {
+            out.flush();
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(path.toFile()), 64 * 1024));
+        } else if (out != null) {
+            out.flush(); // Torna visíveis os eventos acrescentados depois da abertura
+        }
+        DomainEvent event = DomainEvent.readFrom(in);
+        if (++read == written) {
+            reset();
+        }
+        return event;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reset();
+        Files.deleteIfExists(path);
+    }
+
+    private void reset() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        written = 0;
+        read = 0;
+    }
+}
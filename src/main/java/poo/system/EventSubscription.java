@@ -0,0 +1,274 @@
+package poo.system;
+
+import java.io.IOException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Assinatura de um DomainEventPublisher: posição de leitura no buffer, demanda e, com SPILL, o arquivo
+// de transbordo. Os sinais ao assinante (onNext, onError, onComplete) saem sempre da tarefa de entrega,
+// uma de cada vez; o transbordo roda em outra tarefa, para continuar mesmo com onNext demorando.
+//
+// A leitura do buffer e do arquivo é feita sob o lock desta assinatura, mas onNext é chamado fora dele.
+//
+// Os produtores só agendam a entrega quando ela não está rodando. Sem eventos novos, a tarefa de entrega
+// espera um pouco antes de terminar (a espera dobra a cada volta até MAX_IDLE_NANOS, como a thread de
+// escrita do EventLog), então com eventos chegando continuamente ela não precisa ser reagendada a cada um.
+final class EventSubscription implements Flow.Subscription {
+
+    private static final long MIN_IDLE_NANOS = 1_000;
+    private static final long MAX_IDLE_NANOS = 1_000_000;
+
+    // Entregue a assinantes que não puderam ser registrados
+    static final Flow.Subscription NONE = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final DomainEventPublisher publisher;
+    private final Flow.Subscriber<? super DomainEvent> subscriber;
+    private final OverflowPolicy policy;
+    private final EventSpillFile spill; // Nulo fora de SPILL
+    private final int spillThreshold; // Atraso a partir do qual os eventos vão para o arquivo
+    private final AtomicLong demand;
+    private final AtomicBoolean deliveryScheduled;
+    private final AtomicBoolean spillScheduled;
+    private volatile long cursor; // Próxima sequência a ler do buffer; alterada sob o lock
+    private volatile long spilledPending; // Eventos no arquivo ainda não entregues
+    private volatile boolean started;
+    private volatile boolean cancelled;
+    private volatile boolean lapped; // Atrasou o publisher além de MAX_BLOCK_NANOS: perde eventos até alcançar o buffer
+    private volatile Throwable pendingError; // Erro a entregar pela tarefa de entrega
+    private boolean terminated; // Apenas na tarefa de entrega
+
+    EventSubscription(DomainEventPublisher publisher, Flow.Subscriber<? super DomainEvent> subscriber, OverflowPolicy policy) throws IOException {
+        this.publisher = publisher;
+        this.subscriber = subscriber;
+        this.policy = policy;
+        this.spill = policy == OverflowPolicy.SPILL ? new EventSpillFile(publisher.spillDirectory()) : null;
+        this.spillThreshold = publisher.capacity() / 2;
+        this.demand = new AtomicLong();
+        this.deliveryScheduled = new AtomicBoolean();
+        this.spillScheduled = new AtomicBoolean();
+    }
+
+    // A partir daqui o assinante recebe os eventos de sequência >= 'firstSequence'
+    void start(long firstSequence) {
+        cursor = firstSequence;
+        started = true;
+    }
+
+    long cursor() {
+        return cursor;
+    }
+
+    boolean gatesPublisher() {
+        return policy != OverflowPolicy.DROP_OLDEST && !cancelled && !lapped;
+    }
+
+    // Chamado pelo publisher quando a espera por este assinante passa de MAX_BLOCK_NANOS
+    void stopGating() {
+        lapped = true;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            // Regra 3.9 de Flow: o erro é entregue pela tarefa de entrega, depois de qualquer onNext em andamento
+            pendingError = new IllegalArgumentException("A quantidade pedida deve ser positiva: " + n);
+            cancelled = true;
+            publisher.remove(this);
+        } else {
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        }
+        signal();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        publisher.remove(this);
+        signal();
+    }
+
+    // Chamado pelo produtor depois de publicar 'sequence'
+    void onPublished(long sequence) {
+        if (demand.get() > 0 && !deliveryScheduled.get()) {
+            signal();
+        }
+        if (spill != null && sequence - cursor >= spillThreshold && !spillScheduled.get() && spillScheduled.compareAndSet(false, true)) {
+            publisher.executor().execute(this::spillBacklog);
+        }
+    }
+
+    // Agenda a tarefa de entrega, se ainda não estiver agendada
+    void signal() {
+        if (started && deliveryScheduled.compareAndSet(false, true)) {
+            publisher.executor().execute(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        long idleNanos = MIN_IDLE_NANOS;
+        while (true) {
+            if (deliverNext()) {
+                idleNanos = MIN_IDLE_NANOS;
+                continue;
+            }
+            if (!terminated && idleNanos <= MAX_IDLE_NANOS && demand.get() > 0 && !publisher.isClosed()) {
+                LockSupport.parkNanos(idleNanos);
+                idleNanos *= 2;
+                continue;
+            }
+            deliveryScheduled.set(false);
+            // Um sinal pode ter chegado depois da última verificação
+            if (!hasWork() || !deliveryScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            idleNanos = MIN_IDLE_NANOS;
+        }
+    }
+
+    // Retorna false quando não há mais nada a fazer por enquanto
+    private boolean deliverNext() {
+        if (terminated) {
+            return false;
+        }
+        Throwable error = pendingError;
+        if (error != null) {
+            terminate();
+            subscriber.onError(error);
+            return false;
+        }
+        if (cancelled) {
+            terminate();
+            return false;
+        }
+        if (demand.get() > 0) {
+            DomainEvent event;
+            try {
+                event = takeNext();
+            } catch (IOException e) {
+                terminate();
+                subscriber.onError(new IllegalStateException("Falha ao ler eventos do arquivo de transbordo: " + e.getMessage(), e));
+                return false;
+            }
+            if (event != null) {
+                demand.decrementAndGet();
+                try {
+                    subscriber.onNext(event);
+                } catch (RuntimeException e) {
+                    terminate();
+                    subscriber.onError(e);
+                    return false;
+                }
+                return true;
+            }
+        }
+        if (publisher.isClosed() && isDrained()) {
+            terminate();
+            subscriber.onComplete();
+        }
+        return false;
+    }
+
+    private boolean hasWork() {
+        if (terminated) {
+            return false;
+        }
+        if (pendingError != null || cancelled || (publisher.isClosed() && isDrained())) {
+            return true;
+        }
+        return demand.get() > 0 && (spilledPending > 0 || isPublished(publisher.eventAt(cursor), cursor));
+    }
+
+    private boolean isDrained() {
+        return spilledPending == 0 && cursor >= publisher.claimedSequence();
+    }
+
+    // O slot já tem o evento da sequência (ou um mais novo, se ele foi sobrescrito)
+    private static boolean isPublished(DomainEvent event, long sequence) {
+        return event != null && event.getSequence() >= sequence;
+    }
+
+    private synchronized DomainEvent takeNext() throws IOException {
+        if (spilledPending > 0) {
+            DomainEvent event = spill.next();
+            spilledPending--;
+            return event;
+        }
+        return takeFromBuffer();
+    }
+
+    private DomainEvent takeFromBuffer() {
+        while (true) {
+            long sequence = cursor;
+            DomainEvent event = publisher.eventAt(sequence);
+            if (!isPublished(event, sequence)) {
+                return null;
+            }
+            if (event.getSequence() == sequence) {
+                cursor = sequence + 1;
+                if (lapped && publisher.claimedSequence() - cursor < spillThreshold) {
+                    lapped = false; // Alcançou o buffer: volta a segurar o publisher
+                }
+                return event;
+            }
+            // Sobrescrito (DROP_OLDEST, ou depois de um limite de espera): pula para o evento mais antigo que
+            // ainda pode estar no buffer
+            long oldest = Math.max(sequence + 1, publisher.claimedSequence() - publisher.capacity());
+            publisher.recordDropped(oldest - sequence);
+            cursor = oldest;
+        }
+    }
+
+    // Move para o arquivo os eventos atrasados, liberando o buffer para os produtores
+    private void spillBacklog() {
+        while (true) {
+            synchronized (this) {
+                if (!cancelled) {
+                    try {
+                        long moved = 0;
+                        for (DomainEvent event = takeFromBuffer(); event != null; event = takeFromBuffer()) {
+                            spill.append(event);
+                            moved++;
+                        }
+                        spilledPending += moved;
+                        publisher.recordSpilled(moved);
+                    } catch (IOException e) {
+                        pendingError = new IllegalStateException("Falha ao gravar eventos no arquivo de transbordo: " + e.getMessage(), e);
+                        cancelled = true;
+                        publisher.remove(this);
+                    }
+                }
+            }
+            spillScheduled.set(false);
+            signal();
+            if (cancelled || publisher.claimedSequence() - cursor < spillThreshold || !spillScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        cancelled = true;
+        publisher.remove(this);
+        if (spill != null) {
+            synchronized (this) {
+                try {
+                    spill.close();
+                } catch (IOException e) {
+                    // O arquivo temporário também é apagado ao fim da JVM
+                }
+                spilledPending = 0;
+            }
+        }
+    }
+}
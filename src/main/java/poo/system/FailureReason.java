@@ -0,0 +1,31 @@
+package poo.system;
+
+// Motivos pelos quais uma operação de empréstimo, devolução, renovação, reserva ou pagamento pode ser recusada.
+public enum FailureReason {
+    USER_NOT_FOUND("Usuário não encontrado"),
+    USER_BLOCKED("Usuário bloqueado devido multas"),
+    QUOTA_EXCEEDED("Limite de empréstimos do usuário atingido"),
+    ITEM_NOT_FOUND("Item não encontrado"),
+    ITEM_UNAVAILABLE("Item não disponível"),
+    ITEM_RESERVED("Item reservado para outro usuário"),
+    NOT_BORROWABLE("Item não é alugável"),
+    BORROW_NOT_FOUND("Empréstimo ativo não encontrado"),
+    ALREADY_RETURNED("Empréstimo já devolvido"),
+    ALREADY_RENEWED("Empréstimo já renovado"),
+    OVERDUE("Empréstimo atrasado"),
+    PENALTY_NOT_FOUND("Multa pendente não encontrada"),
+    HOLD_ITEM_AVAILABLE("Item disponível para empréstimo, não precisa de reserva"),
+    HOLD_DUPLICATE("Usuário já reservou ou está com o item"),
+    HOLD_NOT_FOUND("Reserva ativa não encontrada"),
+    BATCH_ABORTED("Lote cancelado por falha em outro item");
+
+    private final String description;
+
+    FailureReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,99 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.LibraryItem;
+import java.time.LocalDate;
+
+// Reserva de um item indisponível (ver Library.placeHold). A reserva espera na fila do item (WAITING);
+// quando o item é devolvido ela pode ser atendida (READY): o item fica separado para o usuário até
+// getPickupDeadline(), inclusive. Depois disso a reserva é encerrada: FULFILLED (o usuário pegou o
+// item), EXPIRED (não pegou no prazo) ou CANCELLED.
+public class Hold {
+
+    public static final int PICKUP_DAYS = 3; // Prazo para retirar um item separado
+
+    public enum Status {
+        WAITING, READY, FULFILLED, EXPIRED, CANCELLED;
+
+        public boolean isActive() {
+            return this == WAITING || this == READY;
+        }
+    }
+
+    private final long holdId; // Ver IdGenerator; em texto apenas em getHoldId()
+    private final User user;
+    private final String itemId;
+    private final LibraryItem item;
+    private final LocalDate placedDate;
+    private volatile Status status;
+    private volatile LocalDate readyDate; // Nulo enquanto espera na fila
+    private volatile LocalDate pickupDeadline;
+
+    Hold(long holdId, User user, String itemId, LibraryItem item, LocalDate placedDate) {
+        if (user == null || itemId == null || item == null || placedDate == null) {
+            throw new IllegalArgumentException("Parâmetros da reserva não podem ser nulos.");
+        }
+        this.holdId = holdId;
+        this.user = user;
+        this.itemId = itemId;
+        this.item = item;
+        this.placedDate = placedDate;
+        this.status = Status.WAITING;
+    }
+
+    public String getHoldId() {
+        return IdCodec.format(holdId);
+    }
+
+    public long getId() {
+        return holdId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public LibraryItem getItem() {
+        return item;
+    }
+
+    public LocalDate getPlacedDate() {
+        return placedDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDate getReadyDate() {
+        return readyDate;
+    }
+
+    public LocalDate getPickupDeadline() {
+        return pickupDeadline;
+    }
+
+    void markReady(LocalDate readyDate, LocalDate pickupDeadline) {
+        this.readyDate = readyDate;
+        this.pickupDeadline = pickupDeadline;
+        this.status = Status.READY;
+    }
+
+    void close(Status finalStatus) {
+        this.status = finalStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "Reserva ID: " + getHoldId() +
+                ", Usuário: " + user.getName() +
+                ", Item: " + item.getTitle() +
+                ", Data: " + placedDate +
+                ", Situação: " + status +
+                (status == Status.READY ? ", Retirar até: " + pickupDeadline : "");
+    }
+}
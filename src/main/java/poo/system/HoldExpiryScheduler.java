@@ -0,0 +1,49 @@
+package poo.system;
+
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Chama Library.expireHolds periodicamente numa thread daemon: reservas separadas e não retiradas no
+// prazo expiram, e o item passa ao próximo da fila. A primeira execução é imediata (prazos que venceram
+// com a aplicação fechada). Uma falha é registrada no log e a próxima execução acontece normalmente.
+public final class HoldExpiryScheduler implements Closeable {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+    private final ScheduledExecutorService executor;
+
+    public HoldExpiryScheduler(Library library) {
+        this(library, DEFAULT_INTERVAL);
+    }
+
+    public HoldExpiryScheduler(Library library, Duration interval) {
+        if (library == null || interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Biblioteca e intervalo positivo são obrigatórios.");
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "library-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> expire(library), 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void expire(Library library) {
+        try {
+            library.expireHolds();
+        } catch (RuntimeException e) {
+            EventLog.log(LibraryEvent.HOLD_EXPIRY_FAILED, e.getMessage());
+        }
+    }
+
+    // Interrompe as execuções futuras (uma em andamento termina normalmente)
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,215 @@
+package poo.system;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+// Reservas ativas: a fila de cada item (ordem de chegada), as reservas atendidas de cada item (uma por
+// exemplar separado), as reservas atendidas por prazo de retirada e as reservas de cada usuário.
+// Entrar na fila, sair dela (em qualquer posição) e localizar uma reserva são O(1); as filas são
+// LinkedHashSet, então a ordem de chegada é mantida sem custo de remoção. A expiração percorre apenas
+// os prazos já vencidos, como o DueDateIndex. Os métodos são sincronizados.
+class HoldQueues {
+
+    private final LongHashMap<Hold> activeById;
+    private final Map<String, Set<Hold>> waitingByItem; // ID do item -> fila
+    private final Map<String, Set<Hold>> readyByItem; // ID do item -> reservas atendidas aguardando retirada
+    private final NavigableMap<LocalDate, Set<Hold>> readyByDeadline;
+    private final Map<String, Set<Hold>> activeByUser; // CPF -> reservas ativas
+    private volatile int activeCount; // Lido sem lock para evitar o monitor quando não há reservas
+
+    HoldQueues() {
+        this.activeById = new LongHashMap<>();
+        this.waitingByItem = new HashMap<>();
+        this.readyByItem = new HashMap<>();
+        this.readyByDeadline = new TreeMap<>();
+        this.activeByUser = new HashMap<>();
+    }
+
+    boolean isEmpty() {
+        return activeCount == 0;
+    }
+
+    // Coloca a reserva no fim da fila do item. Retorna a posição dela na fila (1 = próxima).
+    synchronized int enqueue(Hold hold) {
+        Set<Hold> queue = waitingByItem.computeIfAbsent(hold.getItemId(), k -> new LinkedHashSet<>());
+        queue.add(hold);
+        index(hold);
+        return queue.size();
+    }
+
+    // Reserva já atendida (recuperação do snapshot)
+    synchronized void addReady(Hold hold) {
+        readyByItem.computeIfAbsent(hold.getItemId(), k -> new LinkedHashSet<>()).add(hold);
+        readyByDeadline.computeIfAbsent(hold.getPickupDeadline(), d -> new LinkedHashSet<>()).add(hold);
+        index(hold);
+    }
+
+    synchronized Hold find(long holdId) {
+        return activeById.get(holdId);
+    }
+
+    // Reserva ativa do usuário para o item, ou null
+    synchronized Hold activeHold(String userCpf, String itemId) {
+        Set<Hold> userHolds = activeByUser.get(userCpf);
+        if (userHolds != null) {
+            for (Hold hold : userHolds) {
+                if (hold.getItemId().equals(itemId)) {
+                    return hold;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Exemplares do item separados para retirada
+    synchronized int readyCount(String itemId) {
+        Set<Hold> ready = readyByItem.get(itemId);
+        return ready == null ? 0 : ready.size();
+    }
+
+    synchronized int waitingCount(String itemId) {
+        Set<Hold> queue = waitingByItem.get(itemId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    // Itens separados para o usuário e ainda não retirados (contam no limite de empréstimos dele)
+    synchronized int readyCountOf(String userCpf) {
+        Set<Hold> userHolds = activeByUser.get(userCpf);
+        int count = 0;
+        if (userHolds != null) {
+            for (Hold hold : userHolds) {
+                if (hold.getStatus() == Hold.Status.READY) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Atende a primeira reserva da fila que passar em 'eligible'; as recusadas mantêm a posição.
+    // Quem chama garante que há um exemplar livre ainda não separado.
+    // Retorna a reserva atendida, ou null se ninguém da fila puder retirar o item agora.
+    synchronized Hold allocate(String itemId, Predicate<Hold> eligible, LocalDate readyDate, LocalDate pickupDeadline) {
+        Set<Hold> queue = waitingByItem.get(itemId);
+        if (queue == null) {
+            return null;
+        }
+        for (Iterator<Hold> it = queue.iterator(); it.hasNext(); ) {
+            Hold hold = it.next();
+            if (eligible.test(hold)) {
+                it.remove();
+                if (queue.isEmpty()) {
+                    waitingByItem.remove(itemId);
+                }
+                hold.markReady(readyDate, pickupDeadline);
+                addReady(hold); // Indexa de novo a mesma reserva (mapas e conjuntos não duplicam)
+                return hold;
+            }
+        }
+        return null;
+    }
+
+    // Tira a reserva de todos os índices com a situação final
+    synchronized void close(Hold hold, Hold.Status finalStatus) {
+        if (hold.getStatus() == Hold.Status.READY) {
+            Set<Hold> ready = readyByItem.get(hold.getItemId());
+            if (ready != null) {
+                ready.remove(hold);
+                if (ready.isEmpty()) {
+                    readyByItem.remove(hold.getItemId());
+                }
+            }
+            Set<Hold> bucket = readyByDeadline.get(hold.getPickupDeadline());
+            if (bucket != null) {
+                bucket.remove(hold);
+                if (bucket.isEmpty()) {
+                    readyByDeadline.remove(hold.getPickupDeadline());
+                }
+            }
+        } else {
+            Set<Hold> queue = waitingByItem.get(hold.getItemId());
+            if (queue != null) {
+                queue.remove(hold);
+                if (queue.isEmpty()) {
+                    waitingByItem.remove(hold.getItemId());
+                }
+            }
+        }
+        activeById.remove(hold.getId());
+        Set<Hold> userHolds = activeByUser.get(hold.getUser().getCPF());
+        if (userHolds != null) {
+            userHolds.remove(hold);
+            if (userHolds.isEmpty()) {
+                activeByUser.remove(hold.getUser().getCPF());
+            }
+        }
+        hold.close(finalStatus);
+        activeCount = activeById.size();
+    }
+
+    // Reservas atendidas cujo prazo de retirada terminou antes de 'today'
+    synchronized List<Hold> expired(LocalDate today) {
+        List<Hold> result = new ArrayList<>();
+        for (Set<Hold> bucket : readyByDeadline.headMap(today, false).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    // Itens com fila; quem chama confere se algum exemplar livre ainda pode ser separado
+    synchronized List<String> itemsAwaitingAllocation() {
+        return new ArrayList<>(waitingByItem.keySet());
+    }
+
+    // Reservas ativas do item: as atendidas (se houver) e depois a fila, em ordem
+    synchronized List<Hold> holdsOf(String itemId) {
+        List<Hold> result = new ArrayList<>();
+        Set<Hold> ready = readyByItem.get(itemId);
+        if (ready != null) {
+            result.addAll(ready);
+        }
+        Set<Hold> queue = waitingByItem.get(itemId);
+        if (queue != null) {
+            result.addAll(queue);
+        }
+        return result;
+    }
+
+    synchronized List<Hold> holdsOfUser(String userCpf) {
+        Set<Hold> userHolds = activeByUser.get(userCpf);
+        return userHolds == null ? new ArrayList<>() : new ArrayList<>(userHolds);
+    }
+
+    // Todas as reservas ativas, item a item na ordem de holdsOf (snapshot)
+    synchronized List<Hold> all() {
+        List<Hold> result = new ArrayList<>(activeById.size());
+        for (Map.Entry<String, Set<Hold>> entry : readyByItem.entrySet()) {
+            result.addAll(entry.getValue());
+            Set<Hold> queue = waitingByItem.get(entry.getKey());
+            if (queue != null) {
+                result.addAll(queue);
+            }
+        }
+        for (Map.Entry<String, Set<Hold>> entry : waitingByItem.entrySet()) {
+            if (!readyByItem.containsKey(entry.getKey())) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void index(Hold hold) {
+        activeById.put(hold.getId(), hold);
+        activeByUser.computeIfAbsent(hold.getUser().getCPF(), k -> new LinkedHashSet<>()).add(hold);
+        activeCount = activeById.size();
+    }
+}
@@ -0,0 +1,56 @@
+package poo.system;
+
+import java.util.Arrays;
+
+// Representação em texto dos IDs de empréstimos e multas, usada só na borda da API (getBorrowId,
+// getPenaltyId, parâmetros de returnBorrow/renewBorrow/payPenalty).
+// 13 caracteres em base32 de Crockford (0-9 e letras sem I, L, O e U), com tamanho fixo: a ordem
+// alfabética dos textos é a mesma ordem numérica dos IDs. A leitura aceita letras minúsculas.
+public final class IdCodec {
+
+    public static final int LENGTH = 13;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+            VALUES[Character.toLowerCase(DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private IdCodec() {
+    }
+
+    public static String format(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID não pode ser negativo.");
+        }
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // Retorna -1 se o texto não for um ID válido
+    public static long parse(String text) {
+        if (text == null || text.length() != LENGTH) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < VALUES.length ? VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            id = (id << 5) | value;
+        }
+        // 13 dígitos têm 65 bits: o primeiro só pode usar os 3 bits que cabem num long positivo
+        return VALUES[text.charAt(0)] > 7 ? -1 : id;
+    }
+}
@@ -0,0 +1,17 @@
+package poo.system;
+
+// Gera os IDs de empréstimos e multas. Os IDs devem ser positivos (0 indica "sem ID") e únicos
+// dentro de uma Library; fora da biblioteca eles aparecem como texto (ver IdCodec).
+// O padrão é TimeOrderedIdGenerator; outro gerador pode ser passado em new Library(IdGenerator).
+public interface IdGenerator {
+
+    long nextId();
+
+    // Chamado para cada ID recuperado do journal/snapshot, para que os próximos IDs não repitam um já usado
+    default void advancePast(long id) {
+    }
+
+    static IdGenerator defaultGenerator() {
+        return TimeOrderedIdGenerator.SHARED;
+    }
+}
@@ -0,0 +1,100 @@
+package poo.system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Resultado de uma importação de catálogo: contagens, registros recusados e vazão.
+public final class ImportReport {
+
+    // Quantidade máxima de recusas guardadas com detalhes; as demais são apenas contadas
+    public static final int MAX_DETAILED_REJECTIONS = 1_000;
+
+    // Registro recusado, com a linha do arquivo e o motivo
+    public static final class Rejection {
+        private final long lineNumber;
+        private final String reason;
+
+        Rejection(long lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Linha " + lineNumber + ": " + reason;
+        }
+    }
+
+    private long recordsRead;
+    private long imported;
+    private long rejected;
+    private long elapsedNanos;
+    private final List<Rejection> rejections;
+
+    ImportReport() {
+        this.rejections = new ArrayList<>();
+    }
+
+    void recordRead(long count) {
+        recordsRead += count;
+    }
+
+    void recordImported(long count) {
+        imported += count;
+    }
+
+    void recordRejected(long lineNumber, String reason) {
+        rejected++;
+        if (rejections.size() < MAX_DETAILED_REJECTIONS) {
+            rejections.add(new Rejection(lineNumber, reason));
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : recordsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "recordsRead=" + recordsRead +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", recordsPerSecond=" + String.format("%.0f", getRecordsPerSecond()) +
+                '}';
+    }
+}
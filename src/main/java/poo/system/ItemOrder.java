@@ -0,0 +1,35 @@
+package poo.system;
+
+import poo.item.LibraryItem;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Critérios de ordenação de Library.itemView. Cada critério extrai uma chave de texto ou numérica de
+// cada item uma única vez, antes de ordenar, então empréstimos feitos durante a ordenação não a afetam.
+// Empates são desfeitos pelo ID do item.
+public enum ItemOrder {
+    ID(null, null),
+    TITLE(item -> item.getTitle().toLowerCase(Locale.ROOT), null),
+    AUTHOR(item -> item.getAuthor().toLowerCase(Locale.ROOT), null),
+    YEAR(null, LibraryItem::getPublicationYear),
+    TYPE(item -> item.getClass().getSimpleName(), null),
+    AVAILABILITY(null, item -> item.isAvailable() ? 0 : 1), // Disponíveis primeiro
+    BORROW_COUNT(null, LibraryItem::getBorrowCount);
+
+    private final Function<LibraryItem, String> textKey;
+    private final ToLongFunction<LibraryItem> numberKey;
+
+    ItemOrder(Function<LibraryItem, String> textKey, ToLongFunction<LibraryItem> numberKey) {
+        this.textKey = textKey;
+        this.numberKey = numberKey;
+    }
+
+    String textKeyOf(LibraryItem item) {
+        return textKey == null ? "" : textKey.apply(item);
+    }
+
+    long numberKeyOf(LibraryItem item) {
+        return numberKey == null ? 0 : numberKey.applyAsLong(item);
+    }
+}
@@ -0,0 +1,67 @@
+package poo.system;
+
+import poo.item.LibraryItem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Visão paginada do acervo numa ordem fixa (ver Library.itemView): guarda apenas os IDs dos itens,
+// na ordem calculada quando a visão foi criada. As páginas são lidas da Library na hora, então mostram
+// o estado atual de cada item (disponibilidade, empréstimos, dados alterados por updateItem).
+// Itens adicionados depois não aparecem; é preciso criar uma nova visão.
+public final class ItemView {
+
+    private final Library library;
+    private final String[] itemIds;
+    private final ItemOrder order;
+    private final boolean descending;
+    private final Map<String, Integer> positions; // ID do item -> posição, para localizar a linha de uma alteração
+
+    // Criada por Library.itemView, fora da thread da interface: o mapa de posições é montado aqui
+    ItemView(Library library, String[] itemIds, ItemOrder order, boolean descending) {
+        this.library = library;
+        this.itemIds = itemIds;
+        this.order = order;
+        this.descending = descending;
+        this.positions = new HashMap<>(itemIds.length * 4 / 3 + 1);
+        for (int i = 0; i < itemIds.length; i++) {
+            positions.put(itemIds[i], i);
+        }
+    }
+
+    public int size() {
+        return itemIds.length;
+    }
+
+    public ItemOrder getOrder() {
+        return order;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String itemIdAt(int index) {
+        return itemIds[index];
+    }
+
+    // Posição do item na visão, ou -1 se ele não faz parte dela (ex.: adicionado depois)
+    public int indexOf(String itemId) {
+        Integer position = positions.get(itemId);
+        return position == null ? -1 : position;
+    }
+
+    // Itens das posições [offset, offset + limit), limitados ao tamanho da visão
+    public List<LibraryItem> page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Posição e tamanho da página não podem ser negativos.");
+        }
+        int end = (int) Math.min(itemIds.length, (long) offset + limit);
+        List<LibraryItem> items = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = offset; i < end; i++) {
+            items.add(library.getItem(itemIds[i]));
+        }
+        return items;
+    }
+}
@@ -2,74 +2,217 @@ package poo.system;
 
 import poo.item.*;
 import poo.entity.*;
+import poo.log.EventLog;
+import poo.log.LibraryEvent;
+import poo.validation.IdentifierValidator;
+import java.io.Closeable;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-public class Library {
+// A biblioteca pode ser usada por vários atendentes (threads) ao mesmo tempo.
+// Operações que alteram um usuário e/ou um item obtêm os locks do usuário e do item,
+// sempre nessa ordem (usuário antes de item), o que evita deadlock entre operações.
+// Opcionalmente as alterações são gravadas num journal (ver LibraryJournal.openLibrary).
+public class Library implements Closeable {
+
+    private static final int LOCK_STRIPES = Runtime.getRuntime().availableProcessors() * 16;
 
     private final Map<String, User> users;
+    private final CountRanking<User> userRanking; // Total de empréstimos realizados por usuário
     private final Map<String, LibraryItem> libraryItems;
-    private final List<Borrow> activeBorrows;
-    private final List<Borrow> borrowHistory;
-    private final List<Penalty> pendingPenalties;
-    private final List<Penalty> paidPenalties;
+    private final CountRanking<LibraryItem> itemRanking; // Itens ordenados por número de empréstimos
+    private final SearchIndex searchIndex; // Palavras do título e do autor -> itens
+    private final CatalogIndex catalogIndex; // Itens por tipo, ano de publicação e disponibilidade
+    private final ConcurrentLongMap<Borrow> activeBorrows; // Empréstimos em aberto indexados pelo ID numérico
+    private final DueDateIndex dueDates; // Empréstimos em aberto ordenados por vencimento
+    private final Map<String, Integer> activeBorrowCounts; // Empréstimos em aberto por CPF
+    private final ClosedBorrowStore closedBorrows; // Empréstimos devolvidos, em colunas (ver User.getBorrowHistory)
+    private final PenaltyLedger penalties;
+    private final HoldQueues holds; // Filas de reserva dos itens emprestados
+    private final LockStripes userLocks; // Locks por CPF
+    private final LockStripes itemLocks; // Locks por ID de item
+    private final LibraryMetrics metrics;
+    private final IdGenerator idGenerator; // IDs de empréstimos, multas e reservas
+    private final ChangeFeed changes; // Avisos de alteração (ver addChangeListener)
+    private volatile LibraryJournal journal; // Nulo quando a biblioteca é apenas em memória
+    private volatile DomainEventPublisher eventPublisher; // Nulo quando nenhum sistema externo acompanha os eventos
+    private volatile boolean holdAllocation; // Desligado ao refazer o journal: as separações vêm dos registros
 
     public Library() {
-        this.users = new HashMap<>();
-        this.libraryItems = new HashMap<>();
-        this.activeBorrows = new ArrayList<>();
-        this.borrowHistory = new ArrayList<>();
-        this.pendingPenalties = new ArrayList<>();
-        this.paidPenalties = new ArrayList<>();
+        this(IdGenerator.defaultGenerator());
+    }
+
+    public Library(IdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Gerador de IDs não pode ser nulo.");
+        }
+        this.users = new ConcurrentHashMap<>();
+        this.userRanking = new CountRanking<>();
+        this.libraryItems = new ConcurrentHashMap<>();
+        this.itemRanking = new CountRanking<>();
+        this.searchIndex = new SearchIndex();
+        this.catalogIndex = new CatalogIndex();
+        this.activeBorrows = new ConcurrentLongMap<>(LOCK_STRIPES);
+        this.dueDates = new DueDateIndex();
+        this.activeBorrowCounts = new ConcurrentHashMap<>();
+        this.closedBorrows = new ClosedBorrowStore();
+        this.penalties = new PenaltyLedger();
+        this.holds = new HoldQueues();
+        this.holdAllocation = true;
+        this.userLocks = new LockStripes(LOCK_STRIPES);
+        this.itemLocks = new LockStripes(LOCK_STRIPES);
+        this.idGenerator = idGenerator;
+        this.changes = new ChangeFeed();
+        this.metrics = new LibraryMetrics(activeBorrows::size, () -> dueDates.countOverdue(LocalDate.now()), penalties::pendingCents,
+                closedBorrows::size, closedBorrows::heapBytes);
+    }
+
+    // Contadores, latências e indicadores da biblioteca (ver LibraryMetrics.registerMBeans para JMX)
+    public LibraryMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Avisa 'listener' de cada alteração feita daqui em diante (ver LibraryChangeListener)
+    public void addChangeListener(LibraryChangeListener listener) {
+        changes.addListener(listener);
+    }
+
+    public void removeChangeListener(LibraryChangeListener listener) {
+        changes.removeListener(listener);
+    }
+
+    // Passa a publicar empréstimos, devoluções, renovações, multas e reservas em 'publisher' (nulo desliga).
+    // Quem cria o publisher é quem o fecha.
+    public void setEventPublisher(DomainEventPublisher publisher) {
+        this.eventPublisher = publisher;
     }
 
     public boolean addItem(LibraryItem item) {
         if (item == null) {
-            System.err.println("Não pode adicionar um item nulo.");
+            EventLog.log(LibraryEvent.ITEM_NULL);
             return false;
         }
         String itemId = getItemIdentifier(item);
-        if (libraryItems.containsKey(itemId)) {
-            System.err.println("Item com ID " + itemId + " já existente.");
-            return false;
+        ReentrantLock itemLock = itemLocks.lockFor(itemId);
+        itemLock.lock();
+        try {
+            if (libraryItems.putIfAbsent(itemId, item) != null) {
+                EventLog.log(LibraryEvent.ITEM_DUPLICATE, itemId);
+                return false;
+            }
+            itemRanking.update(item, item.getBorrowCount());
+            searchIndex.add(item);
+            catalogIndex.add(item);
+            if (journal != null) {
+                journal.recordAddItem(item);
+            }
+            changes.publish(LibraryChange.Type.ITEM_ADDED, itemId, null, 0);
+        } finally {
+            itemLock.unlock();
         }
-        libraryItems.put(itemId, item);
-        System.out.println("Item '" + item.getTitle() + "' adicionado com sucesso.");
+        commitPending();
+        EventLog.log(LibraryEvent.ITEM_ADDED, item.getTitle());
         return true;
     }
 
+    // Adiciona vários itens de uma vez: sem mensagem por item e com um único commit no journal.
+    // Itens recusados (nulos ou com ID já existente) são informados a 'onRejected' com o motivo.
+    // Retorna quantos itens foram adicionados.
+    public int addItems(Collection<? extends LibraryItem> items, BiConsumer<LibraryItem, String> onRejected) {
+        int added = 0;
+        for (LibraryItem item : items) {
+            if (item == null) {
+                onRejected.accept(null, "Não pode adicionar um item nulo.");
+                continue;
+            }
+            String itemId = getItemIdentifier(item);
+            ReentrantLock itemLock = itemLocks.lockFor(itemId);
+            itemLock.lock();
+            try {
+                if (libraryItems.putIfAbsent(itemId, item) != null) {
+                    onRejected.accept(item, "Item com ID " + itemId + " já existente.");
+                    continue;
+                }
+                itemRanking.update(item, item.getBorrowCount());
+                searchIndex.add(item);
+                catalogIndex.add(item);
+                if (journal != null) {
+                    journal.recordAddItem(item);
+                }
+                changes.publish(LibraryChange.Type.ITEM_ADDED, itemId, null, 0);
+                added++;
+            } finally {
+                itemLock.unlock();
+            }
+        }
+        commitPending();
+        return added;
+    }
+
+    public int addItems(Collection<? extends LibraryItem> items) {
+        int added = addItems(items, (item, reason) -> EventLog.log(LibraryEvent.ITEM_REJECTED, reason));
+        EventLog.log(LibraryEvent.ITEMS_ADDED, added, items.size());
+        return added;
+    }
+
     public LibraryItem getItem(String itemId) {
-        return libraryItems.get(itemId);
+        return itemId == null ? null : libraryItems.get(itemId);
     }
 
     public boolean updateItem(String oldItemId, LibraryItem updatedItem) {
         if (oldItemId == null || oldItemId.trim().isEmpty()) {
-            System.err.println("Antigo ID do item não pode ser nulo ou vazio para atualização");
+            EventLog.log(LibraryEvent.UPDATE_INVALID_ID);
             return false;
         }
         if (updatedItem == null) {
-            System.err.println("Item atualizado não pode ser nulo.");
-            return false;
-        }
-
-        if (!libraryItems.containsKey(oldItemId)) {
-            System.err.println("Item com ID " + oldItemId + " não encontrado para atualização.");
+            EventLog.log(LibraryEvent.UPDATE_NULL_ITEM);
             return false;
         }
 
         String updatedItemId = getItemIdentifier(updatedItem);
-        if (!oldItemId.equals(updatedItemId)) {
-            System.err.println("Atualização falhou: novo ID (" + updatedItemId + ") não bate com o ID anterior (" + oldItemId + ").");
-            return false;
-        }
+        ReentrantLock itemLock = itemLocks.lockFor(oldItemId);
+        itemLock.lock();
+        try {
+            if (!libraryItems.containsKey(oldItemId)) {
+                EventLog.log(LibraryEvent.UPDATE_NOT_FOUND, oldItemId);
+                return false;
+            }
+
+            if (!oldItemId.equals(updatedItemId)) {
+                EventLog.log(LibraryEvent.UPDATE_ID_MISMATCH, updatedItemId, oldItemId);
+                return false;
+            }
 
-        libraryItems.put(oldItemId, updatedItem);
-        System.out.println("Item com ID " + oldItemId + " atualizado com sucesso para '" + updatedItem.getTitle() + "'.");
+            LibraryItem previousItem = libraryItems.put(oldItemId, updatedItem);
+            itemRanking.remove(previousItem);
+            itemRanking.update(updatedItem, updatedItem.getBorrowCount());
+            searchIndex.remove(previousItem);
+            searchIndex.add(updatedItem);
+            catalogIndex.remove(previousItem);
+            catalogIndex.add(updatedItem);
+            if (journal != null) {
+                journal.recordUpdateItem(oldItemId, updatedItem);
+            }
+            changes.publish(LibraryChange.Type.ITEM_UPDATED, oldItemId, null, 0);
+        } finally {
+            itemLock.unlock();
+        }
+        commitPending();
+        EventLog.log(LibraryEvent.ITEM_UPDATED, oldItemId, updatedItem.getTitle());
         return true;
     }
 
@@ -77,18 +220,85 @@ public class Library {
         return new ArrayList<>(libraryItems.values());
     }
 
+    // Visão paginada de todo o acervo, ordenada por 'order' (ver ItemView). Copia e ordena as chaves de
+    // todos os itens: em acervos grandes deve ser chamada fora da thread da interface gráfica.
+    public ItemView itemView(ItemOrder order, boolean descending) {
+        if (order == null) {
+            throw new IllegalArgumentException("Ordenação não pode ser nula.");
+        }
+        List<SortKey> keys = new ArrayList<>(libraryItems.size());
+        for (Map.Entry<String, LibraryItem> entry : libraryItems.entrySet()) {
+            LibraryItem item = entry.getValue();
+            keys.add(new SortKey(entry.getKey(), order.textKeyOf(item), order.numberKeyOf(item)));
+        }
+        Comparator<SortKey> comparator = Comparator.comparing((SortKey key) -> key.text)
+                .thenComparingLong(key -> key.number)
+                .thenComparing(key -> key.itemId);
+        keys.sort(descending ? comparator.reversed() : comparator);
+        String[] itemIds = new String[keys.size()];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = keys.get(i).itemId;
+        }
+        return new ItemView(this, itemIds, order, descending);
+    }
+
+    private static final class SortKey {
+        private final String itemId;
+        private final String text;
+        private final long number;
+
+        private SortKey(String itemId, String text, long number) {
+            this.itemId = itemId;
+            this.text = text;
+            this.number = number;
+        }
+    }
+
+    // Busca por palavras do título e do autor, sem diferenciar acentos e maiúsculas.
+    // Todas as palavras devem aparecer no item; "term*" busca palavras que começam com "term".
+    // Ex.: searchItems("memorias brás*") encontra "Memórias Póstumas de Brás Cubas".
+    public List<LibraryItem> searchItems(String query) {
+        return searchItems(query, Integer.MAX_VALUE);
+    }
+
+    public List<LibraryItem> searchItems(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    // Aceita os nomes em português e em inglês: "Livro"/"Book", "Revista"/"Magazine" e "DVD"
     public List<LibraryItem> listItemsByCategory(String category) {
-        return libraryItems.values().stream()
-                .filter(item -> {
-                    if ("Livro".equalsIgnoreCase(category)) return item instanceof Book;
-                    if ("Revista".equalsIgnoreCase(category)) return item instanceof Magazine;
-                    if ("Dvd".equalsIgnoreCase(category)) return item instanceof Dvd;
-                    return true;
-                })
-                .collect(Collectors.toList());
+        Class<? extends LibraryItem> type = itemTypeOf(category);
+        if (type == null) {
+            EventLog.log(LibraryEvent.UNKNOWN_CATEGORY, category);
+            return new ArrayList<>();
+        }
+        return catalogIndex.find(type, null, null, false);
+    }
+
+    // Consulta combinada pelos índices, ex.: DVDs disponíveis de 2015 a 2020:
+    //     findItems(Dvd.class, 2015, 2020, true)
+    // 'type' nulo aceita qualquer tipo; 'fromYear'/'toYear' nulos deixam o intervalo aberto.
+    public List<LibraryItem> findItems(Class<? extends LibraryItem> type, Integer fromYear, Integer toYear, boolean onlyAvailable) {
+        return catalogIndex.find(type, fromYear, toYear, onlyAvailable);
     }
 
-    private String getItemIdentifier(LibraryItem item) {
+    public List<LibraryItem> listAvailableItems() {
+        return catalogIndex.find(null, null, null, true);
+    }
+
+    private static Class<? extends LibraryItem> itemTypeOf(String category) {
+        if (category == null) {
+            return null;
+        }
+        return switch (category.trim().toUpperCase()) {
+            case "LIVRO", "BOOK" -> Book.class;
+            case "REVISTA", "MAGAZINE" -> Magazine.class;
+            case "DVD" -> Dvd.class;
+            default -> null;
+        };
+    }
+
+    String getItemIdentifier(LibraryItem item) {
         if (item instanceof Book book) {
             return book.getISBN();
         } else if (item instanceof Magazine magazine) {
@@ -101,202 +311,1250 @@ public class Library {
 
     public boolean registerUser(User user) {
         if (user == null) {
-            System.err.println("Não pode registrar um Usuário nulo.");
+            EventLog.log(LibraryEvent.USER_NULL);
             return false;
         }
-        if (users.containsKey(user.getCPF())) {
-            System.err.println("Usuário com CPF " + user.getCPF() + " já existente.");
-            return false;
+        ReentrantLock userLock = userLocks.lockFor(user.getCPF());
+        userLock.lock();
+        try {
+            if (users.putIfAbsent(user.getCPF(), user) != null) {
+                EventLog.log(LibraryEvent.USER_DUPLICATE, user.getCPF());
+                return false;
+            }
+            if (journal != null) {
+                journal.recordRegisterUser(user);
+            }
+        } finally {
+            userLock.unlock();
         }
-        users.put(user.getCPF(), user);
-        System.out.println("Usuário '" + user.getName() + "' registrado com sucesso.");
+        commitPending();
+        EventLog.log(LibraryEvent.USER_REGISTERED, user.getName());
         return true;
     }
 
     public User getUser(String cpf) {
-        return users.get(cpf);
+        return cpf == null ? null : users.get(userKey(cpf));
+    }
+
+    // CPF na forma guardada em Person: um CPF válido só com os dígitos ("529.982.247-25" -> "52998224725").
+    // Usado na entrada de todo método que recebe um CPF, para as buscas aceitarem as duas formas.
+    private static String userKey(String cpf) {
+        String normalized = IdentifierValidator.normalizeCpf(cpf);
+        return normalized != null ? normalized : cpf;
     }
 
     public Borrow performBorrow(String userCpf, String itemId) {
-        User user = users.get(userCpf);
-        LibraryItem item = libraryItems.get(itemId);
+        long start = metrics.startTimer();
+        try {
+            return performBorrow(userCpf, itemId, LocalDate.now(), 0);
+        } finally {
+            metrics.stopTimer(LibraryOperation.BORROW, start);
+        }
+    }
 
+    // Versão usada também na recuperação do journal, com a data e o ID originais do empréstimo (0 gera um novo ID)
+    Borrow performBorrow(String userCpf, String itemId, LocalDate borrowDate, long borrowId) {
+        userCpf = userKey(userCpf);
+        User user = getUser(userCpf);
         if (user == null) {
-            System.err.println("Empréstimo falhou: usuário com CPF " + userCpf + " não encontrado.");
+            EventLog.log(LibraryEvent.BORROW_USER_NOT_FOUND, userCpf);
+            metrics.recordRejection(FailureReason.USER_NOT_FOUND);
             return null;
         }
-        if (item == null) {
-            System.err.println("Empréstimo falhou: item com ID " + itemId + " não encontrado.");
+        if (getItem(itemId) == null) {
+            EventLog.log(LibraryEvent.BORROW_ITEM_NOT_FOUND, itemId);
+            metrics.recordRejection(FailureReason.ITEM_NOT_FOUND);
             return null;
         }
-        if (!item.isAvailable()) {
-            System.err.println("Empréstimo falhou: item '" + item.getTitle() + "' não disponível.");
+
+        ReentrantLock userLock = userLocks.lockFor(userCpf);
+        ReentrantLock itemLock = itemLocks.lockFor(itemId);
+        userLock.lock();
+        itemLock.lock();
+        Borrow newBorrow;
+        try {
+            newBorrow = performBorrowLocked(user, itemId, borrowDate, borrowId);
+        } finally {
+            itemLock.unlock();
+            userLock.unlock();
+        }
+        if (newBorrow != null) {
+            commitPending();
+        }
+        return newBorrow;
+    }
+
+    // Chamado com os locks do usuário e do item já obtidos.
+    private Borrow performBorrowLocked(User user, String itemId, LocalDate borrowDate, long borrowId) {
+        LibraryItem item = libraryItems.get(itemId); // Relido sob o lock: pode ter sido substituído por updateItem
+        FailureReason failure = checkBorrow(user, itemId, item, 0);
+        if (failure != null) {
+            reportBorrowFailure(failure, user, itemId, item);
             return null;
         }
+        int copy = ((Borrowable) item).borrowItem(user);
+        if (copy != CopyInventory.NO_COPY) {
+            Borrow newBorrow = openBorrow(user, itemId, item, copy, borrowDate, borrowId);
+            EventLog.log(LibraryEvent.BORROW_CREATED, item.getTitle(), user.getName(), newBorrow.getDueDate());
+            return newBorrow;
+        }
+        metrics.recordRejection(FailureReason.ITEM_UNAVAILABLE);
+        return null;
+    }
+
+    // Verifica se 'user' pode levar 'item', com os locks do usuário e do item já obtidos.
+    // 'reservedInBatch' conta os empréstimos do mesmo lote já aprovados mas ainda não registrados.
+    private FailureReason checkBorrow(User user, String itemId, LibraryItem item, int reservedInBatch) {
+        if (item == null) {
+            return FailureReason.ITEM_NOT_FOUND;
+        }
+        if (!item.isAvailable()) {
+            return FailureReason.ITEM_UNAVAILABLE;
+        }
+        if (isReservedForOther(user, itemId, item)) {
+            return FailureReason.ITEM_RESERVED;
+        }
         if (user.isBlocked()) {
-            System.err.println("Empréstimo falhou: usuário '" + user.getName() + "' está bloqueado devido multas.");
-            return null;
+            return FailureReason.USER_BLOCKED;
+        }
+        if (getActiveBorrowCount(user.getCPF()) + reservedInBatch >= user.getUserType().getMaxBorrows()) {
+            return FailureReason.QUOTA_EXCEEDED;
+        }
+        if (!(item instanceof Borrowable)) {
+            return FailureReason.NOT_BORROWABLE;
         }
+        return null;
+    }
 
-        long currentUserBorrows = activeBorrows.stream()
-                .filter(b -> b.getUser().getCPF().equals(userCpf) && b.getReturnDate() == null)
-                .count();
-        if (currentUserBorrows >= user.getUserType().getMaxBorrows()) {
-            System.err.println("Empréstimo falhou: usuário '" + user.getName() + "' já chegou no máximo de empréstimos (" + user.getUserType().getMaxBorrows() + ").");
-            return null;
+    private void reportBorrowFailure(FailureReason failure, User user, String itemId, LibraryItem item) {
+        metrics.recordRejection(failure);
+        switch (failure) {
+            case ITEM_NOT_FOUND -> EventLog.log(LibraryEvent.BORROW_ITEM_NOT_FOUND, itemId);
+            case ITEM_UNAVAILABLE -> EventLog.log(LibraryEvent.BORROW_ITEM_UNAVAILABLE, item.getTitle());
+            case ITEM_RESERVED -> EventLog.log(LibraryEvent.BORROW_ITEM_RESERVED, item.getTitle());
+            case USER_BLOCKED -> EventLog.log(LibraryEvent.BORROW_USER_BLOCKED, user.getName());
+            case QUOTA_EXCEEDED -> EventLog.log(LibraryEvent.BORROW_QUOTA_EXCEEDED, user.getName(), user.getUserType().getMaxBorrows());
+            case NOT_BORROWABLE -> EventLog.log(LibraryEvent.BORROW_NOT_BORROWABLE, item.getTitle());
+            default -> EventLog.log(LibraryEvent.BORROW_FAILED, failure.getDescription());
         }
+    }
 
-        if (!(item instanceof Borrowable borrowableItem)) {
-            System.err.println("Empréstimo falhou: Item '" + item.getTitle() + "' não é alugável.");
-            return null;
+    // Registra um empréstimo cujo exemplar 'copy' já foi marcado como emprestado (borrowItem), com os locks obtidos.
+    private Borrow openBorrow(User user, String itemId, LibraryItem item, int copy, LocalDate borrowDate, long borrowId) {
+        itemRanking.update(item, item.getBorrowCount());
+        catalogIndex.updateAvailability(item);
+        LocalDate dueDate = borrowDate.plusDays(user.getUserType().getDefaultBorrowPeriodDays());
+
+        Borrow newBorrow = new Borrow(newId(borrowId), user, item, copy, borrowDate, dueDate);
+        activeBorrows.put(newBorrow.getId(), newBorrow);
+        dueDates.add(newBorrow);
+        activeBorrowCounts.merge(user.getCPF(), 1, Integer::sum);
+        user.addBorrowToHistory(newBorrow);
+        userRanking.increment(user);
+        metrics.recordBorrow();
+        if (journal != null) {
+            journal.recordBorrow(newBorrow, itemId);
         }
+        DomainEventPublisher publisher = eventPublisher;
+        if (publisher != null) {
+            publisher.recordBorrow(newBorrow, itemId);
+        }
+        changes.publish(LibraryChange.Type.BORROW_OPENED, itemId, user.getCPF(), newBorrow.getId());
+        changes.publish(LibraryChange.Type.AVAILABILITY_CHANGED, itemId, null, 0);
+        changes.publish(LibraryChange.Type.BORROW_COUNT_CHANGED, itemId, null, 0);
+        if (!holds.isEmpty()) {
+            // A reserva do usuário para o item termina com o empréstimo. Não vai para o journal: o
+            // empréstimo refeito na recuperação encerra a reserva da mesma forma.
+            Hold hold = holds.activeHold(user.getCPF(), itemId);
+            if (hold != null) {
+                holds.close(hold, Hold.Status.FULFILLED);
+                changes.publish(LibraryChange.Type.HOLD_CLOSED, itemId, user.getCPF(), hold.getId());
+            }
+        }
+        return newBorrow;
+    }
 
-        if (borrowableItem.borrowItem(user)) {
-            LocalDate borrowDate = LocalDate.now();
-            LocalDate dueDate = borrowDate.plusDays(user.getUserType().getDefaultBorrowPeriodDays());
+    // Empréstimo de vários itens para um mesmo usuário (ex.: cesta do autoatendimento).
+    // O usuário é resolvido e o seu lock obtido uma única vez, e o journal é gravado uma vez ao final.
+    // Em ALL_OR_NOTHING os locks de todos os itens são obtidos antes da validação, e se algum item
+    // falhar nenhum empréstimo é feito (os demais ficam com BATCH_ABORTED).
+    public BatchResult performBorrows(String userCpf, List<String> itemIds, BatchMode mode) {
+        long start = metrics.startTimer();
+        try {
+            return performBorrows(userCpf, itemIds, mode, LocalDate.now());
+        } finally {
+            metrics.stopTimer(LibraryOperation.BATCH_BORROW, start);
+        }
+    }
 
-            Borrow newBorrow = new Borrow(user, item, borrowDate, dueDate);
-            activeBorrows.add(newBorrow);
-            borrowHistory.add(newBorrow);
-            user.addBorrowToHistory(newBorrow);
-            System.out.println("Empréstimo falhou: '" + item.getTitle() + "' para '" + user.getName() + "'. Vencido: " + dueDate);
-            return newBorrow;
+    private BatchResult performBorrows(String userCpf, List<String> itemIds, BatchMode mode, LocalDate borrowDate) {
+        userCpf = userKey(userCpf);
+        if (itemIds == null || mode == null) {
+            throw new IllegalArgumentException("Lista de itens e modo do lote não podem ser nulos.");
+        }
+        User user = getUser(userCpf);
+        if (user == null) {
+            EventLog.log(LibraryEvent.BATCH_USER_NOT_FOUND, userCpf);
+            BatchResult result = BatchResult.failAll(itemIds, FailureReason.USER_NOT_FOUND);
+            metrics.recordRejections(result);
+            return result;
+        }
+
+        BatchResult result;
+        ReentrantLock userLock = userLocks.lockFor(userCpf);
+        userLock.lock();
+        try {
+            result = mode == BatchMode.ALL_OR_NOTHING
+                    ? performBorrowsAllOrNothing(user, itemIds, borrowDate)
+                    : performBorrowsPerItem(user, itemIds, borrowDate);
+        } finally {
+            userLock.unlock();
+        }
+        metrics.recordRejections(result);
+        if (result.getSuccessCount() > 0) {
+            commitPending();
+        }
+        EventLog.log(LibraryEvent.BATCH_BORROWED, user.getName(), result.getSuccessCount(), itemIds.size());
+        return result;
+    }
+
+    // Chamado com o lock do usuário já obtido.
+    private BatchResult performBorrowsPerItem(User user, List<String> itemIds, LocalDate borrowDate) {
+        List<BatchResult.Entry> entries = new ArrayList<>(itemIds.size());
+        for (String itemId : itemIds) {
+            if (itemId == null) {
+                entries.add(new BatchResult.Entry(null, null, FailureReason.ITEM_NOT_FOUND));
+                continue;
+            }
+            ReentrantLock itemLock = itemLocks.lockFor(itemId);
+            itemLock.lock();
+            try {
+                LibraryItem item = libraryItems.get(itemId);
+                FailureReason failure = checkBorrow(user, itemId, item, 0);
+                int copy = failure == null ? ((Borrowable) item).borrowItem(user) : CopyInventory.NO_COPY;
+                if (failure == null && copy == CopyInventory.NO_COPY) {
+                    failure = FailureReason.ITEM_UNAVAILABLE;
+                }
+                Borrow newBorrow = failure == null ? openBorrow(user, itemId, item, copy, borrowDate, 0) : null;
+                entries.add(new BatchResult.Entry(itemId, newBorrow, failure));
+            } finally {
+                itemLock.unlock();
+            }
+        }
+        return new BatchResult(entries);
+    }
+
+    // Chamado com o lock do usuário já obtido.
+    private BatchResult performBorrowsAllOrNothing(User user, List<String> itemIds, LocalDate borrowDate) {
+        List<String> lockedIds = new ArrayList<>(itemIds.size());
+        for (String itemId : itemIds) {
+            if (itemId != null) {
+                lockedIds.add(itemId);
+            }
+        }
+        List<ReentrantLock> itemLocksHeld = itemLocks.lockAll(lockedIds);
+        try {
+            // Validação completa antes de qualquer alteração; itens repetidos no lote contam como indisponíveis
+            FailureReason[] failures = new FailureReason[itemIds.size()];
+            LibraryItem[] items = new LibraryItem[itemIds.size()];
+            Set<String> seen = new HashSet<>();
+            boolean anyFailure = false;
+            int approved = 0;
+            for (int i = 0; i < itemIds.size(); i++) {
+                String itemId = itemIds.get(i);
+                items[i] = itemId == null ? null : libraryItems.get(itemId);
+                failures[i] = !seen.add(itemId) ? FailureReason.ITEM_UNAVAILABLE : checkBorrow(user, itemId, items[i], approved);
+                if (failures[i] == null) {
+                    approved++;
+                } else {
+                    anyFailure = true;
+                }
+            }
+
+            List<BatchResult.Entry> entries = new ArrayList<>(itemIds.size());
+            for (int i = 0; i < itemIds.size(); i++) {
+                String itemId = itemIds.get(i);
+                FailureReason failure = failures[i];
+                if (anyFailure) {
+                    entries.add(new BatchResult.Entry(itemId, null, failure == null ? FailureReason.BATCH_ABORTED : failure));
+                    continue;
+                }
+                // Com os locks de todos os itens, nenhum outro atendente pode tê-los emprestado desde a validação
+                Borrow newBorrow = null;
+                int copy = ((Borrowable) items[i]).borrowItem(user);
+                if (copy != CopyInventory.NO_COPY) {
+                    newBorrow = openBorrow(user, itemId, items[i], copy, borrowDate, 0);
+                } else {
+                    failure = FailureReason.ITEM_UNAVAILABLE;
+                }
+                entries.add(new BatchResult.Entry(itemId, newBorrow, failure));
+            }
+            return new BatchResult(entries);
+        } finally {
+            LockStripes.unlockAll(itemLocksHeld);
         }
-        return null;
+    }
+
+    public int getActiveBorrowCount(String userCpf) {
+        return userCpf == null ? 0 : activeBorrowCounts.getOrDefault(userKey(userCpf), 0);
     }
 
     public boolean returnBorrow(String borrowId, LocalDate actualReturnDate) {
-        Borrow borrowToReturn = activeBorrows.stream()
-                .filter(b -> b.getBorrowId().equals(borrowId))
-                .findFirst()
-                .orElse(null);
+        long start = metrics.startTimer();
+        try {
+            return returnBorrow(findActiveBorrow(borrowId), borrowId, actualReturnDate, 0);
+        } finally {
+            metrics.stopTimer(LibraryOperation.RETURN, start);
+        }
+    }
+
+    // Na recuperação do journal, 'penaltyId' mantém o ID da multa gerada originalmente (0 gera um novo ID)
+    boolean returnBorrow(long borrowId, LocalDate actualReturnDate, long penaltyId) {
+        return returnBorrow(activeBorrows.get(borrowId), IdCodec.format(borrowId), actualReturnDate, penaltyId);
+    }
 
+    // 'requestedId' é o ID pedido, usado apenas na mensagem quando o empréstimo não é encontrado
+    private boolean returnBorrow(Borrow borrowToReturn, String requestedId, LocalDate actualReturnDate, long penaltyId) {
         if (borrowToReturn == null) {
-            System.err.println("Empréstimo falhou: Empréstimo ativo com ID " + borrowId + " não encontrado");
+            EventLog.log(LibraryEvent.RETURN_NOT_FOUND, requestedId);
+            metrics.recordRejection(FailureReason.BORROW_NOT_FOUND);
             return false;
         }
 
-        if (borrowToReturn.getReturnDate() != null) {
-            System.err.println("Empréstimo falhou: empréstimo ID " + borrowId + " já foi devolvido.");
-            return false;
+        ReentrantLock userLock = userLocks.lockFor(borrowToReturn.getUser().getCPF());
+        ReentrantLock itemLock = itemLocks.lockFor(getItemIdentifier(borrowToReturn.getItem()));
+        userLock.lock();
+        itemLock.lock();
+        boolean returned;
+        try {
+            returned = returnBorrowLocked(borrowToReturn, actualReturnDate, penaltyId);
+        } finally {
+            itemLock.unlock();
+            userLock.unlock();
+        }
+        if (returned) {
+            commitPending();
         }
+        return returned;
+    }
 
-        if (!(borrowToReturn.getItem() instanceof Borrowable borrowableItem)) {
-            System.err.println("Erro interno: item alugável não é alugável (verificar).");
+    private boolean returnBorrowLocked(Borrow borrowToReturn, LocalDate actualReturnDate, long penaltyId) {
+        String borrowId = borrowToReturn.getBorrowId();
+        FailureReason failure = checkReturn(borrowToReturn);
+        if (failure != null) {
+            metrics.recordRejection(failure);
+        }
+        if (failure == FailureReason.ALREADY_RETURNED) {
+            // Outro atendente pode ter devolvido o empréstimo antes de obtermos o lock
+            EventLog.log(LibraryEvent.RETURN_ALREADY_RETURNED, borrowId);
+            return false;
+        }
+        if (failure != null) {
+            EventLog.log(LibraryEvent.RETURN_NOT_BORROWABLE);
             return false;
         }
 
-        if (borrowableItem.returnItem()) {
-            borrowToReturn.setReturnDate(actualReturnDate);
-
-            double penaltyAmount = borrowToReturn.getUser().calculatePenalty(borrowToReturn);
-            if (penaltyAmount > 0) {
-                Penalty newPenalty = new Penalty(borrowToReturn, penaltyAmount);
-                pendingPenalties.add(newPenalty);
-                borrowToReturn.getUser().setBlocked(true);
-                System.out.println("Multa incorrida por '" + borrowToReturn.getItem().getTitle() + "': $" + String.format("%.2f", penaltyAmount) + ". Usuário " + borrowToReturn.getUser().getName() + " foi bloqueado.");
+        if (((Borrowable) borrowToReturn.getItem()).returnItem(borrowToReturn.getCopy())) {
+            Penalty newPenalty = closeBorrow(borrowToReturn, actualReturnDate, penaltyId);
+            if (newPenalty != null) {
+                EventLog.log(LibraryEvent.PENALTY_INCURRED, borrowToReturn.getItem().getTitle(), newPenalty.getAmountCents(), borrowToReturn.getUser().getName());
             }
-
-            activeBorrows.remove(borrowToReturn);
-
-            System.out.println("Empréstimo ID " + borrowId + " retornado e processado com sucesso.");
+            EventLog.log(LibraryEvent.BORROW_RETURNED, borrowId);
             return true;
         }
         return false;
     }
 
+    // Chamado com os locks do usuário e do item do empréstimo já obtidos.
+    private FailureReason checkReturn(Borrow borrowToReturn) {
+        if (activeBorrows.get(borrowToReturn.getId()) != borrowToReturn || borrowToReturn.getReturnDate() != null) {
+            return FailureReason.ALREADY_RETURNED;
+        }
+        if (!(borrowToReturn.getItem() instanceof Borrowable)) {
+            return FailureReason.NOT_BORROWABLE;
+        }
+        return null;
+    }
+
+    // Encerra um empréstimo cujo exemplar já foi devolvido (returnItem). Retorna a multa gerada, ou null.
+    private Penalty closeBorrow(Borrow borrowToReturn, LocalDate actualReturnDate, long penaltyId) {
+        borrowToReturn.setReturnDate(actualReturnDate);
+        String itemId = getItemIdentifier(borrowToReturn.getItem());
+        // O registro pode ter sido trocado (updateItem) durante o empréstimo: o índice só conhece o atual
+        LibraryItem currentItem = libraryItems.get(itemId);
+        if (currentItem != null) {
+            catalogIndex.updateAvailability(currentItem);
+        }
+
+        long penaltyCents = borrowToReturn.getUser().calculatePenaltyCents(borrowToReturn);
+        Penalty newPenalty = null;
+        if (penaltyCents > 0) {
+            newPenalty = new Penalty(newId(penaltyId), penaltyCents, borrowToReturn, borrowToReturn.getUser().getUserType());
+            penalties.addPending(newPenalty);
+            borrowToReturn.getUser().setBlocked(true);
+        }
+
+        activeBorrows.remove(borrowToReturn.getId());
+        dueDates.remove(borrowToReturn);
+        closedBorrows.add(borrowToReturn, itemId);
+        borrowToReturn.getUser().moveBorrowToArchive(borrowToReturn, closedBorrows);
+        // Remove a entrada quando o usuário não tem mais empréstimos em aberto
+        activeBorrowCounts.computeIfPresent(borrowToReturn.getUser().getCPF(), (cpf, count) -> count > 1 ? count - 1 : null);
+        metrics.recordReturn(newPenalty);
+        if (journal != null) {
+            journal.recordReturn(borrowToReturn, newPenalty);
+        }
+        DomainEventPublisher publisher = eventPublisher;
+        if (publisher != null) {
+            publisher.recordReturn(borrowToReturn, itemId, newPenalty);
+        }
+        String userCpf = borrowToReturn.getUser().getCPF();
+        changes.publish(LibraryChange.Type.BORROW_CLOSED, itemId, userCpf, borrowToReturn.getId());
+        changes.publish(LibraryChange.Type.AVAILABILITY_CHANGED, itemId, null, 0);
+        if (newPenalty != null) {
+            changes.publish(LibraryChange.Type.PENALTY_ISSUED, null, userCpf, newPenalty.getId());
+        }
+        allocateToNextHolder(itemId, actualReturnDate);
+        return newPenalty;
+    }
+
+    // Devolução de vários empréstimos (ex.: caixa de devolução), possivelmente de usuários diferentes.
+    // As multas geradas aparecem em getPendingPenalties; apenas um resumo é impresso.
+    public BatchResult returnBorrows(List<String> borrowIds, LocalDate actualReturnDate, BatchMode mode) {
+        if (actualReturnDate == null) {
+            throw new IllegalArgumentException("Data de devolução não pode ser nula.");
+        }
+        long start = metrics.startTimer();
+        try {
+            List<Penalty> issued = new ArrayList<>(); // Multas geradas por closeBorrow, para o resumo
+            BatchResult result = applyToBorrows(borrowIds, mode, FailureReason.ALREADY_RETURNED, this::checkReturn, borrow -> {
+                if (!((Borrowable) borrow.getItem()).returnItem(borrow.getCopy())) {
+                    return FailureReason.ALREADY_RETURNED;
+                }
+                Penalty newPenalty = closeBorrow(borrow, actualReturnDate, 0);
+                if (newPenalty != null) {
+                    issued.add(newPenalty);
+                }
+                return null;
+            });
+            long penaltyCents = 0;
+            for (Penalty penalty : issued) {
+                penaltyCents += penalty.getAmountCents();
+            }
+            if (penaltyCents > 0) {
+                EventLog.log(LibraryEvent.BATCH_RETURNED_WITH_PENALTIES, result.getSuccessCount(), borrowIds.size(), penaltyCents);
+            } else {
+                EventLog.log(LibraryEvent.BATCH_RETURNED, result.getSuccessCount(), borrowIds.size());
+            }
+            return result;
+        } finally {
+            metrics.stopTimer(LibraryOperation.BATCH_RETURN, start);
+        }
+    }
+
     public boolean renewBorrow(String borrowId) {
-        Borrow borrowToRenew = activeBorrows.stream()
-                .filter(b -> b.getBorrowId().equals(borrowId))
-                .findFirst()
-                .orElse(null);
+        long start = metrics.startTimer();
+        try {
+            return renewBorrow(findActiveBorrow(borrowId), borrowId, LocalDate.now());
+        } finally {
+            metrics.stopTimer(LibraryOperation.RENEW, start);
+        }
+    }
+
+    // 'today' é a data da renovação (a original, na recuperação do journal)
+    boolean renewBorrow(long borrowId, LocalDate today) {
+        return renewBorrow(activeBorrows.get(borrowId), IdCodec.format(borrowId), today);
+    }
 
+    private boolean renewBorrow(Borrow borrowToRenew, String requestedId, LocalDate today) {
         if (borrowToRenew == null) {
-            System.err.println("Renovação falhou: Empréstimo ativo com ID " + borrowId + " não encontrado.");
+            EventLog.log(LibraryEvent.RENEW_NOT_FOUND, requestedId);
+            metrics.recordRejection(FailureReason.BORROW_NOT_FOUND);
             return false;
         }
-        if (borrowToRenew.getReturnDate() != null) {
-            System.err.println("Renovação falhou: Empréstimo com ID " + borrowId + " já foi retornado.");
-            return false;
+
+        ReentrantLock userLock = userLocks.lockFor(borrowToRenew.getUser().getCPF());
+        ReentrantLock itemLock = itemLocks.lockFor(getItemIdentifier(borrowToRenew.getItem()));
+        userLock.lock();
+        itemLock.lock();
+        boolean renewed;
+        try {
+            renewed = renewBorrowLocked(borrowToRenew, today);
+        } finally {
+            itemLock.unlock();
+            userLock.unlock();
         }
-        if (borrowToRenew.isRenewed()) {
-            System.err.println("Renovação falhou: Empréstimo com ID " + borrowId + " já foi renovado.");
-            return false;
+        if (renewed) {
+            commitPending();
         }
-        if (LocalDate.now().isAfter(borrowToRenew.getDueDate())) {
-            System.err.println("Renovação falhou: Empréstimo com ID " + borrowId + " já está atrasado.");
+        return renewed;
+    }
+
+    private boolean renewBorrowLocked(Borrow borrowToRenew, LocalDate today) {
+        String borrowId = borrowToRenew.getBorrowId();
+        FailureReason failure = checkRenew(borrowToRenew, today);
+        if (failure != null) {
+            metrics.recordRejection(failure);
+            switch (failure) {
+                case ALREADY_RETURNED -> EventLog.log(LibraryEvent.RENEW_ALREADY_RETURNED, borrowId);
+                case ALREADY_RENEWED -> EventLog.log(LibraryEvent.RENEW_ALREADY_RENEWED, borrowId);
+                case OVERDUE -> EventLog.log(LibraryEvent.RENEW_OVERDUE, borrowId);
+                case ITEM_RESERVED -> EventLog.log(LibraryEvent.RENEW_RESERVED, borrowId);
+                default -> EventLog.log(LibraryEvent.RENEW_NOT_BORROWABLE);
+            }
             return false;
         }
+        applyRenew(borrowToRenew, today);
+        EventLog.log(LibraryEvent.BORROW_RENEWED, borrowId, borrowToRenew.getDueDate());
+        return true;
+    }
 
-        if (!(borrowToRenew.getItem() instanceof Borrowable borrowableItem)) {
-            System.err.println("Erro interno: Item em empréstimo não é alugável.");
-            return false;
+    // Chamado com os locks do usuário e do item do empréstimo já obtidos.
+    private FailureReason checkRenew(Borrow borrowToRenew, LocalDate today) {
+        if (activeBorrows.get(borrowToRenew.getId()) != borrowToRenew || borrowToRenew.getReturnDate() != null) {
+            return FailureReason.ALREADY_RETURNED;
         }
-        int extensionDays = borrowableItem.getBorrowPeriodDays();
-        borrowToRenew.setDueDate(borrowToRenew.getDueDate().plusDays(extensionDays));
+        if (borrowToRenew.isRenewed()) {
+            return FailureReason.ALREADY_RENEWED;
+        }
+        if (today.isAfter(borrowToRenew.getDueDate())) {
+            return FailureReason.OVERDUE;
+        }
+        // Com alguém na fila do item, o empréstimo não pode ser estendido
+        if (!holds.isEmpty() && holds.waitingCount(getItemIdentifier(borrowToRenew.getItem())) > 0) {
+            return FailureReason.ITEM_RESERVED;
+        }
+        if (!(borrowToRenew.getItem() instanceof Borrowable)) {
+            return FailureReason.NOT_BORROWABLE;
+        }
+        return null;
+    }
+
+    private void applyRenew(Borrow borrowToRenew, LocalDate today) {
+        int extensionDays = ((Borrowable) borrowToRenew.getItem()).getBorrowPeriodDays();
+        LocalDate previousDueDate = borrowToRenew.getDueDate();
+        borrowToRenew.setDueDate(previousDueDate.plusDays(extensionDays));
+        dueDates.reschedule(borrowToRenew, previousDueDate);
         borrowToRenew.setRenewed(true);
-        System.out.println("Empréstimo ID " + borrowId + " renovado com sucesso. Nova data de vencimento: " + borrowToRenew.getDueDate());
-        return true;
+        metrics.recordRenewal();
+        if (journal != null) {
+            journal.recordRenew(borrowToRenew, today);
+        }
+        String itemId = getItemIdentifier(borrowToRenew.getItem());
+        DomainEventPublisher publisher = eventPublisher;
+        if (publisher != null) {
+            publisher.recordRenew(borrowToRenew, itemId, today);
+        }
+        changes.publish(LibraryChange.Type.BORROW_RENEWED, itemId, borrowToRenew.getUser().getCPF(), borrowToRenew.getId());
+    }
+
+    public BatchResult renewBorrows(List<String> borrowIds, BatchMode mode) {
+        long start = metrics.startTimer();
+        try {
+            LocalDate today = LocalDate.now();
+            BatchResult result = applyToBorrows(borrowIds, mode, FailureReason.ALREADY_RENEWED, borrow -> checkRenew(borrow, today), borrow -> {
+                applyRenew(borrow, today);
+                return null;
+            });
+            EventLog.log(LibraryEvent.BATCH_RENEWED, result.getSuccessCount(), borrowIds.size());
+            return result;
+        } finally {
+            metrics.stopTimer(LibraryOperation.BATCH_RENEW, start);
+        }
+    }
+
+    // Base de returnBorrows e renewBorrows. 'check' e 'apply' são chamados com os locks do usuário e do
+    // item do empréstimo obtidos; 'apply' só é chamado se 'check' não retornou falha.
+    // Em PER_ITEM cada empréstimo é processado com os seus próprios locks; em ALL_OR_NOTHING são obtidos
+    // os locks de todos os usuários e depois os de todos os itens (mantendo a ordem usuário antes de item).
+    // 'duplicate' é o motivo dado a um empréstimo repetido no lote em ALL_OR_NOTHING.
+    private BatchResult applyToBorrows(List<String> borrowIds, BatchMode mode, FailureReason duplicate,
+                                       Function<Borrow, FailureReason> check, Function<Borrow, FailureReason> apply) {
+        if (borrowIds == null || mode == null) {
+            throw new IllegalArgumentException("Lista de empréstimos e modo do lote não podem ser nulos.");
+        }
+        Borrow[] borrows = new Borrow[borrowIds.size()];
+        for (int i = 0; i < borrows.length; i++) {
+            borrows[i] = findActiveBorrow(borrowIds.get(i));
+        }
+
+        List<BatchResult.Entry> entries = new ArrayList<>(borrows.length);
+        if (mode == BatchMode.PER_ITEM) {
+            for (int i = 0; i < borrows.length; i++) {
+                Borrow borrow = borrows[i];
+                FailureReason failure = FailureReason.BORROW_NOT_FOUND;
+                if (borrow != null) {
+                    ReentrantLock userLock = userLocks.lockFor(borrow.getUser().getCPF());
+                    ReentrantLock itemLock = itemLocks.lockFor(getItemIdentifier(borrow.getItem()));
+                    userLock.lock();
+                    itemLock.lock();
+                    try {
+                        failure = check.apply(borrow);
+                        if (failure == null) {
+                            failure = apply.apply(borrow);
+                        }
+                    } finally {
+                        itemLock.unlock();
+                        userLock.unlock();
+                    }
+                }
+                entries.add(new BatchResult.Entry(borrowIds.get(i), failure == null ? borrow : null, failure));
+            }
+        } else {
+            List<String> cpfs = new ArrayList<>(borrows.length);
+            List<String> itemIds = new ArrayList<>(borrows.length);
+            for (Borrow borrow : borrows) {
+                if (borrow != null) {
+                    cpfs.add(borrow.getUser().getCPF());
+                    itemIds.add(getItemIdentifier(borrow.getItem()));
+                }
+            }
+            List<ReentrantLock> userLocksHeld = userLocks.lockAll(cpfs);
+            List<ReentrantLock> itemLocksHeld = itemLocks.lockAll(itemIds);
+            try {
+                FailureReason[] failures = new FailureReason[borrows.length];
+                Set<Borrow> seen = new HashSet<>();
+                boolean anyFailure = false;
+                for (int i = 0; i < borrows.length; i++) {
+                    if (borrows[i] == null) {
+                        failures[i] = FailureReason.BORROW_NOT_FOUND;
+                    } else if (!seen.add(borrows[i])) {
+                        failures[i] = duplicate;
+                    } else {
+                        failures[i] = check.apply(borrows[i]);
+                    }
+                    anyFailure |= failures[i] != null;
+                }
+                for (int i = 0; i < borrows.length; i++) {
+                    FailureReason failure = failures[i];
+                    if (anyFailure) {
+                        failure = failure == null ? FailureReason.BATCH_ABORTED : failure;
+                    } else {
+                        failure = apply.apply(borrows[i]);
+                    }
+                    entries.add(new BatchResult.Entry(borrowIds.get(i), failure == null ? borrows[i] : null, failure));
+                }
+            } finally {
+                LockStripes.unlockAll(itemLocksHeld);
+                LockStripes.unlockAll(userLocksHeld);
+            }
+        }
+
+        BatchResult result = new BatchResult(entries);
+        metrics.recordRejections(result);
+        if (result.getSuccessCount() > 0) {
+            commitPending();
+        }
+        return result;
+    }
+
+    // IDs em texto vêm de fora da biblioteca (ver IdCodec); internamente os empréstimos são indexados pelo long
+    private Borrow findActiveBorrow(String borrowId) {
+        long id = IdCodec.parse(borrowId);
+        return id <= 0 ? null : activeBorrows.get(id);
+    }
+
+    // 'requestedId' do journal/snapshot (diferente de 0) é mantido, e o gerador passa a produzir IDs maiores
+    private long newId(long requestedId) {
+        if (requestedId == 0) {
+            return idGenerator.nextId();
+        }
+        idGenerator.advancePast(requestedId);
+        return requestedId;
     }
 
     public List<Penalty> getPendingPenalties() {
-        return new ArrayList<>(pendingPenalties);
+        return penalties.pending();
+    }
+
+    public List<Penalty> getPendingPenalties(String userCpf) {
+        return penalties.pendingFor(userKey(userCpf));
+    }
+
+    public int getPendingPenaltyCount(String userCpf) {
+        return penalties.pendingCount(userKey(userCpf));
+    }
+
+    public double getPendingPenaltyBalance(String userCpf) {
+        return penalties.pendingCents(userKey(userCpf)) / 100.0;
     }
 
     public boolean payPenalty(String penaltyId) {
-        Penalty penaltyToPay = pendingPenalties.stream()
-                .filter(p -> p.getPenaltyId().equals(penaltyId))
-                .findFirst()
-                .orElse(null);
+        long start = metrics.startTimer();
+        try {
+            long id = IdCodec.parse(penaltyId);
+            return payPenalty(id <= 0 ? null : penalties.findPending(id), penaltyId, LocalDate.now());
+        } finally {
+            metrics.stopTimer(LibraryOperation.PAY_PENALTY, start);
+        }
+    }
+
+    boolean payPenalty(long penaltyId, LocalDate paymentDate) {
+        return payPenalty(penalties.findPending(penaltyId), IdCodec.format(penaltyId), paymentDate);
+    }
 
-        if (penaltyToPay == null) {
-            System.err.println("Multa com ID " + penaltyId + " não identificada em multas pendentes.");
+    private boolean payPenalty(Penalty pending, String requestedId, LocalDate paymentDate) {
+        if (pending == null) {
+            EventLog.log(LibraryEvent.PENALTY_NOT_FOUND, requestedId);
+            metrics.recordRejection(FailureReason.PENALTY_NOT_FOUND);
             return false;
         }
 
-        penaltyToPay.setPaid(true);
-        pendingPenalties.remove(penaltyToPay);
-        paidPenalties.add(penaltyToPay);
+        User user = pending.getBorrow().getUser();
+        Penalty penaltyToPay;
+        ReentrantLock userLock = userLocks.lockFor(user.getCPF());
+        userLock.lock();
+        try {
+            // Quitada sob o lock do usuário para não disputar com o bloqueio feito em returnBorrow
+            penaltyToPay = penalties.settle(pending.getId(), paymentDate);
+            if (penaltyToPay == null) {
+                EventLog.log(LibraryEvent.PENALTY_NOT_FOUND, requestedId);
+                metrics.recordRejection(FailureReason.PENALTY_NOT_FOUND);
+                return false;
+            }
+            metrics.recordPayment(penaltyToPay);
+            if (!penalties.hasPending(user.getCPF())) {
+                user.setBlocked(false);
+                EventLog.log(LibraryEvent.USER_UNBLOCKED, user.getName());
+            }
+            if (journal != null) {
+                journal.recordPayPenalty(penaltyToPay);
+            }
+            DomainEventPublisher publisher = eventPublisher;
+            if (publisher != null) {
+                publisher.recordPayPenalty(penaltyToPay, getItemIdentifier(penaltyToPay.getBorrow().getItem()));
+            }
+            changes.publish(LibraryChange.Type.PENALTY_PAID, null, user.getCPF(), penaltyToPay.getId());
+        } finally {
+            userLock.unlock();
+        }
+        commitPending();
+        EventLog.log(LibraryEvent.PENALTY_PAID, requestedId, penaltyToPay.getAmountCents());
+        return true;
+    }
+
+    public List<Penalty> payAllPenalties(String userCpf) {
+        long start = metrics.startTimer();
+        try {
+            return payAllPenalties(userCpf, LocalDate.now());
+        } finally {
+            metrics.stopTimer(LibraryOperation.PAY_ALL_PENALTIES, start);
+        }
+    }
+
+    List<Penalty> payAllPenalties(String userCpf, LocalDate paymentDate) {
+        userCpf = userKey(userCpf);
+        User user = getUser(userCpf);
+        if (user == null) {
+            EventLog.log(LibraryEvent.PAYMENT_USER_NOT_FOUND, userCpf);
+            metrics.recordRejection(FailureReason.USER_NOT_FOUND);
+            return new ArrayList<>();
+        }
+
+        List<Penalty> settled;
+        ReentrantLock userLock = userLocks.lockFor(userCpf);
+        userLock.lock();
+        try {
+            settled = penalties.settleAll(userCpf, paymentDate);
+            if (settled.isEmpty()) {
+                EventLog.log(LibraryEvent.NO_PENDING_PENALTIES, user.getName());
+                metrics.recordRejection(FailureReason.PENALTY_NOT_FOUND);
+                return settled;
+            }
+            DomainEventPublisher publisher = eventPublisher;
+            for (Penalty penalty : settled) {
+                metrics.recordPayment(penalty);
+                if (publisher != null) {
+                    publisher.recordPayPenalty(penalty, getItemIdentifier(penalty.getBorrow().getItem()));
+                }
+                changes.publish(LibraryChange.Type.PENALTY_PAID, null, userCpf, penalty.getId());
+            }
+            user.setBlocked(false);
+            if (journal != null) {
+                journal.recordPayAllPenalties(userCpf, paymentDate);
+            }
+        } finally {
+            userLock.unlock();
+        }
+        commitPending();
+
+        long totalCents = settled.stream().mapToLong(Penalty::getAmountCents).sum();
+        EventLog.log(LibraryEvent.PENALTIES_PAID, settled.size(), user.getName(), totalCents);
+        return settled;
+    }
+
+    // --- Reservas ---
+
+    // Entra na fila do título sem exemplares livres. Quando um exemplar for devolvido e chegar a vez do
+    // usuário, ele fica separado por Hold.PICKUP_DAYS dias (ver Hold). Retorna a reserva, ou null se ela foi recusada.
+    public Hold placeHold(String userCpf, String itemId) {
+        long start = metrics.startTimer();
+        try {
+            return placeHold(userCpf, itemId, LocalDate.now(), 0);
+        } finally {
+            metrics.stopTimer(LibraryOperation.PLACE_HOLD, start);
+        }
+    }
 
-        boolean userStillHasPendingPenalties = pendingPenalties.stream()
-                .anyMatch(p -> p.getBorrow().getUser().getCPF().equals(penaltyToPay.getBorrow().getUser().getCPF()));
+    // Versão usada também na recuperação do journal, com a data e o ID originais da reserva (0 gera um novo ID)
+    Hold placeHold(String userCpf, String itemId, LocalDate placedDate, long holdId) {
+        userCpf = userKey(userCpf);
+        User user = getUser(userCpf);
+        if (user == null) {
+            rejectHold(FailureReason.USER_NOT_FOUND);
+            return null;
+        }
+        if (getItem(itemId) == null) {
+            rejectHold(FailureReason.ITEM_NOT_FOUND);
+            return null;
+        }
 
-        if (!userStillHasPendingPenalties) {
-            penaltyToPay.getBorrow().getUser().setBlocked(false);
-            System.out.println("Usuário " + penaltyToPay.getBorrow().getUser().getName() + " desbloqueado.");
+        ReentrantLock userLock = userLocks.lockFor(userCpf);
+        ReentrantLock itemLock = itemLocks.lockFor(itemId);
+        userLock.lock();
+        itemLock.lock();
+        Hold hold;
+        int position;
+        try {
+            LibraryItem item = libraryItems.get(itemId);
+            FailureReason failure = checkHold(user, itemId, item);
+            if (failure != null) {
+                rejectHold(failure);
+                return null;
+            }
+            hold = new Hold(newId(holdId), user, itemId, item, placedDate);
+            position = holds.enqueue(hold);
+            if (journal != null) {
+                journal.recordPlaceHold(hold);
+            }
+            DomainEventPublisher publisher = eventPublisher;
+            if (publisher != null) {
+                publisher.recordHold(DomainEvent.Type.HOLD_PLACED, hold, placedDate);
+            }
+            changes.publish(LibraryChange.Type.HOLD_PLACED, itemId, userCpf, hold.getId());
+        } finally {
+            itemLock.unlock();
+            userLock.unlock();
         }
-        System.out.println("Multa ID " + penaltyId + " paga com sucesso. Valor: R$" + String.format("%.2f", penaltyToPay.getAmount()));
+        commitPending();
+        EventLog.log(LibraryEvent.HOLD_PLACED, hold.getItem().getTitle(), user.getName(), position);
+        return hold;
+    }
+
+    // Chamado com os locks do usuário e do item já obtidos.
+    private FailureReason checkHold(User user, String itemId, LibraryItem item) {
+        if (item == null) {
+            return FailureReason.ITEM_NOT_FOUND;
+        }
+        if (!(item instanceof Borrowable)) {
+            return FailureReason.NOT_BORROWABLE;
+        }
+        if (user.isBlocked()) {
+            return FailureReason.USER_BLOCKED;
+        }
+        if (holds.activeHold(user.getCPF(), itemId) != null
+                || user.hasOpenBorrow(borrow -> itemId.equals(getItemIdentifier(borrow.getItem())))) {
+            return FailureReason.HOLD_DUPLICATE;
+        }
+        // Só entra em reserva o título cujos exemplares livres já estão separados para outros usuários
+        if (item.getAvailableCopies() > holds.readyCount(itemId)) {
+            return FailureReason.HOLD_ITEM_AVAILABLE;
+        }
+        return null;
+    }
+
+    private void rejectHold(FailureReason failure) {
+        metrics.recordRejection(failure);
+        EventLog.log(LibraryEvent.HOLD_FAILED, failure.getDescription());
+    }
+
+    // Cancela uma reserva que ainda espera na fila ou cujo item está separado (o item passa ao próximo)
+    public boolean cancelHold(String holdId) {
+        long start = metrics.startTimer();
+        try {
+            long id = IdCodec.parse(holdId);
+            return cancelHold(id <= 0 ? null : holds.find(id), holdId, LocalDate.now());
+        } finally {
+            metrics.stopTimer(LibraryOperation.CANCEL_HOLD, start);
+        }
+    }
+
+    private boolean cancelHold(Hold hold, String requestedId, LocalDate date) {
+        if (hold == null || !closeActiveHold(hold, Hold.Status.CANCELLED, date)) {
+            rejectHold(FailureReason.HOLD_NOT_FOUND);
+            return false;
+        }
+        commitPending();
+        EventLog.log(LibraryEvent.HOLD_CANCELLED, requestedId);
         return true;
     }
 
+    // Encerra as reservas separadas cujo prazo de retirada já passou, passando cada item ao próximo da
+    // fila, e separa os itens disponíveis cuja fila ainda não foi atendida (ex.: o primeiro da fila
+    // estava bloqueado e já pagou as multas). Retorna quantas reservas expiraram.
+    // Chamado periodicamente pelo HoldExpiryScheduler; percorre apenas os prazos já vencidos.
+    public int expireHolds() {
+        return expireHolds(LocalDate.now());
+    }
+
+    int expireHolds(LocalDate today) {
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        int expired = 0;
+        for (Hold hold : holds.expired(today)) {
+            if (closeActiveHold(hold, Hold.Status.EXPIRED, today)) {
+                expired++;
+                EventLog.log(LibraryEvent.HOLD_EXPIRED, hold.getHoldId(), hold.getItem().getTitle());
+            }
+        }
+        for (String itemId : holds.itemsAwaitingAllocation()) {
+            ReentrantLock itemLock = itemLocks.lockFor(itemId);
+            itemLock.lock();
+            try {
+                allocateToNextHolder(itemId, today);
+            } finally {
+                itemLock.unlock();
+            }
+        }
+        commitPending();
+        return expired;
+    }
+
+    // Recuperação do journal: encerra a reserva com a situação e a data originais
+    boolean closeHold(long holdId, Hold.Status finalStatus, LocalDate date) {
+        Hold hold = holds.find(holdId);
+        return hold != null && closeActiveHold(hold, finalStatus, date);
+    }
+
+    // Encerra a reserva (CANCELLED ou EXPIRED) obtendo os locks do usuário e do item. Retorna false se
+    // ela já não estava ativa (ex.: o item foi retirado antes de obtermos o lock) ou, em EXPIRED, se o
+    // prazo de retirada ainda não passou.
+    private boolean closeActiveHold(Hold hold, Hold.Status finalStatus, LocalDate date) {
+        ReentrantLock userLock = userLocks.lockFor(hold.getUser().getCPF());
+        ReentrantLock itemLock = itemLocks.lockFor(hold.getItemId());
+        userLock.lock();
+        itemLock.lock();
+        try {
+            boolean wasReady = hold.getStatus() == Hold.Status.READY;
+            if (!hold.getStatus().isActive() || (finalStatus == Hold.Status.EXPIRED && (!wasReady || !hold.getPickupDeadline().isBefore(date)))) {
+                return false;
+            }
+            holds.close(hold, finalStatus);
+            if (journal != null) {
+                journal.recordCloseHold(hold, date);
+            }
+            DomainEventPublisher publisher = eventPublisher;
+            if (publisher != null) {
+                publisher.recordHold(finalStatus == Hold.Status.EXPIRED ? DomainEvent.Type.HOLD_EXPIRED : DomainEvent.Type.HOLD_CANCELLED, hold, date);
+            }
+            changes.publish(LibraryChange.Type.HOLD_CLOSED, hold.getItemId(), hold.getUser().getCPF(), hold.getId());
+            if (wasReady) {
+                changes.publish(LibraryChange.Type.AVAILABILITY_CHANGED, hold.getItemId(), null, 0);
+                allocateToNextHolder(hold.getItemId(), date);
+            }
+            return true;
+        } finally {
+            itemLock.unlock();
+            userLock.unlock();
+        }
+    }
+
+    // Separa os exemplares liberados (devolvidos, ou cuja reserva separada terminou) para os primeiros da
+    // fila que podem retirá-los agora: não bloqueado e com espaço no limite de empréstimos, contando os itens já
+    // separados para ele. Quem não pode mantém a posição na fila.
+    // Chamado com o lock do item obtido. O estado dos outros usuários é lido sem os seus locks; o
+    // empréstimo é validado de novo quando o usuário vem retirar o item.
+    private void allocateToNextHolder(String itemId, LocalDate date) {
+        if (holds.isEmpty() || !holdAllocation) {
+            return;
+        }
+        LibraryItem item = libraryItems.get(itemId);
+        if (item == null) {
+            return;
+        }
+        // Um exemplar separado por reserva atendida; com vários livres, vários da fila podem ser atendidos
+        while (item.getAvailableCopies() > holds.readyCount(itemId)) {
+            Hold hold = holds.allocate(itemId, this::canPickUp, date, date.plusDays(Hold.PICKUP_DAYS));
+            if (hold == null) {
+                return;
+            }
+            recordHoldReady(hold);
+        }
+    }
+
+    private boolean canPickUp(Hold hold) {
+        User user = hold.getUser();
+        return !user.isBlocked()
+                && getActiveBorrowCount(user.getCPF()) + holds.readyCountOf(user.getCPF()) < user.getUserType().getMaxBorrows();
+    }
+
+    // Recuperação do journal: separa o item para a reserva indicada, como na data original
+    boolean allocateHold(long holdId, LocalDate readyDate) {
+        Hold waiting = holds.find(holdId);
+        if (waiting == null) {
+            return false;
+        }
+        ReentrantLock itemLock = itemLocks.lockFor(waiting.getItemId());
+        itemLock.lock();
+        try {
+            Hold hold = holds.allocate(waiting.getItemId(), candidate -> candidate == waiting, readyDate, readyDate.plusDays(Hold.PICKUP_DAYS));
+            if (hold == null) {
+                return false;
+            }
+            recordHoldReady(hold);
+            return true;
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    private void recordHoldReady(Hold hold) {
+        if (journal != null) {
+            journal.recordHoldReady(hold);
+        }
+        DomainEventPublisher publisher = eventPublisher;
+        if (publisher != null) {
+            publisher.recordHold(DomainEvent.Type.HOLD_READY, hold, hold.getReadyDate());
+        }
+        changes.publish(LibraryChange.Type.HOLD_READY, hold.getItemId(), hold.getUser().getCPF(), hold.getId());
+        changes.publish(LibraryChange.Type.AVAILABILITY_CHANGED, hold.getItemId(), null, 0);
+        EventLog.log(LibraryEvent.HOLD_READY, hold.getItem().getTitle(), hold.getUser().getName(), hold.getPickupDeadline());
+    }
+
+    // Verdadeiro se todos os exemplares livres estão separados para outros usuários. Quem tem um
+    // exemplar separado pode retirá-lo.
+    private boolean isReservedForOther(User user, String itemId, LibraryItem item) {
+        if (holds.isEmpty()) {
+            return false;
+        }
+        Hold own = holds.activeHold(user.getCPF(), itemId);
+        if (own != null && own.getStatus() == Hold.Status.READY) {
+            return false;
+        }
+        return item.getAvailableCopies() <= holds.readyCount(itemId);
+    }
+
+    // Verdadeiro se o título tem exemplares livres, mas todos estão separados para quem os reservou
+    public boolean isItemReserved(String itemId) {
+        if (itemId == null || holds.isEmpty()) {
+            return false;
+        }
+        LibraryItem item = libraryItems.get(itemId);
+        return item != null && item.isAvailable() && item.getAvailableCopies() <= holds.readyCount(itemId);
+    }
+
+    // Reservas ativas do item: as separadas (se houver) e depois a fila, em ordem
+    public List<Hold> getHolds(String itemId) {
+        return itemId == null ? new ArrayList<>() : holds.holdsOf(itemId);
+    }
+
+    public List<Hold> getHoldsOf(String userCpf) {
+        return userCpf == null ? new ArrayList<>() : holds.holdsOfUser(userKey(userCpf));
+    }
+
     public List<LibraryItem> getMostBorrowedItems(int limit) {
-        return libraryItems.values().stream()
-                .sorted((item1, item2) -> Integer.compare(item2.getBorrowCount(), item1.getBorrowCount()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        return itemRanking.top(limit);
     }
 
     public List<User> getUsersWithMostBorrows(int limit) {
-        Map<User, Long> userBorrowCounts = borrowHistory.stream()
-                .collect(Collectors.groupingBy(Borrow::getUser, Collectors.counting()));
+        return userRanking.top(limit);
+    }
 
-        return userBorrowCounts.entrySet().stream()
-                .sorted(Map.Entry.<User, Long>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .limit(limit)
-                .collect(Collectors.toList());
+    public long getTotalBorrowCount(String userCpf) {
+        User user = getUser(userCpf);
+        return user == null ? 0 : userRanking.countOf(user);
     }
 
     public List<Borrow> getOverdueItems() {
-        LocalDate today = LocalDate.now();
-        return activeBorrows.stream()
-                .filter(borrow -> today.isAfter(borrow.getDueDate()))
-                .collect(Collectors.toList());
+        return dueDates.overdue(LocalDate.now());
+    }
+
+    public List<Borrow> getBorrowsDueWithin(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Quantidade de dias não pode ser negativa.");
+        }
+        return dueDates.dueWithin(LocalDate.now(), days);
     }
 
     public double getTotalPenaltyRevenue() {
-        return paidPenalties.stream()
-                .mapToDouble(Penalty::getAmount)
-                .sum();
+        return penalties.paidCents() / 100.0;
+    }
+
+    // Totais de multas em centavos (valores exatos, mantidos a cada devolução e pagamento)
+    public long getTotalPenaltyRevenueCents() {
+        return penalties.paidCents();
+    }
+
+    public long getTotalPendingPenaltyCents() {
+        return penalties.pendingCents();
+    }
+
+    public long getPenaltyRevenueCents(User.UserType userType) {
+        return penalties.paidCents(userType);
+    }
+
+    public long getPendingPenaltyCents(User.UserType userType) {
+        return penalties.pendingCents(userType);
+    }
+
+    public NavigableMap<LocalDate, Long> getDailyPenaltyRevenueCents(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Período de consulta inválido.");
+        }
+        return penalties.paidCentsByDay(from, to);
+    }
+
+    // --- Persistência (journal e snapshots) ---
+
+    // Salva um snapshot do estado atual, pausando as operações enquanto ele é gravado.
+    // Sem journal associado, não faz nada.
+    public void checkpoint() {
+        if (journal == null) {
+            return;
+        }
+        userLocks.lockAll();
+        itemLocks.lockAll();
+        try {
+            journal.writeSnapshot(this);
+        } finally {
+            itemLocks.unlockAll();
+            userLocks.unlockAll();
+        }
+    }
+
+    // Grava o que estiver pendente e fecha o journal, se houver.
+    @Override
+    public void close() throws IOException {
+        metrics.unregisterMBeans();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    void attachJournal(LibraryJournal journal) {
+        this.journal = journal;
+    }
+
+    // Desligado enquanto o journal é refeito: cada separação tem o seu próprio registro
+    void setHoldAllocation(boolean enabled) {
+        this.holdAllocation = enabled;
+    }
+
+    // Chamado depois de liberar os locks da operação: grava o journal e publica os eventos registrados
+    // sob os locks (ver DomainEventPublisher), para nenhuma espera por disco ou assinante segurar um lock
+    private void commitPending() {
+        if (journal != null) {
+            journal.commit();
+            if (journal.isSnapshotDue()) {
+                checkpoint();
+            }
+        }
+        DomainEventPublisher.publishPending();
+    }
+
+    List<User> registeredUsers() {
+        return new ArrayList<>(users.values());
+    }
+
+    int borrowCount() {
+        return closedBorrows.size() + activeBorrows.size();
+    }
+
+    // Todos os empréstimos: os encerrados na ordem do histórico e depois os em aberto, em ordem de ID
+    void forEachBorrow(Consumer<Borrow> action) {
+        closedBorrows.forEach(action);
+        List<Borrow> open = activeBorrows.values();
+        open.sort(Comparator.comparingLong(Borrow::getId));
+        open.forEach(action);
+    }
+
+    // Empréstimos em aberto, sem ordem definida
+    List<Borrow> openBorrows() {
+        return activeBorrows.values();
+    }
+
+    // Empréstimos no índice de vencimentos (deve ser igual a openBorrows().size())
+    int dueDateCount() {
+        return dueDates.size();
+    }
+
+    // Reservas ativas, item a item: a separada e depois a fila, em ordem
+    List<Hold> activeHolds() {
+        return holds.all();
+    }
+
+    List<Penalty> allPenalties() {
+        List<Penalty> all = penalties.paid();
+        all.addAll(penalties.pending());
+        return all;
+    }
+
+    // Métodos de restauração de snapshot: reconstroem o estado sem validações de regra de negócio
+    // nem registro no journal.
+
+    void restoreItem(LibraryItem item) {
+        LibraryItem previousItem = libraryItems.put(getItemIdentifier(item), item);
+        if (previousItem != null) {
+            itemRanking.remove(previousItem);
+            searchIndex.remove(previousItem);
+            catalogIndex.remove(previousItem);
+        }
+        itemRanking.update(item, item.getBorrowCount());
+        searchIndex.add(item);
+        catalogIndex.add(item);
+    }
+
+    void restoreUser(User user) {
+        users.put(user.getCPF(), user);
+    }
+
+    // 'copy': exemplar emprestado; o estado dos exemplares vem do próprio item restaurado
+    Borrow restoreBorrow(long borrowId, String userCpf, String itemId, int copy, LocalDate borrowDate,
+                         LocalDate dueDate, LocalDate returnDate, boolean renewed) {
+        User user = users.get(userCpf);
+        LibraryItem item = libraryItems.get(itemId);
+        if (user == null || item == null) {
+            throw new IllegalStateException("Snapshot inconsistente: empréstimo " + IdCodec.format(borrowId) + " sem usuário ou item.");
+        }
+        Borrow borrow = new Borrow(newId(borrowId), user, item, copy, borrowDate, dueDate);
+        borrow.setReturnDate(returnDate);
+        borrow.setRenewed(renewed);
+        userRanking.increment(user);
+        if (returnDate == null) {
+            user.addBorrowToHistory(borrow);
+            activeBorrows.put(borrowId, borrow);
+            dueDates.add(borrow);
+            activeBorrowCounts.merge(userCpf, 1, Integer::sum);
+        } else {
+            closedBorrows.add(borrow, itemId);
+            user.moveBorrowToArchive(borrow, closedBorrows);
+        }
+        return borrow;
+    }
+
+    // 'readyDate' nulo: a reserva ainda espera na fila (as reservas de cada item chegam em ordem)
+    void restoreHold(long holdId, String userCpf, String itemId, LocalDate placedDate, LocalDate readyDate, LocalDate pickupDeadline) {
+        User user = users.get(userCpf);
+        LibraryItem item = libraryItems.get(itemId);
+        if (user == null || item == null) {
+            throw new IllegalStateException("Snapshot inconsistente: reserva " + IdCodec.format(holdId) + " sem usuário ou item.");
+        }
+        Hold hold = new Hold(newId(holdId), user, itemId, item, placedDate);
+        if (readyDate == null) {
+            holds.enqueue(hold);
+        } else {
+            hold.markReady(readyDate, pickupDeadline);
+            holds.addReady(hold);
+        }
+    }
+
+    void restorePenalty(Penalty penalty, LocalDate paidDate) {
+        idGenerator.advancePast(penalty.getId());
+        if (paidDate == null) {
+            penalties.addPending(penalty);
+        } else {
+            penalties.restorePaid(penalty, paidDate);
+        }
     }
-}
\ No newline at end of file
+}
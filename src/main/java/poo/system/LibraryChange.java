@@ -0,0 +1,80 @@
+package poo.system;
+
+import java.util.Objects;
+
+// Alteração feita na biblioteca, entregue aos LibraryChangeListener registrados em Library.addChangeListener.
+// Leva apenas identificadores (ID do item, CPF, ID do empréstimo, da multa ou da reserva); o estado atual é lido
+// da Library por quem recebe. Dois avisos iguais podem ser tratados como um só (equals compara tudo).
+public final class LibraryChange {
+
+    public enum Type {
+        ITEM_ADDED,
+        ITEM_UPDATED,
+        AVAILABILITY_CHANGED,
+        BORROW_COUNT_CHANGED,
+        BORROW_OPENED,
+        BORROW_RENEWED,
+        BORROW_CLOSED,
+        PENALTY_ISSUED,
+        PENALTY_PAID,
+        HOLD_PLACED,
+        HOLD_READY,
+        HOLD_CLOSED
+    }
+
+    private final Type type;
+    private final String itemId; // Nulo em alterações de multa
+    private final String userCpf; // Nulo em alterações que são apenas do item
+    private final long id; // ID do empréstimo, da multa ou da reserva; 0 nas demais
+
+    LibraryChange(Type type, String itemId, String userCpf, long id) {
+        this.type = type;
+        this.itemId = itemId;
+        this.userCpf = userCpf;
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public String getUserCpf() {
+        return userCpf;
+    }
+
+    // ID do empréstimo (BORROW_*), da multa (PENALTY_*) ou da reserva (HOLD_*); em texto com IdCodec.format
+    public long getId() {
+        return id;
+    }
+
+    public boolean isItemChange() {
+        return type == Type.ITEM_ADDED || type == Type.ITEM_UPDATED || type == Type.AVAILABILITY_CHANGED
+                || type == Type.BORROW_COUNT_CHANGED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LibraryChange other)) {
+            return false;
+        }
+        return type == other.type && id == other.id && Objects.equals(itemId, other.itemId) && Objects.equals(userCpf, other.userCpf);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, itemId, userCpf, id);
+    }
+
+    @Override
+    public String toString() {
+        return type + (itemId != null ? " item=" + itemId : "") + (userCpf != null ? " cpf=" + userCpf : "")
+                + (id != 0 ? " id=" + IdCodec.format(id) : "");
+    }
+}
@@ -0,0 +1,11 @@
+package poo.system;
+
+// Recebe as alterações da biblioteca (ver Library.addChangeListener).
+// É chamado na thread que fez a operação, com os locks do usuário e do item ainda obtidos: deve ser
+// rápido e não pode chamar a Library. Interfaces gráficas devem apenas guardar o aviso e tratá-lo
+// depois na sua própria thread (ex.: poo.view.LibraryChangeDispatcher).
+@FunctionalInterface
+public interface LibraryChangeListener {
+
+    void onChange(LibraryChange change);
+}
@@ -0,0 +1,615 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.LibraryItem;
+import poo.log.EventLog;
+import poo.log.LogLevel;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Journal (write-ahead log) das alterações da biblioteca, com snapshots periódicos.
+//
+// Cada alteração bem-sucedida vira um registro binário anexado ao arquivo "journal-<seq>.log".
+// Os registros ficam num buffer e são gravados em lote (group commit): a thread que chega em
+// commit() grava tudo o que estiver pendente, inclusive registros de outras threads, com um único fsync.
+// A cada 'snapshotInterval' registros o estado completo é salvo em "snapshot-<seq>.bin" e um novo
+// journal é iniciado, limitando o tempo de recuperação.
+public final class LibraryJournal implements Closeable {
+
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final byte ADD_ITEM = 1;
+    private static final byte UPDATE_ITEM = 2;
+    private static final byte REGISTER_USER = 3;
+    private static final byte BORROW = 4;
+    private static final byte RETURN = 5;
+    private static final byte RENEW = 6;
+    private static final byte PAY_PENALTY = 7;
+    private static final byte PAY_ALL_PENALTIES = 8;
+    private static final byte PLACE_HOLD = 9;
+    private static final byte HOLD_READY = 10;
+    private static final byte CLOSE_HOLD = 11;
+
+    private static final int SNAPSHOT_MAGIC = 0x504C534E; // "PLSN"
+    private static final int SNAPSHOT_VERSION = 5; // 3: multa gravada junto do seu empréstimo; 4: reservas; 5: exemplares
+    private static final int SNAPSHOT_VERSION_WITHOUT_HOLDS = 3; // Versões 3 e 4 ainda são lidas
+    private static final int SNAPSHOT_VERSION_WITH_HOLDS = 4;
+    private static final int SNAPSHOT_VERSION_WITH_COPIES = 5;
+    private static final int RECORD_HEADER_BYTES = 8; // Tamanho (int) + CRC32 (int)
+    private static final Hold.Status[] HOLD_STATUSES = Hold.Status.values();
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long snapshotInterval;
+    private final ReentrantLock flushLock; // Apenas uma thread grava no arquivo por vez
+
+    // Protegidos pelo monitor do journal
+    private ByteArrayOutputStream pending;
+    private long appendedSeq;
+
+    // Protegidos por flushLock
+    private FileChannel channel;
+    private long durableSeq;
+    private volatile long snapshotSeq;
+    private volatile boolean closed;
+
+    private LibraryJournal(Path directory, boolean fsync, long snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Intervalo de snapshot deve ser positivo.");
+        }
+        this.directory = directory;
+        this.fsync = fsync;
+        this.snapshotInterval = snapshotInterval;
+        this.flushLock = new ReentrantLock();
+        this.pending = new ByteArrayOutputStream();
+    }
+
+    public static Library openLibrary(Path directory) throws IOException {
+        return openLibrary(directory, true, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    // Recupera a biblioteca gravada no diretório (último snapshot + journal) e passa a registrar nele.
+    // Com fsync = false os registros vão para o cache do sistema operacional, sem esperar o disco.
+    public static Library openLibrary(Path directory, boolean fsync, long snapshotInterval) throws IOException {
+        Files.createDirectories(directory);
+        LibraryJournal journal = new LibraryJournal(directory, fsync, snapshotInterval);
+        Library library = new Library();
+
+        // As operações refeitas já foram informadas quando aconteceram: apenas avisos e erros aparecem
+        LogLevel previousLevel = EventLog.getLevel();
+        if (previousLevel.compareTo(LogLevel.WARN) < 0) {
+            EventLog.setLevel(LogLevel.WARN);
+        }
+        long seq;
+        library.setHoldAllocation(false); // Cada item separado tem o seu registro HOLD_READY
+        try {
+            seq = journal.loadLatestSnapshot(library);
+            journal.snapshotSeq = seq;
+            for (Path journalFile : journal.journalFilesFrom(seq)) {
+                seq = journal.replay(journalFile, seq, library);
+            }
+        } finally {
+            EventLog.setLevel(previousLevel);
+            library.setHoldAllocation(true);
+        }
+        journal.appendedSeq = seq;
+        journal.durableSeq = seq;
+        journal.channel = journal.openJournalFile(journal.journalStartingAt(seq));
+
+        // As métricas contam a partir da abertura, não as operações refeitas
+        library.getMetrics().reset();
+        library.attachJournal(journal);
+        return library;
+    }
+
+    // --- Registro das operações (chamado pela Library com os locks da operação obtidos) ---
+
+    void recordAddItem(LibraryItem item) {
+        append(out -> {
+            out.writeByte(ADD_ITEM);
+            StateCodec.writeItem(out, item);
+        });
+    }
+
+    void recordUpdateItem(String oldItemId, LibraryItem updatedItem) {
+        append(out -> {
+            out.writeByte(UPDATE_ITEM);
+            out.writeUTF(oldItemId);
+            StateCodec.writeItem(out, updatedItem);
+        });
+    }
+
+    void recordRegisterUser(User user) {
+        append(out -> {
+            out.writeByte(REGISTER_USER);
+            StateCodec.writeUser(out, user);
+        });
+    }
+
+    void recordBorrow(Borrow borrow, String itemId) {
+        append(out -> {
+            out.writeByte(BORROW);
+            out.writeLong(borrow.getId());
+            out.writeUTF(borrow.getUser().getCPF());
+            out.writeUTF(itemId);
+            StateCodec.writeDate(out, borrow.getBorrowDate());
+        });
+    }
+
+    void recordReturn(Borrow borrow, Penalty penalty) {
+        append(out -> {
+            out.writeByte(RETURN);
+            out.writeLong(borrow.getId());
+            StateCodec.writeDate(out, borrow.getReturnDate());
+            out.writeLong(penalty == null ? 0 : penalty.getId());
+        });
+    }
+
+    void recordRenew(Borrow borrow, LocalDate renewalDate) {
+        append(out -> {
+            out.writeByte(RENEW);
+            out.writeLong(borrow.getId());
+            StateCodec.writeDate(out, renewalDate);
+        });
+    }
+
+    void recordPayPenalty(Penalty penalty) {
+        append(out -> {
+            out.writeByte(PAY_PENALTY);
+            out.writeLong(penalty.getId());
+            StateCodec.writeDate(out, penalty.getPaidDate());
+        });
+    }
+
+    void recordPayAllPenalties(String userCpf, LocalDate paymentDate) {
+        append(out -> {
+            out.writeByte(PAY_ALL_PENALTIES);
+            out.writeUTF(userCpf);
+            StateCodec.writeDate(out, paymentDate);
+        });
+    }
+
+    void recordPlaceHold(Hold hold) {
+        append(out -> {
+            out.writeByte(PLACE_HOLD);
+            out.writeLong(hold.getId());
+            out.writeUTF(hold.getUser().getCPF());
+            out.writeUTF(hold.getItemId());
+            StateCodec.writeDate(out, hold.getPlacedDate());
+        });
+    }
+
+    // O prazo de retirada não é gravado: é sempre a data da separação mais Hold.PICKUP_DAYS
+    void recordHoldReady(Hold hold) {
+        append(out -> {
+            out.writeByte(HOLD_READY);
+            out.writeLong(hold.getId());
+            StateCodec.writeDate(out, hold.getReadyDate());
+        });
+    }
+
+    // Cancelamento ou expiração; a retirada (FULFILLED) é refeita pelo próprio empréstimo
+    void recordCloseHold(Hold hold, LocalDate date) {
+        append(out -> {
+            out.writeByte(CLOSE_HOLD);
+            out.writeLong(hold.getId());
+            out.writeByte(hold.getStatus().ordinal());
+            StateCodec.writeDate(out, date);
+        });
+    }
+
+    // Garante que tudo o que foi registrado até agora está gravado (e sincronizado, se fsync).
+    void commit() {
+        long target;
+        synchronized (this) {
+            target = appendedSeq;
+        }
+        flushLock.lock();
+        try {
+            if (durableSeq < target) {
+                flushPending();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o journal da biblioteca.", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    synchronized boolean isSnapshotDue() {
+        return appendedSeq - snapshotSeq >= snapshotInterval;
+    }
+
+    // Salva o estado completo e inicia um novo journal. A Library chama com todos os locks obtidos,
+    // então nenhuma operação está em andamento e o snapshot corresponde exatamente a 'appendedSeq'.
+    void writeSnapshot(Library library) {
+        flushLock.lock();
+        try {
+            flushPending();
+            long seq = durableSeq;
+            if (seq == snapshotSeq) {
+                return; // Nada mudou desde o último snapshot
+            }
+
+            Path target = directory.resolve(snapshotName(seq));
+            Path temp = directory.resolve(snapshotName(seq) + ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                writeState(out, library, seq);
+            }
+            if (fsync) {
+                try (FileChannel snapshotChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    snapshotChannel.force(true);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            channel.close();
+            channel = openJournalFile(journalStartingAt(seq));
+            snapshotSeq = seq;
+            deleteFilesBefore(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o snapshot da biblioteca.", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushLock.lock();
+        try {
+            if (!closed) {
+                flushPending();
+                channel.close();
+                closed = true;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // --- Gravação ---
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private void append(RecordWriter writer) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writer.write(out);
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Não ocorre ao escrever em memória
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal da biblioteca já foi fechado.");
+            }
+            writeInt(pending, payload.length);
+            writeInt(pending, (int) crc.getValue());
+            pending.write(payload, 0, payload.length);
+            appendedSeq++;
+        }
+    }
+
+    // Chamado com flushLock obtido
+    private void flushPending() throws IOException {
+        byte[] batch;
+        long batchSeq;
+        synchronized (this) {
+            batch = pending.toByteArray();
+            batchSeq = appendedSeq;
+            pending = new ByteArrayOutputStream(Math.max(256, batch.length));
+        }
+        if (batch.length > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+        durableSeq = batchSeq;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private void writeState(DataOutputStream out, Library library, long seq) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(seq);
+
+        List<LibraryItem> items = library.listAllItems();
+        out.writeInt(items.size());
+        for (LibraryItem item : items) {
+            StateCodec.writeItemWithState(out, item);
+        }
+
+        List<User> users = library.registeredUsers();
+        out.writeInt(users.size());
+        for (User user : users) {
+            StateCodec.writeUserWithState(out, user);
+        }
+
+        // Cada empréstimo gera no máximo uma multa, gravada logo depois dele: a leitura cria a multa com o
+        // Borrow recém-lido, sem manter um mapa de todos os empréstimos
+        LongHashMap<Penalty> penaltiesByBorrow = new LongHashMap<>();
+        for (Penalty penalty : library.allPenalties()) {
+            penaltiesByBorrow.put(penalty.getBorrow().getId(), penalty);
+        }
+        out.writeInt(library.borrowCount());
+        try {
+            library.forEachBorrow(borrow -> {
+                try {
+                    writeBorrow(out, library, borrow, penaltiesByBorrow.get(borrow.getId()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<Hold> holds = library.activeHolds();
+        out.writeInt(holds.size());
+        for (Hold hold : holds) {
+            out.writeLong(hold.getId());
+            out.writeUTF(hold.getUser().getCPF());
+            out.writeUTF(hold.getItemId());
+            StateCodec.writeDate(out, hold.getPlacedDate());
+            StateCodec.writeDate(out, hold.getReadyDate());
+            StateCodec.writeDate(out, hold.getPickupDeadline());
+        }
+    }
+
+    private static void writeBorrow(DataOutputStream out, Library library, Borrow borrow, Penalty penalty) throws IOException {
+        out.writeLong(borrow.getId());
+        out.writeUTF(borrow.getUser().getCPF());
+        out.writeUTF(library.getItemIdentifier(borrow.getItem()));
+        out.writeInt(borrow.getCopy());
+        StateCodec.writeDate(out, borrow.getBorrowDate());
+        StateCodec.writeDate(out, borrow.getDueDate());
+        StateCodec.writeDate(out, borrow.getReturnDate());
+        out.writeBoolean(borrow.isRenewed());
+        out.writeBoolean(penalty != null);
+        if (penalty != null) {
+            out.writeLong(penalty.getId());
+            out.writeLong(penalty.getAmountCents());
+            out.writeByte(penalty.getUserType().ordinal());
+            StateCodec.writeDate(out, penalty.getPaidDate());
+        }
+    }
+
+    // --- Recuperação ---
+
+    // Carrega o snapshot mais recente (se houver) e retorna a sequência que ele representa
+    private long loadLatestSnapshot(Library library) throws IOException {
+        long latest = latestSequence("snapshot-", ".bin");
+        if (latest < 0) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(MappedFileInput.open(directory.resolve(snapshotName(latest))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Snapshot inválido: " + snapshotName(latest));
+            }
+            int version = in.readInt();
+            if (version < SNAPSHOT_VERSION_WITHOUT_HOLDS || version > SNAPSHOT_VERSION) {
+                throw new IOException("Snapshot inválido: " + snapshotName(latest));
+            }
+            long seq = in.readLong();
+
+            int itemCount = in.readInt();
+            for (int i = 0; i < itemCount; i++) {
+                library.restoreItem(StateCodec.readItemWithState(in, version >= SNAPSHOT_VERSION_WITH_COPIES));
+            }
+
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                library.restoreUser(StateCodec.readUserWithState(in));
+            }
+
+            int borrowCount = in.readInt();
+            for (int i = 0; i < borrowCount; i++) {
+                long borrowId = in.readLong();
+                String cpf = in.readUTF();
+                String itemId = in.readUTF();
+                int copy = version >= SNAPSHOT_VERSION_WITH_COPIES ? in.readInt() : 0;
+                LocalDate borrowDate = StateCodec.readDate(in);
+                LocalDate dueDate = StateCodec.readDate(in);
+                LocalDate returnDate = StateCodec.readDate(in);
+                boolean renewed = in.readBoolean();
+                Borrow borrow = library.restoreBorrow(borrowId, cpf, itemId, copy, borrowDate, dueDate, returnDate, renewed);
+                if (in.readBoolean()) {
+                    long penaltyId = in.readLong();
+                    long amountCents = in.readLong();
+                    User.UserType userType = StateCodec.readUserType(in);
+                    LocalDate paidDate = StateCodec.readDate(in);
+                    library.restorePenalty(new Penalty(penaltyId, amountCents, borrow, userType), paidDate);
+                }
+            }
+
+            if (version >= SNAPSHOT_VERSION_WITH_HOLDS) {
+                int holdCount = in.readInt();
+                for (int i = 0; i < holdCount; i++) {
+                    long holdId = in.readLong();
+                    String cpf = in.readUTF();
+                    String itemId = in.readUTF();
+                    LocalDate placedDate = StateCodec.readDate(in);
+                    LocalDate readyDate = StateCodec.readDate(in);
+                    LocalDate pickupDeadline = StateCodec.readDate(in);
+                    library.restoreHold(holdId, cpf, itemId, placedDate, readyDate, pickupDeadline);
+                }
+            }
+            return seq;
+        }
+    }
+
+    // Reaplica os registros do arquivo. Um registro incompleto ou corrompido no final (queda durante a
+    // gravação) encerra a leitura e é descartado do arquivo.
+    private long replay(Path journalFile, long seq, Library library) throws IOException {
+        long validBytes = 0;
+        try (InputStream file = Files.newInputStream(journalFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                apply(library, new DataInputStream(new ByteArrayInputStream(payload)), seq);
+                validBytes += RECORD_HEADER_BYTES + payload.length;
+                seq++;
+            }
+        }
+        if (Files.size(journalFile) > validBytes) {
+            try (FileChannel truncate = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                truncate.truncate(validBytes);
+            }
+        }
+        return seq;
+    }
+
+    private void apply(Library library, DataInputStream in, long seq) throws IOException {
+        byte type = in.readByte();
+        boolean applied = switch (type) {
+            case ADD_ITEM -> library.addItem(StateCodec.readItem(in));
+            case UPDATE_ITEM -> library.updateItem(in.readUTF(), StateCodec.readItem(in));
+            case REGISTER_USER -> library.registerUser(StateCodec.readUser(in));
+            case BORROW -> {
+                long borrowId = in.readLong();
+                String cpf = in.readUTF();
+                String itemId = in.readUTF();
+                yield library.performBorrow(cpf, itemId, StateCodec.readDate(in), borrowId) != null;
+            }
+            case RETURN -> {
+                long borrowId = in.readLong();
+                LocalDate returnDate = StateCodec.readDate(in);
+                long penaltyId = in.readLong(); // 0 quando a devolução não gerou multa
+                yield library.returnBorrow(borrowId, returnDate, penaltyId);
+            }
+            case RENEW -> library.renewBorrow(in.readLong(), StateCodec.readDate(in));
+            case PAY_PENALTY -> library.payPenalty(in.readLong(), StateCodec.readDate(in));
+            case PAY_ALL_PENALTIES -> !library.payAllPenalties(in.readUTF(), StateCodec.readDate(in)).isEmpty();
+            case PLACE_HOLD -> {
+                long holdId = in.readLong();
+                String cpf = in.readUTF();
+                String itemId = in.readUTF();
+                yield library.placeHold(cpf, itemId, StateCodec.readDate(in), holdId) != null;
+            }
+            case HOLD_READY -> library.allocateHold(in.readLong(), StateCodec.readDate(in));
+            case CLOSE_HOLD -> {
+                long holdId = in.readLong();
+                Hold.Status status = HOLD_STATUSES[in.readByte()];
+                yield library.closeHold(holdId, status, StateCodec.readDate(in));
+            }
+            default -> throw new IOException("Tipo de registro desconhecido no journal: " + type);
+        };
+        if (!applied) {
+            throw new IllegalStateException("Journal inconsistente: registro " + seq + " não pôde ser reaplicado.");
+        }
+    }
+
+    // --- Arquivos ---
+
+    private FileChannel openJournalFile(Path path) throws IOException {
+        FileChannel journalChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        journalChannel.position(journalChannel.size());
+        return journalChannel;
+    }
+
+    private Path journalStartingAt(long seq) {
+        return directory.resolve(String.format("journal-%020d.log", seq));
+    }
+
+    private static String snapshotName(long seq) {
+        return String.format("snapshot-%020d.bin", seq);
+    }
+
+    // Journals que começam a partir do snapshot carregado, em ordem
+    private List<Path> journalFilesFrom(long seq) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(path -> sequenceOf(path, "journal-", ".log") >= seq)
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    private long latestSequence(String prefix, String suffix) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.mapToLong(path -> sequenceOf(path, prefix, suffix)).max().orElse(-1);
+        }
+    }
+
+    private void deleteFilesBefore(long seq) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) entries::iterator) {
+                long journalSeq = sequenceOf(path, "journal-", ".log");
+                long snapshotFileSeq = sequenceOf(path, "snapshot-", ".bin");
+                if ((journalSeq >= 0 && journalSeq < seq) || (snapshotFileSeq >= 0 && snapshotFileSeq < seq)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static long sequenceOf(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(prefix) || !name.endsWith(suffix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package poo.system;
+
+import poo.metrics.LatencyHistogram;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Métricas de uma Library: contadores de operações, recusas por motivo, multas, latência de cada
+// operação pública e indicadores do estado atual (empréstimos abertos e vencidos, multas pendentes,
+// tamanho e memória do histórico de empréstimos encerrados).
+//
+// Os contadores são LongAdder (cada thread incrementa a sua célula, sem disputa entre atendentes) e as
+// latências vão para histogramas sem lock; o custo por operação é de duas leituras do relógio e alguns
+// incrementos. A medição de tempo pode ser desligada (setTimingEnabled); os contadores ficam sempre ligados.
+// Os indicadores são calculados na leitura.
+//
+// registerMBeans publica tudo no MBeanServer da plataforma (jconsole, VisualVM, agentes JMX).
+public final class LibraryMetrics implements LibraryMetricsMXBean {
+
+    private static final String DOMAIN = "poo.library";
+
+    private final LongAdder borrows;
+    private final LongAdder returns;
+    private final LongAdder renewals;
+    private final LongAdder penaltiesIssued;
+    private final LongAdder penaltyCentsIssued;
+    private final LongAdder penaltiesPaid;
+    private final LongAdder penaltyCentsPaid;
+    private final LongAdder[] rejections; // Indexado por FailureReason.ordinal()
+    private final Map<LibraryOperation, LatencyHistogram> latencies;
+
+    private final LongSupplier openBorrows;
+    private final LongSupplier overdueBorrows;
+    private final LongSupplier pendingPenaltyCents;
+    private final LongSupplier closedBorrows;
+    private final LongSupplier closedBorrowHistoryBytes;
+
+    private volatile boolean timingEnabled;
+    private final List<ObjectName> registeredNames;
+
+    LibraryMetrics(LongSupplier openBorrows, LongSupplier overdueBorrows, LongSupplier pendingPenaltyCents,
+                   LongSupplier closedBorrows, LongSupplier closedBorrowHistoryBytes) {
+        this.borrows = new LongAdder();
+        this.returns = new LongAdder();
+        this.renewals = new LongAdder();
+        this.penaltiesIssued = new LongAdder();
+        this.penaltyCentsIssued = new LongAdder();
+        this.penaltiesPaid = new LongAdder();
+        this.penaltyCentsPaid = new LongAdder();
+        this.rejections = new LongAdder[FailureReason.values().length];
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+        this.latencies = new EnumMap<>(LibraryOperation.class);
+        for (LibraryOperation operation : LibraryOperation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+        this.openBorrows = openBorrows;
+        this.overdueBorrows = overdueBorrows;
+        this.pendingPenaltyCents = pendingPenaltyCents;
+        this.closedBorrows = closedBorrows;
+        this.closedBorrowHistoryBytes = closedBorrowHistoryBytes;
+        this.timingEnabled = true;
+        this.registeredNames = new ArrayList<>();
+    }
+
+    // --- Registro (chamado pela Library) ---
+
+    // Início da medição de uma operação; 0 quando a medição de tempo está desligada
+    long startTimer() {
+        return timingEnabled ? System.nanoTime() : 0;
+    }
+
+    void stopTimer(LibraryOperation operation, long start) {
+        if (start != 0) {
+            latencies.get(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    void recordBorrow() {
+        borrows.increment();
+    }
+
+    void recordReturn(Penalty penalty) {
+        returns.increment();
+        if (penalty != null) {
+            penaltiesIssued.increment();
+            penaltyCentsIssued.add(penalty.getAmountCents());
+        }
+    }
+
+    void recordRenewal() {
+        renewals.increment();
+    }
+
+    void recordPayment(Penalty penalty) {
+        penaltiesPaid.increment();
+        penaltyCentsPaid.add(penalty.getAmountCents());
+    }
+
+    void recordRejection(FailureReason reason) {
+        rejections[reason.ordinal()].increment();
+    }
+
+    void recordRejections(BatchResult result) {
+        for (BatchResult.Entry entry : result.getEntries()) {
+            if (!entry.isSuccess()) {
+                recordRejection(entry.getFailure());
+            }
+        }
+    }
+
+    // --- Leitura ---
+
+    @Override
+    public long getBorrows() {
+        return borrows.sum();
+    }
+
+    @Override
+    public long getReturns() {
+        return returns.sum();
+    }
+
+    @Override
+    public long getRenewals() {
+        return renewals.sum();
+    }
+
+    @Override
+    public long getPenaltiesIssued() {
+        return penaltiesIssued.sum();
+    }
+
+    public long getPenaltyCentsIssued() {
+        return penaltyCentsIssued.sum();
+    }
+
+    @Override
+    public double getPenaltyAmountIssued() {
+        return getPenaltyCentsIssued() / 100.0;
+    }
+
+    @Override
+    public long getPenaltiesPaid() {
+        return penaltiesPaid.sum();
+    }
+
+    public long getPenaltyCentsPaid() {
+        return penaltyCentsPaid.sum();
+    }
+
+    @Override
+    public double getPenaltyAmountPaid() {
+        return getPenaltyCentsPaid() / 100.0;
+    }
+
+    public long getRejections(FailureReason reason) {
+        return rejections[reason.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getRejections() {
+        Map<String, Long> byReason = new LinkedHashMap<>();
+        for (FailureReason reason : FailureReason.values()) {
+            byReason.put(reason.name(), getRejections(reason));
+        }
+        return byReason;
+    }
+
+    @Override
+    public long getTotalRejections() {
+        long total = 0;
+        for (LongAdder counter : rejections) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    public LatencyHistogram getLatency(LibraryOperation operation) {
+        return latencies.get(operation);
+    }
+
+    @Override
+    public long getOpenBorrows() {
+        return openBorrows.getAsLong();
+    }
+
+    @Override
+    public long getOverdueBorrows() {
+        return overdueBorrows.getAsLong();
+    }
+
+    public long getPendingPenaltyCents() {
+        return pendingPenaltyCents.getAsLong();
+    }
+
+    @Override
+    public double getPendingPenaltyBalance() {
+        return getPendingPenaltyCents() / 100.0;
+    }
+
+    @Override
+    public long getClosedBorrows() {
+        return closedBorrows.getAsLong();
+    }
+
+    @Override
+    public long getClosedBorrowHistoryBytes() {
+        return closedBorrowHistoryBytes.getAsLong();
+    }
+
+    // Memória do histórico projetada para um milhão de empréstimos encerrados; 0 com o histórico vazio
+    @Override
+    public double getClosedBorrowHistoryBytesPerMillion() {
+        long count = getClosedBorrows();
+        return count == 0 ? 0 : getClosedBorrowHistoryBytes() * 1_000_000.0 / count;
+    }
+
+    @Override
+    public boolean isTimingEnabled() {
+        return timingEnabled;
+    }
+
+    @Override
+    public void setTimingEnabled(boolean enabled) {
+        this.timingEnabled = enabled;
+    }
+
+    // Zera contadores e histogramas (os indicadores refletem o estado atual e não são afetados)
+    @Override
+    public void reset() {
+        borrows.reset();
+        returns.reset();
+        renewals.reset();
+        penaltiesIssued.reset();
+        penaltyCentsIssued.reset();
+        penaltiesPaid.reset();
+        penaltyCentsPaid.reset();
+        for (LongAdder counter : rejections) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : latencies.values()) {
+            histogram.reset();
+        }
+    }
+
+    // --- JMX ---
+
+    // Publica as métricas como "poo.library:type=Library,name=<name>" e a latência de cada operação como
+    // "poo.library:type=OperationLatency,name=<name>,operation=<operação>"
+    public synchronized void registerMBeans(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome da biblioteca não pode ser nulo ou vazio.");
+        }
+        if (!registeredNames.isEmpty()) {
+            throw new IllegalStateException("Métricas já publicadas como " + registeredNames.get(0) + ".");
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String quotedName = ObjectName.quote(name);
+        try {
+            register(server, this, new ObjectName(DOMAIN + ":type=Library,name=" + quotedName));
+            for (LibraryOperation operation : LibraryOperation.values()) {
+                ObjectName objectName = new ObjectName(DOMAIN + ":type=OperationLatency,name=" + quotedName
+                        + ",operation=" + operation.getMetricName());
+                register(server, new OperationLatency(latencies.get(operation)), objectName);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            unregisterMBeans();
+            throw new IllegalArgumentException("Já existe uma biblioteca publicada com o nome '" + name + "'.");
+        } catch (JMException e) {
+            unregisterMBeans();
+            throw new IllegalStateException("Falha ao publicar as métricas: " + e.getMessage(), e);
+        }
+    }
+
+    private void register(MBeanServer server, Object mbean, ObjectName objectName) throws JMException {
+        server.registerMBean(mbean, objectName);
+        registeredNames.add(objectName);
+    }
+
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registeredNames) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (InstanceNotFoundException e) {
+                // Já removido por outro meio
+            } catch (JMException e) {
+                throw new IllegalStateException("Falha ao remover o MBean " + objectName + ": " + e.getMessage(), e);
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private static final class OperationLatency implements OperationLatencyMXBean {
+        private static final double NANOS_PER_MICRO = 1_000.0;
+
+        private final LatencyHistogram histogram;
+
+        private OperationLatency(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            return histogram.getMeanNanos() / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return histogram.getPercentileNanos(50) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP90Micros() {
+            return histogram.getPercentileNanos(90) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP99Micros() {
+            return histogram.getPercentileNanos(99) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getP999Micros() {
+            return histogram.getPercentileNanos(99.9) / NANOS_PER_MICRO;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return histogram.getMaxNanos() / NANOS_PER_MICRO;
+        }
+    }
+}
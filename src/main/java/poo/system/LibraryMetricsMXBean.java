@@ -0,0 +1,45 @@
+package poo.system;
+
+import java.util.Map;
+
+// Contadores e indicadores da biblioteca publicados via JMX ("poo.library:type=Library,name=...").
+public interface LibraryMetricsMXBean {
+
+    long getBorrows();
+
+    long getReturns();
+
+    long getRenewals();
+
+    long getPenaltiesIssued();
+
+    double getPenaltyAmountIssued();
+
+    long getPenaltiesPaid();
+
+    double getPenaltyAmountPaid();
+
+    // Recusas por motivo (nome de FailureReason -> quantidade)
+    Map<String, Long> getRejections();
+
+    long getTotalRejections();
+
+    long getOpenBorrows();
+
+    long getOverdueBorrows();
+
+    double getPendingPenaltyBalance();
+
+    long getClosedBorrows();
+
+    // Memória ocupada pelo histórico de empréstimos encerrados
+    long getClosedBorrowHistoryBytes();
+
+    double getClosedBorrowHistoryBytesPerMillion();
+
+    boolean isTimingEnabled();
+
+    void setTimingEnabled(boolean enabled);
+
+    void reset();
+}
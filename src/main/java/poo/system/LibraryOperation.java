@@ -0,0 +1,26 @@
+package poo.system;
+
+// Operações públicas da Library com tempo de execução medido (ver LibraryMetrics).
+public enum LibraryOperation {
+    BORROW("emprestimo"),
+    BATCH_BORROW("emprestimo-lote"),
+    RETURN("devolucao"),
+    BATCH_RETURN("devolucao-lote"),
+    RENEW("renovacao"),
+    BATCH_RENEW("renovacao-lote"),
+    PAY_PENALTY("pagamento-multa"),
+    PAY_ALL_PENALTIES("pagamento-multas"),
+    PLACE_HOLD("reserva"),
+    CANCEL_HOLD("cancelamento-reserva");
+
+    private final String metricName;
+
+    LibraryOperation(String metricName) {
+        this.metricName = metricName;
+    }
+
+    // Nome usado no ObjectName do MBean de latência da operação
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,66 @@
+package poo.system;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Conjunto fixo de locks distribuídos por hash da chave (lock striping).
+// Operações sobre chaves diferentes raramente disputam o mesmo lock, sem precisar de um lock por chave.
+class LockStripes {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    LockStripes(int minimumStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1; // Próxima potência de 2
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock lockFor(Object key) {
+        return locks[indexFor(key)];
+    }
+
+    // Obtém os locks de várias chaves em ordem crescente de índice (sem repetir), evitando deadlock
+    // entre lotes que disputam as mesmas chaves. Retorna os locks obtidos, para unlockAll(List).
+    List<ReentrantLock> lockAll(Iterable<?> keys) {
+        TreeMap<Integer, ReentrantLock> ordered = new TreeMap<>();
+        for (Object key : keys) {
+            int index = indexFor(key);
+            ordered.put(index, locks[index]);
+        }
+        List<ReentrantLock> acquired = new ArrayList<>(ordered.values());
+        for (ReentrantLock lock : acquired) {
+            lock.lock();
+        }
+        return acquired;
+    }
+
+    static void unlockAll(List<ReentrantLock> acquired) {
+        for (int i = acquired.size() - 1; i >= 0; i--) {
+            acquired.get(i).unlock();
+        }
+    }
+
+    private int indexFor(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // Obtém todos os locks, sempre na mesma ordem (usado para pausar a biblioteca num checkpoint)
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
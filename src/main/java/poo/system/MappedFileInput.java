@@ -0,0 +1,53 @@
+package poo.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// InputStream sobre um arquivo mapeado em memória: a leitura vem direto das páginas do arquivo,
+// sem chamadas de read() nem cópias para buffers intermediários.
+final class MappedFileInput extends InputStream {
+
+    private final MappedByteBuffer buffer;
+
+    private MappedFileInput(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static MappedFileInput open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo grande demais para ser mapeado: " + file);
+            }
+            // O mapeamento continua válido depois que o canal é fechado
+            return new MappedFileInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,20 @@
+package poo.system;
+
+// Latência de uma operação da biblioteca, em microssegundos
+// ("poo.library:type=OperationLatency,name=...,operation=...").
+public interface OperationLatencyMXBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
@@ -0,0 +1,13 @@
+package poo.system;
+
+// O que o DomainEventPublisher faz quando um assinante fica para trás e o buffer circular enche.
+public enum OverflowPolicy {
+    // As operações da biblioteca esperam o assinante liberar espaço, por até DomainEventPublisher.MAX_BLOCK_NANOS;
+    // só depois disso o assinante perde eventos (como em DROP_OLDEST), até alcançar o buffer
+    BLOCK,
+    // Os eventos mais antigos ainda não entregues são sobrescritos; o assinante percebe pela sequência
+    DROP_OLDEST,
+    // Os eventos atrasados vão para um arquivo temporário e são entregues de lá, em ordem, quando o
+    // assinante pedir mais; as operações só esperam se o disco não acompanhar (com o limite de BLOCK)
+    SPILL
+}
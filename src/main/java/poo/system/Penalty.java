@@ -1,29 +1,47 @@
 package poo.system;
 
-import java.util.UUID; // For generating unique IDs
+import poo.entity.User;
+import java.time.LocalDate;
 
 public class Penalty {
-    private final String penaltyId;
+    private final long penaltyId; // Ver IdGenerator; em texto apenas em getPenaltyId()
     private final Borrow borrow;
-    private final double amount;
-    private boolean isPaid;
+    private final long amountCents; // Valor em centavos, evita erro acumulado de double
+    private final User.UserType userType; // Tipo do usuário quando a multa foi gerada
+    private volatile boolean isPaid;
+    private volatile LocalDate paidDate; // Nulo enquanto a multa estiver pendente
 
     public Penalty(Borrow borrow, double amount) {
+        this(IdGenerator.defaultGenerator().nextId(), Math.round(amount * 100), borrow, borrow == null ? null : borrow.getUser().getUserType());
+    }
+
+    // Usado pela Library (ID do seu gerador) e na recuperação do journal/snapshot (ID e tipo de usuário originais)
+    Penalty(long penaltyId, long amountCents, Borrow borrow, User.UserType userType) {
         if (borrow == null) {
             throw new IllegalArgumentException("Multa deve estar relacionada com um empréstimo válido.");
         }
-        if (amount < 0) {
+        if (amountCents < 0) {
             throw new IllegalArgumentException("Multa não pode ser de valor negativo.");
         }
 
-        this.penaltyId = UUID.randomUUID().toString(); // Gerando ID único
+        this.penaltyId = penaltyId;
         this.borrow = borrow;
-        this.amount = amount;
+        this.amountCents = amountCents;
+        this.userType = userType;
         this.isPaid = false; // Não paga por padrão
     }
 
+    // Cria uma multa a partir do valor exato em centavos
+    public static Penalty ofCents(Borrow borrow, long amountCents) {
+        return new Penalty(IdGenerator.defaultGenerator().nextId(), amountCents, borrow, borrow == null ? null : borrow.getUser().getUserType()); // Gerando ID único
+    }
+
     // Getters
     public String getPenaltyId() {
+        return IdCodec.format(penaltyId);
+    }
+
+    public long getId() {
         return penaltyId;
     }
 
@@ -32,7 +50,15 @@ public class Penalty {
     }
 
     public double getAmount() {
-        return amount;
+        return amountCents / 100.0;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public User.UserType getUserType() {
+        return userType;
     }
 
     public boolean isPaid() { // This getter is fine, even if not used internally
@@ -43,14 +69,22 @@ public class Penalty {
         isPaid = paid;
     }
 
+    public LocalDate getPaidDate() {
+        return paidDate;
+    }
+
+    void setPaidDate(LocalDate paidDate) {
+        this.paidDate = paidDate;
+    }
+
     @Override
     public String toString() {
         return "Penalty{" +
-                "penaltyId='" + penaltyId + '\'' +
+                "penaltyId='" + getPenaltyId() + '\'' +
                 ", borrowId='" + borrow.getBorrowId() + '\'' +
                 ", user='" + borrow.getUser().getName() + '\'' +
                 ", item='" + borrow.getItem().getTitle() + '\'' +
-                ", amount=" + String.format("%.2f", amount) +
+                ", amount=" + String.format("%.2f", getAmount()) +
                 ", isPaid=" + isPaid +
                 '}';
     }
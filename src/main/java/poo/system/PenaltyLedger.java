@@ -0,0 +1,163 @@
+package poo.system;
+
+import poo.entity.User;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Registro de multas indexado por ID e por CPF do usuário.
+// Mantém, para cada usuário, as multas pendentes, a quantidade e o saldo devedor,
+// além dos totais contábeis (pago, pendente, por tipo de usuário e por dia) em centavos.
+// Os métodos são sincronizados para manter índices e totais consistentes entre si.
+class PenaltyLedger {
+
+    private final LongHashMap<Penalty> pendingById;
+    private final Map<String, Set<Penalty>> pendingByUser; // CPF -> multas pendentes, na ordem em que foram geradas
+    private final Map<String, Long> pendingCentsByUser;
+    private final List<Penalty> paidPenalties;
+
+    private long paidCents;
+    private long pendingCents;
+    private final Map<User.UserType, Long> paidCentsByUserType;
+    private final Map<User.UserType, Long> pendingCentsByUserType;
+    private final NavigableMap<LocalDate, Long> paidCentsByDay;
+
+    PenaltyLedger() {
+        this.pendingById = new LongHashMap<>();
+        this.pendingByUser = new HashMap<>();
+        this.pendingCentsByUser = new HashMap<>();
+        this.paidPenalties = new ArrayList<>();
+        this.paidCentsByUserType = new EnumMap<>(User.UserType.class);
+        this.pendingCentsByUserType = new EnumMap<>(User.UserType.class);
+        this.paidCentsByDay = new TreeMap<>();
+    }
+
+    synchronized void addPending(Penalty penalty) {
+        String cpf = cpfOf(penalty);
+        long cents = penalty.getAmountCents();
+        pendingById.put(penalty.getId(), penalty);
+        pendingByUser.computeIfAbsent(cpf, k -> new LinkedHashSet<>()).add(penalty);
+        pendingCentsByUser.merge(cpf, cents, Long::sum);
+        pendingCents += cents;
+        pendingCentsByUserType.merge(penalty.getUserType(), cents, Long::sum);
+    }
+
+    synchronized Penalty findPending(long penaltyId) {
+        return pendingById.get(penaltyId);
+    }
+
+    // Marca a multa como paga e a retira dos índices de pendências. Retorna null se não estiver pendente.
+    synchronized Penalty settle(long penaltyId, LocalDate paymentDate) {
+        Penalty penalty = pendingById.remove(penaltyId);
+        if (penalty == null) {
+            return null;
+        }
+        String cpf = cpfOf(penalty);
+        Set<Penalty> userPenalties = pendingByUser.get(cpf);
+        userPenalties.remove(penalty);
+        if (userPenalties.isEmpty()) {
+            pendingByUser.remove(cpf);
+            pendingCentsByUser.remove(cpf);
+        } else {
+            pendingCentsByUser.merge(cpf, -penalty.getAmountCents(), Long::sum);
+        }
+        markPaid(penalty, paymentDate);
+        return penalty;
+    }
+
+    // Quita todas as multas pendentes do usuário, na ordem em que foram geradas.
+    synchronized List<Penalty> settleAll(String cpf, LocalDate paymentDate) {
+        Set<Penalty> userPenalties = pendingByUser.remove(cpf);
+        if (userPenalties == null) {
+            return new ArrayList<>();
+        }
+        pendingCentsByUser.remove(cpf);
+        List<Penalty> settled = new ArrayList<>(userPenalties);
+        for (Penalty penalty : settled) {
+            pendingById.remove(penalty.getId());
+            markPaid(penalty, paymentDate);
+        }
+        return settled;
+    }
+
+    synchronized boolean hasPending(String cpf) {
+        return pendingByUser.containsKey(cpf);
+    }
+
+    synchronized int pendingCount(String cpf) {
+        Set<Penalty> userPenalties = pendingByUser.get(cpf);
+        return userPenalties == null ? 0 : userPenalties.size();
+    }
+
+    synchronized long pendingCents(String cpf) {
+        return pendingCentsByUser.getOrDefault(cpf, 0L);
+    }
+
+    synchronized List<Penalty> pendingFor(String cpf) {
+        Set<Penalty> userPenalties = pendingByUser.get(cpf);
+        return userPenalties == null ? new ArrayList<>() : new ArrayList<>(userPenalties);
+    }
+
+    // Em ordem de ID, que no gerador padrão é a ordem em que as multas foram geradas
+    synchronized List<Penalty> pending() {
+        List<Penalty> pending = pendingById.values();
+        pending.sort(Comparator.comparingLong(Penalty::getId));
+        return pending;
+    }
+
+    synchronized List<Penalty> paid() {
+        return new ArrayList<>(paidPenalties);
+    }
+
+    synchronized long paidCents() {
+        return paidCents;
+    }
+
+    synchronized long pendingCents() {
+        return pendingCents;
+    }
+
+    synchronized long paidCents(User.UserType userType) {
+        return paidCentsByUserType.getOrDefault(userType, 0L);
+    }
+
+    synchronized long pendingCents(User.UserType userType) {
+        return pendingCentsByUserType.getOrDefault(userType, 0L);
+    }
+
+    // Receita por dia de pagamento entre 'from' e 'to', inclusive.
+    synchronized NavigableMap<LocalDate, Long> paidCentsByDay(LocalDate from, LocalDate to) {
+        return new TreeMap<>(paidCentsByDay.subMap(from, true, to, true));
+    }
+
+    // Restaura uma multa já paga (snapshot), sem passar pelas pendências
+    synchronized void restorePaid(Penalty penalty, LocalDate paymentDate) {
+        pendingCents += penalty.getAmountCents(); // Compensado em markPaid
+        pendingCentsByUserType.merge(penalty.getUserType(), penalty.getAmountCents(), Long::sum);
+        markPaid(penalty, paymentDate);
+    }
+
+    private void markPaid(Penalty penalty, LocalDate paymentDate) {
+        long cents = penalty.getAmountCents();
+        penalty.setPaid(true);
+        penalty.setPaidDate(paymentDate);
+        paidPenalties.add(penalty);
+        pendingCents -= cents;
+        paidCents += cents;
+        pendingCentsByUserType.merge(penalty.getUserType(), -cents, Long::sum);
+        paidCentsByUserType.merge(penalty.getUserType(), cents, Long::sum);
+        paidCentsByDay.merge(paymentDate, cents, Long::sum);
+    }
+
+    private static String cpfOf(Penalty penalty) {
+        return penalty.getBorrow().getUser().getCPF();
+    }
+}
@@ -0,0 +1,312 @@
+package poo.system;
+
+import poo.item.LibraryItem;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido de palavras do título e do autor de cada item.
+// As palavras são normalizadas: sem acentos ("Memórias" -> "memorias") e em minúsculas.
+//
+// Consulta: palavras separadas por espaço, todas obrigatórias (E); "term*" busca por prefixo.
+// Resultados ordenados pelo número de ocorrências dos termos (título e autor contam separadamente)
+// e depois pelo número de empréstimos do item.
+//
+// Leituras concorrentes são permitidas; alterações usam o lock de escrita.
+class SearchIndex {
+
+    // Prefixos com até esse número de palavras são conferidos pelos conjuntos de itens (ver search)
+    private static final int MAX_PREFIX_FILTER_WORDS = 16;
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt((Match m) -> m.hits)
+            .thenComparingInt(m -> m.item.getBorrowCount())
+            .reversed()
+            .thenComparing(m -> m.item.getTitle());
+
+    private final NavigableMap<String, Set<LibraryItem>> itemsByWord;
+    private final Map<LibraryItem, IndexedItem> indexedItems; // Palavras de cada item, para remoção e pontuação
+    private final ReadWriteLock lock;
+
+    SearchIndex() {
+        this.itemsByWord = new TreeMap<>();
+        this.indexedItems = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    void add(LibraryItem item) {
+        IndexedItem indexed = new IndexedItem(tokenize(item.getTitle()), tokenize(item.getAuthor()));
+        lock.writeLock().lock();
+        try {
+            if (indexedItems.putIfAbsent(item, indexed) != null) {
+                return;
+            }
+            for (String word : indexed.titleWords) {
+                itemsByWord.computeIfAbsent(word, w -> new HashSet<>()).add(item);
+            }
+            for (String word : indexed.authorWords) {
+                itemsByWord.computeIfAbsent(word, w -> new HashSet<>()).add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(LibraryItem item) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem indexed = indexedItems.remove(item);
+            if (indexed == null) {
+                return;
+            }
+            removeWords(item, indexed.titleWords);
+            removeWords(item, indexed.authorWords);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeWords(LibraryItem item, String[] words) {
+        for (String word : words) {
+            Set<LibraryItem> items = itemsByWord.get(word);
+            if (items != null && items.remove(item) && items.isEmpty()) {
+                itemsByWord.remove(word);
+            }
+        }
+    }
+
+    List<LibraryItem> search(String query, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limite não pode ser negativo.");
+        }
+        List<Term> terms = parseQuery(query);
+        if (terms.isEmpty() || limit == 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Os candidatos vêm do termo mais seletivo; os demais termos são conferidos item a item
+            Term driver = null;
+            long driverSize = Long.MAX_VALUE;
+            for (Term term : terms) {
+                long size = estimateSize(term, driverSize);
+                if (size < driverSize) {
+                    driver = term;
+                    driverSize = size;
+                }
+            }
+            if (driverSize == 0) {
+                return new ArrayList<>();
+            }
+
+            // Itens de cada termo, para conferir os candidatos sem olhar as palavras de cada um.
+            // Prefixos que abrangem muitas palavras ficam de fora e são conferidos pela pontuação.
+            List<Collection<Set<LibraryItem>>> filters = new ArrayList<>(terms.size());
+            for (Term term : terms) {
+                NavigableMap<String, Set<LibraryItem>> postings = postingsOf(term);
+                if (term != driver && hasAtMost(postings, MAX_PREFIX_FILTER_WORDS)) {
+                    filters.add(postings.values());
+                }
+            }
+
+            // Com prefixo, um item pode aparecer em mais de uma palavra do termo
+            NavigableMap<String, Set<LibraryItem>> driverPostings = postingsOf(driver);
+            Set<LibraryItem> seen = hasAtMost(driverPostings, 1) ? null : new HashSet<>();
+
+            PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed()); // O pior resultado fica no topo
+            for (Set<LibraryItem> items : driverPostings.values()) {
+                for (LibraryItem item : items) {
+                    if ((seen != null && !seen.add(item)) || !passes(item, filters)) {
+                        continue;
+                    }
+                    int hits = score(indexedItems.get(item), terms);
+                    if (hits > 0) {
+                        best.add(new Match(item, hits));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<LibraryItem> result = new ArrayList<>(ranked.size());
+            for (Match match : ranked) {
+                result.add(match.item);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Evita size(), que percorre todo o intervalo de um subMap
+    private static boolean hasAtMost(NavigableMap<String, Set<LibraryItem>> postings, int max) {
+        int count = 0;
+        for (String ignored : postings.keySet()) {
+            if (++count > max) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean passes(LibraryItem item, List<Collection<Set<LibraryItem>>> filters) {
+        for (Collection<Set<LibraryItem>> filter : filters) {
+            boolean found = false;
+            for (Set<LibraryItem> items : filter) {
+                if (items.contains(item)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Número de itens associados ao termo; para prefixos a soma para ao passar de 'stopAt'
+    private long estimateSize(Term term, long stopAt) {
+        long size = 0;
+        for (Set<LibraryItem> items : postingsOf(term).values()) {
+            size += items.size();
+            if (size >= stopAt) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    private NavigableMap<String, Set<LibraryItem>> postingsOf(Term term) {
+        if (term.prefix) {
+            return itemsByWord.subMap(term.word, true, term.word + Character.MAX_VALUE, false);
+        }
+        return itemsByWord.subMap(term.word, true, term.word, true);
+    }
+
+    // Ocorrências dos termos no título e no autor; 0 se algum termo não aparece no item
+    private static int score(IndexedItem indexed, List<Term> terms) {
+        int hits = 0;
+        for (Term term : terms) {
+            int termHits = (term.matchesAny(indexed.titleWords) ? 1 : 0) + (term.matchesAny(indexed.authorWords) ? 1 : 0);
+            if (termHits == 0) {
+                return 0;
+            }
+            hits += termHits;
+        }
+        return hits;
+    }
+
+    private static List<Term> parseQuery(String query) {
+        List<Term> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String part : query.trim().split("\\s+")) {
+            boolean prefix = part.endsWith("*");
+            String[] words = tokenize(prefix ? part.substring(0, part.length() - 1) : part);
+            for (int i = 0; i < words.length; i++) {
+                // Em "sao-pau*" apenas a última palavra é prefixo
+                terms.add(new Term(words[i], prefix && i == words.length - 1));
+            }
+        }
+        return terms;
+    }
+
+    // Divide o texto em palavras (letras e dígitos), sem acentos e em minúsculas, sem repetições
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        // Textos só com ASCII (a maioria) não precisam da decomposição, que é cara
+        String decomposed = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // Acento separado da letra pela decomposição NFD
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                addWord(words, word);
+            }
+        }
+        if (word.length() > 0) {
+            addWord(words, word);
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addWord(List<String> words, StringBuilder word) {
+        String normalized = word.toString().toLowerCase(Locale.ROOT);
+        if (!words.contains(normalized)) {
+            words.add(normalized);
+        }
+        word.setLength(0);
+    }
+
+    private static final class IndexedItem {
+        private final String[] titleWords;
+        private final String[] authorWords;
+
+        private IndexedItem(String[] titleWords, String[] authorWords) {
+            this.titleWords = titleWords;
+            this.authorWords = authorWords;
+        }
+    }
+
+    private static final class Term {
+        private final String word;
+        private final boolean prefix;
+
+        private Term(String word, boolean prefix) {
+            this.word = word;
+            this.prefix = prefix;
+        }
+
+        private boolean matchesAny(String[] words) {
+            for (String candidate : words) {
+                if (prefix ? candidate.startsWith(word) : candidate.equals(word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Match {
+        private final LibraryItem item;
+        private final int hits;
+
+        private Match(LibraryItem item, int hits) {
+            this.item = item;
+            this.hits = hits;
+        }
+    }
+}
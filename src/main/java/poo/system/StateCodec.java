@@ -0,0 +1,175 @@
+package poo.system;
+
+import poo.entity.User;
+import poo.item.Book;
+import poo.item.CopyInventory;
+import poo.item.Dvd;
+import poo.item.LibraryItem;
+import poo.item.Magazine;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.BitSet;
+
+// Codificação binária de itens, usuários e datas, compartilhada pelo journal e pelos snapshots.
+// A leitura recria os objetos pelos métodos 'restore', sem repetir validações nem imprimir avisos.
+final class StateCodec {
+
+    private static final byte BOOK = 1;
+    private static final byte MAGAZINE = 2;
+    private static final byte DVD = 3;
+    private static final int MULTI_COPY = 0x40; // Junto do tipo: a quantidade de exemplares vem no fim (mais de um)
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private StateCodec() {
+    }
+
+    // Item com os exemplares emprestados e a contagem de empréstimos de cada um (snapshots)
+    static void writeItemWithState(DataOutput out, LibraryItem item) throws IOException {
+        writeItem(out, item);
+        CopyInventory copies = item.getCopies();
+        long[] onLoan = copies.onLoanCopies().toLongArray();
+        out.writeShort(onLoan.length);
+        for (long word : onLoan) {
+            out.writeLong(word);
+        }
+        for (int copy = 0; copy < copies.getTotalCopies(); copy++) {
+            out.writeInt(copies.getBorrowCount(copy));
+        }
+    }
+
+    // 'perCopy' falso: snapshot anterior aos exemplares, com um booleano de disponibilidade e a contagem
+    static LibraryItem readItemWithState(DataInput in, boolean perCopy) throws IOException {
+        return readItem(in, true, perCopy);
+    }
+
+    // Apenas os dados cadastrais do item (journal): ao ser recriado ele está disponível e sem empréstimos
+    static void writeItem(DataOutput out, LibraryItem item) throws IOException {
+        int totalCopies = item.getTotalCopies();
+        int copiesFlag = totalCopies > 1 ? MULTI_COPY : 0;
+        if (item instanceof Book book) {
+            out.writeByte(BOOK | copiesFlag);
+            writeCommonFields(out, item);
+            out.writeUTF(book.getISBN());
+        } else if (item instanceof Magazine magazine) {
+            out.writeByte(MAGAZINE | copiesFlag);
+            writeCommonFields(out, item);
+            out.writeUTF(magazine.getISSN());
+            out.writeInt(magazine.getEditionNumber());
+        } else if (item instanceof Dvd) {
+            out.writeByte(DVD | copiesFlag);
+            writeCommonFields(out, item);
+        } else {
+            throw new IllegalArgumentException("Tipo de item não suportado pelo journal: " + item.getClass().getSimpleName());
+        }
+        if (copiesFlag != 0) {
+            out.writeInt(totalCopies);
+        }
+    }
+
+    static LibraryItem readItem(DataInput in) throws IOException {
+        return readItem(in, false, false);
+    }
+
+    private static LibraryItem readItem(DataInput in, boolean withState, boolean perCopy) throws IOException {
+        int header = in.readByte();
+        byte type = (byte) (header & ~MULTI_COPY);
+        String title = in.readUTF();
+        String author = in.readUTF();
+        int publicationYear = in.readInt();
+        String specificId = null;
+        int editionNumber = 0;
+        if (type == BOOK) {
+            specificId = in.readUTF();
+        } else if (type == MAGAZINE) {
+            specificId = in.readUTF();
+            editionNumber = in.readInt();
+        } else if (type != DVD) {
+            throw new IOException("Tipo de item desconhecido: " + type);
+        }
+        int totalCopies = (header & MULTI_COPY) != 0 ? in.readInt() : 1;
+        CopyInventory copies;
+        if (!withState) {
+            copies = new CopyInventory(totalCopies);
+        } else if (perCopy) {
+            copies = readCopies(in, totalCopies);
+        } else {
+            copies = CopyInventory.single(in.readBoolean(), in.readInt());
+        }
+
+        return switch (type) {
+            case BOOK -> Book.restore(title, author, publicationYear, specificId, copies);
+            case MAGAZINE -> Magazine.restore(title, author, publicationYear, specificId, editionNumber, copies);
+            default -> Dvd.restore(title, author, publicationYear, copies);
+        };
+    }
+
+    private static CopyInventory readCopies(DataInput in, int totalCopies) throws IOException {
+        long[] onLoan = new long[in.readUnsignedShort()];
+        for (int i = 0; i < onLoan.length; i++) {
+            onLoan[i] = in.readLong();
+        }
+        int[] borrowCounts = new int[totalCopies];
+        for (int copy = 0; copy < totalCopies; copy++) {
+            borrowCounts[copy] = in.readInt();
+        }
+        return CopyInventory.restore(BitSet.valueOf(onLoan), borrowCounts);
+    }
+
+    // Usuário com o estado de bloqueio (snapshots)
+    static void writeUserWithState(DataOutput out, User user) throws IOException {
+        writeUser(out, user);
+        out.writeBoolean(user.isBlocked());
+    }
+
+    static User readUserWithState(DataInput in) throws IOException {
+        return readUser(in, true);
+    }
+
+    static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeUTF(user.getName());
+        out.writeUTF(user.getCPF());
+        out.writeUTF(user.getEmail());
+        out.writeByte(user.getUserType().ordinal());
+    }
+
+    static User readUser(DataInput in) throws IOException {
+        return readUser(in, false);
+    }
+
+    private static User readUser(DataInput in, boolean withState) throws IOException {
+        String name = in.readUTF();
+        String cpf = in.readUTF();
+        String email = in.readUTF();
+        User.UserType userType = readUserType(in);
+        boolean blocked = withState && in.readBoolean();
+        return User.restore(name, cpf, email, userType, blocked);
+    }
+
+    static User.UserType readUserType(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        User.UserType[] types = User.UserType.values();
+        if (ordinal >= types.length) {
+            throw new IOException("Tipo de usuário desconhecido: " + ordinal);
+        }
+        return types[ordinal];
+    }
+
+    // Datas são gravadas como dia epoch (int); datas nulas usam um marcador
+    static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeInt(date == null ? NO_DATE : (int) date.toEpochDay());
+    }
+
+    static LocalDate readDate(DataInput in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void writeCommonFields(DataOutput out, LibraryItem item) throws IOException {
+        out.writeUTF(item.getTitle());
+        out.writeUTF(item.getAuthor());
+        out.writeInt(item.getPublicationYear());
+    }
+}
@@ -0,0 +1,56 @@
+package poo.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// IDs crescentes e ordenados pelo momento da geração, num long:
+// [ 41 bits: milissegundos desde 2024-01-01 | 22 bits: sequência dentro do milissegundo ]
+// Cada ID é o maior entre (último ID + 1) e (agora << 22), então os IDs nunca se repetem nem diminuem,
+// mesmo se o relógio voltar (a sequência continua a partir do último ID). Com mais de 4 milhões de IDs
+// no mesmo milissegundo a sequência avança para o milissegundo seguinte.
+// Sem locks e sem SecureRandom: uma leitura do relógio e um compareAndSet por ID.
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    static final TimeOrderedIdGenerator SHARED = new TimeOrderedIdGenerator();
+
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int SEQUENCE_BITS = 22;
+
+    private final LongSupplier clock;
+    private final AtomicLong last;
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    // 'clock' retorna o horário atual em milissegundos desde 1970 (ex.: relógio fixo em testes)
+    public TimeOrderedIdGenerator(LongSupplier clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Relógio não pode ser nulo.");
+        }
+        this.clock = clock;
+        this.last = new AtomicLong();
+    }
+
+    @Override
+    public long nextId() {
+        long floor = Math.max(clock.getAsLong() - EPOCH_MILLIS, 0) << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long next = Math.max(previous + 1, floor);
+            if (last.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public void advancePast(long id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+
+    // Momento (milissegundos desde 1970) em que um ID deste gerador foi criado
+    public static long timestampOf(long id) {
+        return (id >>> SEQUENCE_BITS) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,205 @@
+package poo.validation;
+
+// Validação de CPF, ISBN-13, ISSN e email sem expressões regulares: cada verificação percorre o texto
+// uma única vez, sem alocar memória, e confere os dígitos verificadores (não apenas o formato).
+// Hífens (e, no CPF, pontos) são opcionais; os métodos normalize* devolvem a forma canônica.
+public final class IdentifierValidator {
+
+    private IdentifierValidator() {
+    }
+
+    // --- CPF: 11 dígitos, "12345678909" ou "123.456.789-09" ---
+
+    public static boolean isValidCpf(CharSequence cpf) {
+        if (cpf == null) {
+            return false;
+        }
+        int count = 0;
+        int sum1 = 0; // Soma ponderada dos 9 primeiros dígitos (pesos 10..2)
+        int sum2 = 0; // Soma ponderada dos 10 primeiros dígitos (pesos 11..2)
+        int first = -1;
+        boolean allEqual = true;
+        int checkDigit1 = -1;
+        int checkDigit2 = -1;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c == '.' || c == '-') {
+                continue;
+            }
+            if (c < '0' || c > '9' || count == 11) {
+                return false;
+            }
+            int digit = c - '0';
+            if (first < 0) {
+                first = digit;
+            } else if (digit != first) {
+                allEqual = false;
+            }
+            if (count < 9) {
+                sum1 += digit * (10 - count);
+                sum2 += digit * (11 - count);
+            } else if (count == 9) {
+                checkDigit1 = digit;
+                sum2 += digit * 2;
+            } else {
+                checkDigit2 = digit;
+            }
+            count++;
+        }
+        // Sequências repetidas (111.111.111-11) passam no cálculo, mas não são CPFs válidos
+        return count == 11 && !allEqual
+                && checkDigit1 == cpfCheckDigit(sum1)
+                && checkDigit2 == cpfCheckDigit(sum2);
+    }
+
+    private static int cpfCheckDigit(int weightedSum) {
+        int remainder = weightedSum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    // CPF só com os 11 dígitos, ou null se inválido
+    public static String normalizeCpf(String cpf) {
+        return isValidCpf(cpf) ? stripSeparators(cpf, 11) : null;
+    }
+
+    // --- ISBN-13: prefixo 978/979, com ou sem hífens ("978-0-306-40615-7") ---
+
+    public static boolean isValidIsbn(CharSequence isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        int count = 0;
+        int sum = 0; // Pesos alternados 1 e 3; o total (com o verificador) deve ser múltiplo de 10
+        int prefix = 0;
+        char previous = '-';
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-') {
+                if (previous == '-' || i == isbn.length() - 1) {
+                    return false; // Hífen no início, no fim ou repetido
+                }
+                previous = c;
+                continue;
+            }
+            if (c < '0' || c > '9' || count == 13) {
+                return false;
+            }
+            int digit = c - '0';
+            if (count < 3) {
+                prefix = prefix * 10 + digit;
+            }
+            sum += (count % 2 == 0) ? digit : digit * 3;
+            count++;
+            previous = c;
+        }
+        return count == 13 && (prefix == 978 || prefix == 979) && sum % 10 == 0;
+    }
+
+    // ISBN só com os 13 dígitos, ou null se inválido
+    public static String normalizeIsbn(String isbn) {
+        return isValidIsbn(isbn) ? stripSeparators(isbn, 13) : null;
+    }
+
+    // --- ISSN: 8 caracteres, "XXXX-XXXX"; o verificador pode ser 'X' (valor 10) ---
+
+    public static boolean isValidIssn(CharSequence issn) {
+        if (issn == null) {
+            return false;
+        }
+        int length = issn.length();
+        if (length != 8 && !(length == 9 && issn.charAt(4) == '-')) {
+            return false;
+        }
+        int count = 0;
+        int sum = 0; // Pesos 8..2 nos 7 primeiros dígitos; verificador = (11 - soma % 11) % 11
+        for (int i = 0; i < length; i++) {
+            if (length == 9 && i == 4) {
+                continue;
+            }
+            char c = issn.charAt(i);
+            if (count == 7) {
+                int expected = (11 - sum % 11) % 11;
+                int check = (c == 'X' || c == 'x') ? 10 : (c >= '0' && c <= '9') ? c - '0' : -1;
+                return check == expected;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            sum += (c - '0') * (8 - count);
+            count++;
+        }
+        return false;
+    }
+
+    // ISSN na forma "XXXX-XXXX" (verificador X em maiúscula), ou null se inválido
+    public static String normalizeIssn(String issn) {
+        if (!isValidIssn(issn)) {
+            return null;
+        }
+        String digits = stripSeparators(issn, 8).toUpperCase();
+        return digits.substring(0, 4) + '-' + digits.substring(4);
+    }
+
+    // --- Email: local@dominio.tld, mesmas regras da expressão usada antes em Person ---
+    // Parte local: letras, dígitos e . _ % + -; domínio: letras, dígitos, . e -, terminando em
+    // ".tld" com 2 a 6 letras.
+
+    public static boolean isValidEmail(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int at = -1;
+        int lastDot = -1;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0 || i == 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0) {
+                if (!isAsciiLetterOrDigit(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                    return false;
+                }
+            } else if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        // Domínio com ao menos um caractere antes do último ponto
+        if (at < 0 || lastDot <= at + 1) {
+            return false;
+        }
+        int tldLength = email.length() - lastDot - 1;
+        if (tldLength < 2 || tldLength > 6) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    // Remove pontos e hífens de um identificador já validado
+    private static String stripSeparators(String value, int length) {
+        if (value.length() == length) {
+            return value;
+        }
+        StringBuilder digits = new StringBuilder(length);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '.' && c != '-') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
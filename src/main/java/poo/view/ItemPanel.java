@@ -1,11 +1,13 @@
 package poo.view;
 
 import poo.system.Library;
+import poo.system.LibraryChange;
 import poo.item.*; // Importa Book, Dvd, Magazine, LibraryItem
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.List;
 
 public class ItemPanel extends JPanel {
@@ -18,7 +20,7 @@ public class ItemPanel extends JPanel {
     private JLabel specificIdLabel, editionNumberLabel;
     private JButton addItemButton, refreshListButton;
     private JTable itemTable;
-    private DefaultTableModel tableModel;
+    private ItemTableModel tableModel;
 
     public ItemPanel(Library library) {
         this.library = library;
@@ -86,14 +88,18 @@ public class ItemPanel extends JPanel {
         add(inputPanel, BorderLayout.NORTH);
 
         // --- Tabela de Exibição de Itens (Centro) ---
-        String[] columnNames = {"Título", "Autor/Diretor/Editor", "Ano", "ID Específico", "Tipo", "Disponível", "Empréstimos"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
+        // As linhas vêm da Library sob demanda (ver ItemTableModel); clicar no cabeçalho ordena pela coluna
+        tableModel = new ItemTableModel(library);
+        itemTable = new JTable(tableModel);
+        itemTable.getTableHeader().addMouseListener(new MouseAdapter() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Torna as células não editáveis
+            public void mouseClicked(MouseEvent e) {
+                int column = itemTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    tableModel.sortByColumn(itemTable.convertColumnIndexToModel(column));
+                }
             }
-        };
-        itemTable = new JTable(tableModel);
+        });
         JScrollPane scrollPane = new JScrollPane(itemTable);
         add(scrollPane, BorderLayout.CENTER);
 
@@ -107,6 +113,7 @@ public class ItemPanel extends JPanel {
         // --- Adicionar Listeners ---
         addItemButton.addActionListener(this::addItemAction);
         refreshListButton.addActionListener(e -> updateItemList());
+        tableModel.setOnLoaded(() -> refreshListButton.setEnabled(true));
         itemTypeComboBox.addActionListener(this::itemTypeChanged);
 
         // Inicializar visibilidade dos campos específicos
@@ -171,8 +178,7 @@ public class ItemPanel extends JPanel {
 
             if (newItem != null && library.addItem(newItem)) {
                 JOptionPane.showMessageDialog(this, "Item '" + title + "' adicionado com sucesso!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-                clearFields(); // Limpa os campos após o sucesso
-                updateItemList(); // Atualiza a tabela
+                clearFields(); // Limpa os campos após o sucesso (a tabela é atualizada pelo aviso ITEM_ADDED)
             } else {
                 // Mensagem de erro já é impressa pela classe Library
                 // Apenas exibe um diálogo genérico aqui se Library.addItem retornar false
@@ -198,34 +204,15 @@ public class ItemPanel extends JPanel {
         itemTypeComboBox.setSelectedIndex(0); // Volta para "Livro"
     }
 
-    private void updateItemList() {
-        tableModel.setRowCount(0); // Limpa a tabela
-        List<LibraryItem> items = library.listAllItems();
-        for (LibraryItem item : items) {
-            String specificId = "";
-            if (item instanceof Book book) {
-                specificId = book.getISBN();
-            } else if (item instanceof Magazine magazine) {
-                specificId = magazine.getISSN() + " (Ed. " + magazine.getEditionNumber() + ")";
-            } else if (item instanceof Dvd dvd) {
-                specificId = dvd.getTitle() + "-" + dvd.getAuthor() + "-" + dvd.getPublicationYear(); // Usa o ID interno para DVD
-            }
+    // Alterações da biblioteca, já na EDT (ver LibraryChangeDispatcher): empréstimos, devoluções e edições
+    // feitos em qualquer lugar atualizam só as linhas dos itens afetados
+    public void applyChanges(List<LibraryChange> changes) {
+        tableModel.applyChanges(changes);
+    }
 
-            // Garante que a coluna 'Tipo' exiba o tipo correto
-            String itemType = "";
-            if (item instanceof Book) itemType = "Livro";
-            else if (item instanceof Magazine) itemType = "Revista";
-            else if (item instanceof Dvd) itemType = "DVD";
-
-            tableModel.addRow(new Object[]{
-                    item.getTitle(),
-                    item.getAuthor(),
-                    item.getPublicationYear(),
-                    specificId,
-                    itemType,
-                    item.isAvailable() ? "Sim" : "Não",
-                    item.getBorrowCount()
-            });
-        }
+    // A ordenação roda em segundo plano; o botão volta a ficar ativo quando a nova lista é exibida
+    private void updateItemList() {
+        refreshListButton.setEnabled(false);
+        tableModel.reload();
     }
 }
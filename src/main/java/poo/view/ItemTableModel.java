@@ -0,0 +1,235 @@
+package poo.view;
+
+import poo.item.Book;
+import poo.item.Dvd;
+import poo.item.LibraryItem;
+import poo.item.Magazine;
+import poo.system.ItemOrder;
+import poo.system.ItemView;
+import poo.system.Library;
+import poo.system.LibraryChange;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+
+// Modelo da tabela de itens ligado diretamente à Library, sem copiar o acervo para a tabela.
+//
+// A ordenação (Library.itemView) é feita num SwingWorker, fora da thread da interface (EDT); na EDT
+// só é trocada a visão pronta. As linhas são montadas sob demanda, em páginas de PAGE_SIZE itens, quando
+// a JTable pede uma célula, e apenas as últimas MAX_CACHED_PAGES páginas ficam guardadas: o custo de
+// exibir a tabela depende das linhas visíveis, não do tamanho do acervo.
+//
+// Alterações de itens (applyChanges) atualizam apenas as linhas afetadas, na posição em que estão; a
+// ordem só é recalculada quando a visão é recarregada (ex.: um item novo, que ainda não tem linha).
+// Todos os métodos devem ser chamados na EDT.
+public class ItemTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Título", "Autor/Diretor/Editor", "Ano", "ID Específico", "Tipo", "Disponível", "Empréstimos"};
+    private static final ItemOrder[] COLUMN_ORDERS = {ItemOrder.TITLE, ItemOrder.AUTHOR, ItemOrder.YEAR, ItemOrder.ID,
+            ItemOrder.TYPE, ItemOrder.AVAILABILITY, ItemOrder.BORROW_COUNT};
+    private static final int PAGE_SIZE = 128;
+    private static final int MAX_CACHED_PAGES = 8;
+
+    private final Library library;
+    private final Map<Integer, Object[][]> cachedPages; // Número da página -> linhas formatadas
+    private ItemView view;
+    private ItemOrder order;
+    private boolean descending;
+    private boolean loading;
+    private boolean reloadPending; // Pedido durante um carregamento: o resultado em andamento é descartado
+    private Runnable onLoaded;
+
+    public ItemTableModel(Library library) {
+        this.library = library;
+        this.cachedPages = new LinkedHashMap<>(MAX_CACHED_PAGES * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+        this.order = ItemOrder.TITLE;
+    }
+
+    // Chamado na EDT ao fim de cada carregamento (ex.: para reativar um botão)
+    public void setOnLoaded(Runnable onLoaded) {
+        this.onLoaded = onLoaded;
+    }
+
+    // Recarrega a visão na ordem atual, em segundo plano. A tabela continua mostrando a visão anterior
+    // até a nova ficar pronta.
+    public void reload() {
+        if (loading) {
+            reloadPending = true;
+            return;
+        }
+        loading = true;
+        ItemOrder requestedOrder = order;
+        boolean requestedDescending = descending;
+        new SwingWorker<ItemView, Void>() {
+            @Override
+            protected ItemView doInBackground() {
+                return library.itemView(requestedOrder, requestedDescending);
+            }
+
+            @Override
+            protected void done() {
+                loading = false;
+                if (reloadPending) {
+                    reloadPending = false;
+                    reload();
+                    return;
+                }
+                try {
+                    showView(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Falha ao carregar os itens: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    // Ordena pela coluna; clicar de novo na mesma coluna inverte a ordem
+    public void sortByColumn(int column) {
+        ItemOrder columnOrder = COLUMN_ORDERS[column];
+        descending = columnOrder == order && !descending;
+        order = columnOrder;
+        reload();
+    }
+
+    // Aplica um grupo de alterações vindo de LibraryChangeDispatcher
+    public void applyChanges(List<LibraryChange> changes) {
+        TreeSet<Integer> changedRows = new TreeSet<>();
+        boolean itemAdded = false;
+        for (LibraryChange change : changes) {
+            if (change.getType() == LibraryChange.Type.ITEM_ADDED) {
+                itemAdded = true;
+            } else if (change.isItemChange() && view != null) {
+                int row = view.indexOf(change.getItemId());
+                if (row >= 0) {
+                    changedRows.add(row);
+                }
+            }
+        }
+        for (int row : changedRows) {
+            refreshRow(row);
+        }
+        if (itemAdded) {
+            reload();
+        }
+    }
+
+    public ItemView getView() {
+        return view;
+    }
+
+    @Override
+    public int getRowCount() {
+        return view == null ? 0 : view.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        String name = COLUMN_NAMES[column];
+        if (COLUMN_ORDERS[column] != order) {
+            return name;
+        }
+        return name + (descending ? " ▼" : " ▲");
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 2 || column == 6 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageNumber = row / PAGE_SIZE;
+        Object[][] page = cachedPages.get(pageNumber);
+        if (page == null) {
+            page = loadPage(pageNumber);
+            cachedPages.put(pageNumber, page);
+        }
+        return page[row - pageNumber * PAGE_SIZE][column];
+    }
+
+    private void showView(ItemView loaded) {
+        boolean orderChanged = view == null || view.getOrder() != loaded.getOrder() || view.isDescending() != loaded.isDescending();
+        view = loaded;
+        cachedPages.clear();
+        if (orderChanged) {
+            fireTableStructureChanged(); // Recria o cabeçalho com o indicador de ordenação
+        } else {
+            fireTableDataChanged();
+        }
+        if (onLoaded != null) {
+            onLoaded.run();
+        }
+    }
+
+    // Refaz a linha se a página dela estiver guardada (senão ela será montada quando for exibida)
+    private void refreshRow(int row) {
+        int pageNumber = row / PAGE_SIZE;
+        Object[][] page = cachedPages.get(pageNumber);
+        if (page != null) {
+            String itemId = view.itemIdAt(row);
+            page[row - pageNumber * PAGE_SIZE] = toRow(library.getItem(itemId), library.isItemReserved(itemId));
+        }
+        fireTableRowsUpdated(row, row);
+    }
+
+    private Object[][] loadPage(int pageNumber) {
+        List<LibraryItem> items = view.page(pageNumber * PAGE_SIZE, PAGE_SIZE);
+        Object[][] rows = new Object[items.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = toRow(items.get(i), library.isItemReserved(view.itemIdAt(pageNumber * PAGE_SIZE + i)));
+        }
+        return rows;
+    }
+
+    // 'reserved': os exemplares livres estão separados para quem os reservou
+    private static Object[] toRow(LibraryItem item, boolean reserved) {
+        String specificId = "";
+        String itemType = "";
+        if (item instanceof Book book) {
+            specificId = book.getISBN();
+            itemType = "Livro";
+        } else if (item instanceof Magazine magazine) {
+            specificId = magazine.getISSN() + " (Ed. " + magazine.getEditionNumber() + ")";
+            itemType = "Revista";
+        } else if (item instanceof Dvd dvd) {
+            specificId = dvd.getTitle() + "-" + dvd.getAuthor() + "-" + dvd.getPublicationYear(); // Usa o ID interno para DVD
+            itemType = "DVD";
+        }
+        return new Object[]{
+                item.getTitle(),
+                item.getAuthor(),
+                item.getPublicationYear(),
+                specificId,
+                itemType,
+                availability(item, reserved),
+                item.getBorrowCount()
+        };
+    }
+
+    // Títulos de vários exemplares mostram quantos estão livres ("3 de 40")
+    private static String availability(LibraryItem item, boolean reserved) {
+        if (reserved) {
+            return "Reservado";
+        }
+        if (item.getTotalCopies() > 1) {
+            return item.getAvailableCopies() + " de " + item.getTotalCopies();
+        }
+        return item.isAvailable() ? "Sim" : "Não";
+    }
+}
@@ -0,0 +1,69 @@
+package poo.view;
+
+import poo.system.Library;
+import poo.system.LibraryChange;
+import poo.system.LibraryChangeListener;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Leva as alterações da Library para a thread da interface (EDT), agrupadas.
+//
+// As alterações chegam nas threads das operações e são apenas guardadas; a primeira de um grupo agenda
+// uma única entrega na EDT (invokeLater), que leva tudo o que chegou até ela. Avisos repetidos no mesmo
+// grupo (ex.: vários empréstimos do mesmo item) são entregues uma vez, na ordem em que chegaram.
+// Assim um lote de milhares de operações vira poucas atualizações da tela, e não uma por operação.
+public class LibraryChangeDispatcher implements LibraryChangeListener {
+
+    private final Library library;
+    private final List<Consumer<List<LibraryChange>>> panels;
+    private Set<LibraryChange> pending; // Guardado por 'this'
+    private boolean deliveryScheduled; // Guardado por 'this'
+
+    public LibraryChangeDispatcher(Library library) {
+        this.library = library;
+        this.panels = new CopyOnWriteArrayList<>();
+        this.pending = new LinkedHashSet<>();
+        library.addChangeListener(this);
+    }
+
+    // 'panel' recebe, na EDT, cada grupo de alterações
+    public void addListener(Consumer<List<LibraryChange>> panel) {
+        panels.add(panel);
+    }
+
+    // Deixa de receber alterações da Library
+    public void detach() {
+        library.removeChangeListener(this);
+    }
+
+    @Override
+    public void onChange(LibraryChange change) {
+        boolean schedule;
+        synchronized (this) {
+            pending.add(change);
+            schedule = !deliveryScheduled;
+            deliveryScheduled = true;
+        }
+        if (schedule) {
+            SwingUtilities.invokeLater(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        List<LibraryChange> changes;
+        synchronized (this) {
+            changes = new ArrayList<>(pending);
+            pending = new LinkedHashSet<>();
+            deliveryScheduled = false;
+        }
+        List<LibraryChange> delivered = List.copyOf(changes);
+        for (Consumer<List<LibraryChange>> panel : panels) {
+            panel.accept(delivered);
+        }
+    }
+}
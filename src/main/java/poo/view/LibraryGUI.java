@@ -1,8 +1,12 @@
 package poo.view;
 
+import poo.system.HoldExpiryScheduler;
 import poo.system.Library;
+import poo.system.LibraryJournal;
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class LibraryGUI extends JFrame {
 
@@ -21,15 +25,26 @@ public class LibraryGUI extends JFrame {
 
     private void initComponents() {
         tabbedPane = new JTabbedPane();
+        // Alterações da biblioteca, agrupadas e entregues na EDT a cada painel
+        LibraryChangeDispatcher changes = new LibraryChangeDispatcher(library);
 
         // --- Painel de Gerenciamento de Itens ---
         ItemPanel itemPanel = new ItemPanel(library);
         tabbedPane.addTab("Gerenciar Itens", itemPanel);
+        changes.addListener(itemPanel::applyChanges);
 
         // --- Adicione outros painéis aqui conforme for desenvolvendo ---
-        // tabbedPane.addTab("Gerenciar Usuários", new UserPanel(library));
-        // tabbedPane.addTab("Empréstimos", new BorrowReturnPanel(library));
-        // tabbedPane.addTab("Multas", new PenaltyPanel(library));
+        // Cada painel registra seu applyChanges e atualiza apenas as linhas afetadas
+        // (ex.: BORROW_OPENED/BORROW_CLOSED pelo CPF, PENALTY_ISSUED/PENALTY_PAID pelo ID da multa).
+        // UserPanel userPanel = new UserPanel(library);
+        // tabbedPane.addTab("Gerenciar Usuários", userPanel);
+        // changes.addListener(userPanel::applyChanges);
+        // BorrowReturnPanel borrowPanel = new BorrowReturnPanel(library);
+        // tabbedPane.addTab("Empréstimos", borrowPanel);
+        // changes.addListener(borrowPanel::applyChanges);
+        // PenaltyPanel penaltyPanel = new PenaltyPanel(library);
+        // tabbedPane.addTab("Multas", penaltyPanel);
+        // changes.addListener(penaltyPanel::applyChanges);
         // tabbedPane.addTab("Relatórios", new ReportPanel(library));
 
         add(tabbedPane, BorderLayout.CENTER); // Adiciona o painel de abas à janela
@@ -37,8 +52,17 @@ public class LibraryGUI extends JFrame {
 
     public static void main(String[] args) {
         // Ponto de entrada da aplicação Swing
-        // Cria uma nova instância da Library (lógica de negócio)
-        Library library = new Library();
+        // Recupera a Library (lógica de negócio) gravada no diretório de dados, ou cria uma nova
+        Library library = openLibrary(Path.of(System.getProperty("poo.library.data", "biblioteca-dados")));
+        HoldExpiryScheduler holdExpiry = new HoldExpiryScheduler(library); // Expira reservas não retiradas no prazo
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            holdExpiry.close();
+            try {
+                library.close(); // Grava o que estiver pendente no journal
+            } catch (IOException e) {
+                System.err.println("Falha ao fechar o journal da biblioteca: " + e.getMessage());
+            }
+        }));
 
         // Garante que a GUI seja construída e exibida na Event Dispatch Thread (EDT)
         // ESSENCIAL para aplicações Swing.
@@ -46,4 +70,13 @@ public class LibraryGUI extends JFrame {
             new LibraryGUI(library).setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    private static Library openLibrary(Path dataDirectory) {
+        try {
+            return LibraryJournal.openLibrary(dataDirectory);
+        } catch (IOException e) {
+            System.err.println("Não foi possível abrir os dados em " + dataDirectory + ": " + e.getMessage() + ". Usando biblioteca em memória.");
+            return new Library();
+        }
+    }
+}